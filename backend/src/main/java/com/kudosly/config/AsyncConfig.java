@@ -0,0 +1,61 @@
+package com.kudosly.config;
+
+import com.kudosly.pipeline.BoundedVirtualThreadExecutor;
+import com.kudosly.pipeline.StripedExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Executors for the effort pipeline: capped virtual threads, and employee lanes for
+ * per-employee side effects
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.pipeline.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${app.pipeline.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Value("${app.stripes.count:0}")
+    private int stripeCount;
+
+    @Value("${app.stripes.capacity:500}")
+    private int stripeCapacity;
+
+    @Value("${app.stripes.hot-share:0.25}")
+    private double hotShare;
+
+    @Value("${app.stripes.hot-window-ms:10000}")
+    private long hotWindowMillis;
+
+    @Value("${app.stripes.hot-min-tasks:100}")
+    private int hotMinTasks;
+
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor effortPipelineExecutor() {
+        return new BoundedVirtualThreadExecutor(
+            "effort-pipeline", maxConcurrency, Duration.ofSeconds(shutdownTimeoutSeconds), meterRegistry);
+    }
+
+    /**
+     * One serial stripe per employeeId hash, shared by the pipeline, DLQ retry and outbox relay
+     * Closed after the services using it, so their stages drain into it first.
+     */
+    @Bean(destroyMethod = "close")
+    public StripedExecutor employeeLanes() {
+        return new StripedExecutor("employee", stripeCount > 0
+            ? stripeCount : 2 * Runtime.getRuntime().availableProcessors(), stripeCapacity,
+            Duration.ofSeconds(shutdownTimeoutSeconds), hotShare, Duration.ofMillis(hotWindowMillis), hotMinTasks,
+            meterRegistry).start();
+    }
+}
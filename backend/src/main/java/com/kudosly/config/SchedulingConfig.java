@@ -0,0 +1,48 @@
+package com.kudosly.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for the @Scheduled jobs
+ * The ingest log drain runs on a thread of its own so 202-accepted deliveries keep moving
+ * while slower jobs run. Recovery jobs that block on Mongo or HTTP (dead-letter retry,
+ * outbox relay, pull sync) share the maintenance pool; everything else shares the default
+ * pool, sized by spring.task.scheduling.pool.size.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String INGEST_SCHEDULER = "ingestScheduler";
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+
+    /**
+     * Default scheduler; declared here because any TaskScheduler bean replaces Boot's
+     */
+    @Bean
+    @Primary
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(INGEST_SCHEDULER)
+    public ThreadPoolTaskScheduler ingestScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ingest-log-");
+        return scheduler;
+    }
+
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler(
+            @Value("${app.scheduling.maintenance.pool-size:3}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("maintenance-");
+        return scheduler;
+    }
+}
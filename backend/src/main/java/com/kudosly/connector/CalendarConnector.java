@@ -0,0 +1,71 @@
+package com.kudosly.connector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.model.Effort;
+import com.kudosly.normalizer.SourceNormalizer;
+import com.kudosly.service.EmployeeIdentityIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pull meetings from the calendar gateway, attributed to the organizer
+ * Cancelled events and events without other attendees (focus blocks) are skipped;
+ * the effort type is left to the classifier so mentoring sessions and syncs differ.
+ */
+@Component
+public class CalendarConnector extends HttpPullConnector {
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    public CalendarConnector(
+            EmployeeIdentityIndex identityIndex,
+            ObjectMapper objectMapper,
+            @Value("${app.connectors.calendar.base-url:}") String baseUrl,
+            @Value("${app.connectors.calendar.token:}") String token,
+            @Value("${app.connectors.page-size:200}") int pageSize,
+            @Value("${app.connectors.request-timeout-seconds:30}") long timeoutSeconds) {
+        super(baseUrl, token, pageSize, Duration.ofSeconds(timeoutSeconds), objectMapper);
+        this.identityIndex = identityIndex;
+    }
+
+    @Override
+    public String name() {
+        return "calendar";
+    }
+
+    @Override
+    public String itemId(Map<String, Object> item) {
+        return string(item, "id");
+    }
+
+    @Override
+    public Effort toEffort(Map<String, Object> item) {
+        if ("cancelled".equals(item.get("status"))) {
+            return null;
+        }
+        if (!(item.get("attendeeCount") instanceof Number attendees) || attendees.intValue() < 2) {
+            return null;
+        }
+        // Null until the employee is known; PullSyncService parks the item meanwhile
+        String employeeId = identityIndex.findByEmail(string(item, "organizerEmail"));
+
+        Effort effort = new Effort();
+        effort.setSource("calendar");
+        effort.setEmployeeId(employeeId);
+        effort.setTitle(string(item, "summary"));
+        effort.setExternalId(string(item, "id"));
+        effort.setPayload(Map.of(
+            "title", Objects.toString(item.get("summary"), ""),
+            "description", Objects.toString(item.get("description"), ""),
+            "attendeeCount", attendees.intValue()));
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(date(item, "start"), receivedAt));
+        return effort;
+    }
+}
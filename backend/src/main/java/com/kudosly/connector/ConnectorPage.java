@@ -0,0 +1,17 @@
+package com.kudosly.connector;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a connector delta
+ *
+ * @param nextPageToken Token for the following page, or null on the last page
+ * @param cursor        Watermark to resume from next run; only meaningful on the last page
+ */
+public record ConnectorPage(List<Map<String, Object>> items, String nextPageToken, String cursor) {
+
+    public boolean isLast() {
+        return nextPageToken == null || nextPageToken.isEmpty();
+    }
+}
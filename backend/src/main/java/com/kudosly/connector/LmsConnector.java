@@ -0,0 +1,67 @@
+package com.kudosly.connector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.model.Effort;
+import com.kudosly.normalizer.SourceNormalizer;
+import com.kudosly.service.EmployeeIdentityIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pull course completions from the LMS; in-progress enrolments are skipped
+ */
+@Component
+public class LmsConnector extends HttpPullConnector {
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    public LmsConnector(
+            EmployeeIdentityIndex identityIndex,
+            ObjectMapper objectMapper,
+            @Value("${app.connectors.lms.base-url:}") String baseUrl,
+            @Value("${app.connectors.lms.token:}") String token,
+            @Value("${app.connectors.page-size:200}") int pageSize,
+            @Value("${app.connectors.request-timeout-seconds:30}") long timeoutSeconds) {
+        super(baseUrl, token, pageSize, Duration.ofSeconds(timeoutSeconds), objectMapper);
+        this.identityIndex = identityIndex;
+    }
+
+    @Override
+    public String name() {
+        return "lms";
+    }
+
+    @Override
+    public String itemId(Map<String, Object> item) {
+        return string(item, "id");
+    }
+
+    @Override
+    public Effort toEffort(Map<String, Object> item) {
+        if (!"completed".equals(item.get("status"))) {
+            return null;
+        }
+        // Null until the employee is known; PullSyncService parks the item meanwhile
+        String employeeId = identityIndex.findByEmail(string(item, "learnerEmail"));
+
+        Effort effort = new Effort();
+        effort.setSource("lms");
+        effort.setEmployeeId(employeeId);
+        effort.setEffortType("learning");
+        effort.setTitle(string(item, "courseTitle"));
+        effort.setExternalId(string(item, "courseId"));
+        effort.setPayload(Map.of(
+            "title", Objects.toString(item.get("courseTitle"), ""),
+            "description", Objects.toString(item.get("courseDescription"), ""),
+            "durationMinutes", item.getOrDefault("durationMinutes", 0)));
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(date(item, "completedAt"), receivedAt));
+        return effort;
+    }
+}
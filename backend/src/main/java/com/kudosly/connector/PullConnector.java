@@ -0,0 +1,45 @@
+package com.kudosly.connector;
+
+import com.kudosly.model.Effort;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A source that is polled for changes instead of pushing webhooks
+ *
+ * Implementations are Spring components; PullSyncService discovers them, keeps a sync
+ * cursor per connector and asks only for items changed since that cursor.
+ */
+public interface PullConnector {
+
+    /**
+     * Connector name; also the effort source and the sync cursor id
+     */
+    String name();
+
+    /**
+     * Whether the connector is configured; disabled connectors are skipped
+     */
+    boolean isEnabled();
+
+    /**
+     * Fetch one page of items changed since the cursor
+     *
+     * @param cursor    Watermark from the last complete run, or null on the very first run
+     * @param pageToken Token from the previous page of this run, or null for the first page
+     */
+    ConnectorPage fetch(String cursor, String pageToken) throws IOException, InterruptedException;
+
+    /**
+     * Stable id of an item within this connector, used to skip items already stored
+     */
+    String itemId(Map<String, Object> item);
+
+    /**
+     * Map an item to an effort, or null to skip it (e.g. cancelled)
+     * An item whose employee is not known yet maps to an effort with a null employeeId;
+     * it is parked and mapped again on later runs.
+     */
+    Effort toEffort(Map<String, Object> item);
+}
@@ -0,0 +1,332 @@
+package com.kudosly.connector;
+
+import com.kudosly.config.SchedulingConfig;
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.model.ParkedSyncItem;
+import com.kudosly.model.SyncCursor;
+import com.kudosly.repository.SyncCursorRepository;
+import com.kudosly.service.EffortIntakeService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the pull connectors on a schedule, each from its own sync cursor
+ *
+ * A run resumes from the cursor stored in sync_cursors, so only the delta since the last
+ * complete run is fetched. While one page is written the next is already being fetched;
+ * HTTP requests across all connectors are capped by a shared permit pool. The page token
+ * is checkpointed after each page so an interrupted run resumes where it stopped, and the
+ * cursor only advances once the last page is stored. Items are keyed by connector and
+ * item id (unique sparse syncKey), so pages replayed after a crash insert nothing twice.
+ * Items whose employee is not known yet are parked in parked_sync_items and a batch of the
+ * least recently tried is mapped again at the start of each run, so the cursor can move past them without losing them; items
+ * without an id are counted on the cursor as skipped. A run stops at the next page while the
+ * admission queue is full and resumes from the checkpointed page token on the next run.
+ */
+@Slf4j
+@Service
+public class PullSyncService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final List<PullConnector> connectors;
+    private final SyncCursorRepository cursorRepository;
+    private final MongoTemplate mongoTemplate;
+    private final EffortIntakeService effortIntakeService;
+    private final Semaphore requestPermits;
+    private final int parkedBatchSize;
+    private final Duration parkedTtl;
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public PullSyncService(
+            List<PullConnector> connectors,
+            SyncCursorRepository cursorRepository,
+            MongoTemplate mongoTemplate,
+            EffortIntakeService effortIntakeService,
+            @Value("${app.connectors.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${app.connectors.parked-batch-size:500}") int parkedBatchSize,
+            @Value("${app.connectors.parked-ttl-days:30}") long parkedTtlDays) {
+        this.connectors = connectors;
+        this.cursorRepository = cursorRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.effortIntakeService = effortIntakeService;
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.parkedBatchSize = parkedBatchSize;
+        this.parkedTtl = Duration.ofDays(parkedTtlDays);
+    }
+
+    /**
+     * Create the syncKey index and the parked items' TTL index if they are missing
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            mongoTemplate.indexOps(Effort.class)
+                .ensureIndex(new Index().on("syncKey", Sort.Direction.ASC).unique().sparse());
+        } catch (Exception e) {
+            log.warn("Could not create syncKey index; replayed connector items are only filtered by lookup", e);
+        }
+        try {
+            mongoTemplate.indexOps(ParkedSyncItem.class)
+                .ensureIndex(new Index().on("parkedAt", Sort.Direction.ASC).expire(parkedTtl));
+            mongoTemplate.indexOps(ParkedSyncItem.class)
+                .ensureIndex(new Index().on("connector", Sort.Direction.ASC).on("retriedAt", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not create parked sync item indexes; parked items will not expire", e);
+        }
+    }
+
+    /**
+     * Start a sync for every enabled connector that is not already syncing
+     */
+    @Scheduled(
+        fixedDelayString = "${app.connectors.poll-interval-ms:300000}",
+        initialDelayString = "${app.connectors.initial-delay-ms:60000}",
+        scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void syncAll() {
+        for (PullConnector connector : connectors) {
+            if (connector.isEnabled() && running.add(connector.name())) {
+                Thread.ofVirtual().name("pull-sync-" + connector.name()).start(() -> {
+                    try {
+                        sync(connector);
+                    } finally {
+                        running.remove(connector.name());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Fetch and store everything changed since the connector's cursor
+     * Returns the number of new efforts stored.
+     */
+    public long sync(PullConnector connector) {
+        String name = connector.name();
+        SyncCursor state = cursorRepository.findById(name)
+            .orElseGet(() -> new SyncCursor(name, null, null, null, null, 0L, 0L));
+        // Used as the next cursor if the remote API does not return one; overlap is absorbed by syncKey
+        String runStart = Instant.now().toString();
+        state.setLastRunAt(new Date());
+
+        String cursor = state.getCursor();
+        boolean resuming = state.getPageToken() != null;
+        long stored = 0;
+        try {
+            stored += retryParked(connector);
+            CompletableFuture<ConnectorPage> next = fetchAsync(connector, cursor, state.getPageToken());
+            while (true) {
+                if (effortIntakeService.isAdmissionSaturated()) {
+                    log.info("Admission queue is full; pausing {} sync until the next run", name);
+                    break;
+                }
+                ConnectorPage page = await(next);
+                resuming = false;
+                if (!page.isLast()) {
+                    // Prefetch the following page while this one is written
+                    next = fetchAsync(connector, cursor, page.nextPageToken());
+                }
+                stored += store(connector, page.items(), state);
+
+                if (page.isLast()) {
+                    state.setCursor(page.cursor() != null ? page.cursor() : runStart);
+                    state.setPageToken(null);
+                    state.setLastSuccessAt(new Date());
+                    break;
+                }
+                state.setPageToken(page.nextPageToken());
+                cursorRepository.save(state);
+            }
+            log.info("Synced {} new efforts from {} connector", stored, name);
+        } catch (Exception e) {
+            if (resuming) {
+                // The saved page token may have expired; restart from the cursor next time
+                state.setPageToken(null);
+            }
+            log.error("Sync of {} connector failed after {} new efforts; will resume next run", name, stored, e);
+        }
+        state.setItemsSynced((state.getItemsSynced() == null ? 0 : state.getItemsSynced()) + stored);
+        cursorRepository.save(state);
+        return stored;
+    }
+
+    private CompletableFuture<ConnectorPage> fetchAsync(PullConnector connector, String cursor, String pageToken) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                requestPermits.acquire();
+                try {
+                    return connector.fetch(cursor, pageToken);
+                } finally {
+                    requestPermits.release();
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, fetchExecutor);
+    }
+
+    private static ConnectorPage await(CompletableFuture<ConnectorPage> page) throws Exception {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Insert efforts for items not stored before and queue them for processing
+     * Items whose employee is unknown are parked; items without an id are counted and dropped.
+     */
+    private long store(PullConnector connector, List<Map<String, Object>> items, SyncCursor state) {
+        Map<String, Effort> byKey = new LinkedHashMap<>();
+        List<ParkedSyncItem> unresolved = new ArrayList<>();
+        Date now = new Date();
+        int skipped = 0;
+        for (Map<String, Object> item : items) {
+            String itemId = connector.itemId(item);
+            if (itemId == null) {
+                skipped++;
+                continue;
+            }
+            Effort effort = connector.toEffort(item);
+            if (effort == null) {
+                continue;
+            }
+            String syncKey = connector.name() + ":" + itemId;
+            if (effort.getEmployeeId() == null) {
+                unresolved.add(new ParkedSyncItem(syncKey, connector.name(), item, now, now));
+            } else {
+                byKey.putIfAbsent(syncKey, effort);
+            }
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} {} items without an id", skipped, connector.name());
+            state.setItemsSkipped((state.getItemsSkipped() == null ? 0 : state.getItemsSkipped()) + skipped);
+        }
+        if (!unresolved.isEmpty()) {
+            unresolved.forEach(mongoTemplate::save);
+            log.info("Parked {} {} items whose employee is not known yet", unresolved.size(), connector.name());
+        }
+        return insertNew(byKey);
+    }
+
+    /**
+     * Map the connector's least recently tried parked items again, storing and unparking those now resolved
+     * Items the connector now skips are unparked too; the rest get retriedAt bumped, so the next
+     * run moves on to other items, and wait their turn again or for the TTL.
+     */
+    private long retryParked(PullConnector connector) {
+        Query leastRecent = new Query(Criteria.where("connector").is(connector.name()))
+            .with(Sort.by(Sort.Direction.ASC, "retriedAt"))
+            .limit(parkedBatchSize);
+        List<ParkedSyncItem> parked = mongoTemplate.find(leastRecent, ParkedSyncItem.class);
+        if (parked.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Effort> byKey = new LinkedHashMap<>();
+        List<String> unparked = new ArrayList<>();
+        List<String> stillParked = new ArrayList<>();
+        for (ParkedSyncItem item : parked) {
+            Effort effort = connector.toEffort(item.getItem());
+            if (effort == null || effort.getEmployeeId() != null) {
+                if (effort != null) {
+                    byKey.putIfAbsent(item.getId(), effort);
+                }
+                unparked.add(item.getId());
+            } else {
+                stillParked.add(item.getId());
+            }
+        }
+        long stored = insertNew(byKey);
+        if (!stillParked.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(stillParked)),
+                new Update().set("retriedAt", new Date()), ParkedSyncItem.class);
+        }
+        if (!unparked.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(unparked)), ParkedSyncItem.class);
+            log.info("Unparked {} of {} parked {} items", unparked.size(), parked.size(), connector.name());
+        }
+        return stored;
+    }
+
+    /**
+     * Insert the efforts whose syncKey is not stored yet and queue them for processing
+     */
+    private long insertNew(Map<String, Effort> byKey) {
+        if (byKey.isEmpty()) {
+            return 0;
+        }
+
+        Query seen = new Query(Criteria.where("syncKey").in(byKey.keySet()));
+        seen.fields().include("syncKey");
+        for (Effort existing : mongoTemplate.find(seen, Effort.class)) {
+            byKey.remove(existing.getSyncKey());
+        }
+        if (byKey.isEmpty()) {
+            return 0;
+        }
+
+        List<Effort> efforts = new ArrayList<>(byKey.size());
+        byKey.forEach((syncKey, effort) -> {
+            effort.setId(new ObjectId().toHexString());
+            effort.setSyncKey(syncKey);
+            effort.setStatus(EffortStatus.RECEIVED);
+            efforts.add(effort);
+        });
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class).insert(efforts).execute();
+        } catch (BulkOperationException e) {
+            // Duplicates raced in from elsewhere; anything else fails the run so the cursor stays put
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            e.getErrors().forEach(error -> rejected.add(error.getIndex()));
+        }
+
+        long inserted = 0;
+        for (int i = 0; i < efforts.size(); i++) {
+            if (!rejected.contains(i)) {
+                effortIntakeService.processEffortAsync(efforts.get(i));
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @PreDestroy
+    public void close() {
+        fetchExecutor.shutdownNow();
+    }
+}
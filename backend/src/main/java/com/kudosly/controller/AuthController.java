@@ -4,6 +4,10 @@ import com.kudosly.model.Employee;
 import com.kudosly.repository.EmployeeRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +24,9 @@ public class AuthController {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     /**
      * Login endpoint - authenticates user by email and password
      */
@@ -159,9 +166,10 @@ public class AuthController {
         String token = java.util.Base64.getEncoder()
             .encodeToString((employee.getEmail() + ":" + timestamp + ":" + employee.getId()).getBytes());
         
-        // Store token in employee record
+        // Store token in employee record; $set the one field rather than rewriting the employee
         employee.setToken(token);
-        employeeRepository.save(employee);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(employee.getId())),
+            Update.update("token", token), Employee.class);
         
         return token;
     }
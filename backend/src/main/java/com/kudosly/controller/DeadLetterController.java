@@ -0,0 +1,105 @@
+package com.kudosly.controller;
+
+import com.kudosly.model.DeadLetter;
+import com.kudosly.service.DeadLetterRetryService;
+import com.kudosly.service.DeadLetterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoints for the effort dead-letter queue
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+    private final DeadLetterRetryService retryService;
+
+    /**
+     * List dead letters, most recently failed first; optionally filtered by status
+     */
+    @GetMapping
+    public ResponseEntity<List<DeadLetter>> getDeadLetters(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        log.info("Fetching dead letters - status: {}, page: {}, size: {}", status, page, size);
+
+        return ResponseEntity.ok(deadLetterService.list(status, page, size));
+    }
+
+    /**
+     * Count dead letters by status
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(Map.of(
+            DeadLetterService.PENDING, deadLetterService.count(DeadLetterService.PENDING),
+            DeadLetterService.EXHAUSTED, deadLetterService.count(DeadLetterService.EXHAUSTED)));
+    }
+
+    /**
+     * Get one dead letter
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<DeadLetter> getDeadLetter(@PathVariable String id) {
+        DeadLetter letter = deadLetterService.get(id);
+        return letter != null ? ResponseEntity.ok(letter) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retry one dead letter now
+     */
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<Map<String, Object>> replay(@PathVariable String id) {
+        log.info("Replaying dead letter {}", id);
+
+        if (deadLetterService.get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean recovered = retryService.replay(id);
+
+        return ResponseEntity.ok(Map.of("id", id, "recovered", recovered));
+    }
+
+    /**
+     * Make dead letters (all, or those with a status) due now with a fresh attempt budget
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replayAll(@RequestParam(required = false) String status) {
+        log.info("Scheduling replay of dead letters - status: {}", status);
+
+        long scheduled = deadLetterService.scheduleReplay(status);
+
+        return ResponseEntity.ok(Map.of("scheduled", scheduled));
+    }
+
+    /**
+     * Delete one dead letter
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> purge(@PathVariable String id) {
+        log.info("Purging dead letter {}", id);
+
+        return deadLetterService.purge(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Delete dead letters (all, or those with a status)
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> purgeAll(@RequestParam(required = false) String status) {
+        log.info("Purging dead letters - status: {}", status);
+
+        return ResponseEntity.ok(Map.of("purged", deadLetterService.purgeAll(status)));
+    }
+}
@@ -1,21 +1,29 @@
 package com.kudosly.controller;
 
 import com.kudosly.model.Effort;
+import com.kudosly.pipeline.EffortCompletionRegistry;
 import com.kudosly.repository.EffortRepository;
 import com.kudosly.service.EffortIntakeService;
+import com.kudosly.service.RawEventArchiveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for effort events
@@ -28,6 +36,11 @@ public class EffortController {
 
     private final EffortIntakeService effortIntakeService;
     private final EffortRepository effortRepository;
+    private final RawEventArchiveService rawEventArchive;
+    private final EffortCompletionRegistry completions;
+
+    @Value("${app.await.max-timeout-seconds:30}")
+    private long maxAwaitSeconds;
 
     /**
      * Get all efforts with pagination
@@ -61,6 +74,44 @@ public class EffortController {
         return ResponseEntity.ok(effort);
     }
 
+    /**
+     * Get the original webhook body an effort was created from
+     * Bodies are archived compressed outside the efforts collection and read only here.
+     */
+    @GetMapping(value = "/{id}/raw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getRawEvent(@PathVariable String id) {
+        return rawEventArchive.fetch(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Long-poll until an effort finishes processing
+     * Parks on the completion registry rather than polling Mongo; no request thread is held
+     * while waiting. Returns 200 with the effort once it is recognized, scored without a
+     * recognition, or failed; 202 with the effort as it was when the wait began if the
+     * timeout (seconds, capped at app.await.max-timeout-seconds) passes first.
+     */
+    @GetMapping("/{id}/await")
+    public CompletableFuture<ResponseEntity<Effort>> awaitEffort(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "10") long timeout) {
+
+        // Park before reading, so a run that ends in between still wakes this waiter
+        Duration wait = Duration.ofSeconds(Math.max(0, Math.min(timeout, maxAwaitSeconds)));
+        CompletableFuture<Effort> done = completions.await(id, wait);
+
+        Optional<Effort> stored = effortRepository.findById(id);
+        if (stored.isEmpty() || EffortCompletionRegistry.isSettled(stored.get())) {
+            done.complete(null);
+            return CompletableFuture.completedFuture(stored.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build()));
+        }
+        Effort snapshot = stored.get();
+        return done.thenApply(effort -> effort != null ? ResponseEntity.ok(effort)
+            : ResponseEntity.status(HttpStatus.ACCEPTED).body(snapshot));
+    }
+
     /**
      * Get efforts for a specific user
      */
@@ -105,7 +156,7 @@ public class EffortController {
         Map<String, Object> stats = new HashMap<>();
         
         if (userId != null) {
-            List<Effort> userEfforts = effortRepository.findByEmployeeId(userId);
+            List<Effort> userEfforts = effortRepository.findSlimByEmployeeId(userId);
             stats.put("totalEfforts", userEfforts.size());
             stats.put("averageImpact", userEfforts.stream()
                     .mapToInt(e -> e.getImpactScore() != null ? e.getImpactScore() : 0)
@@ -2,10 +2,15 @@ package com.kudosly.controller;
 
 import com.kudosly.model.Recognition;
 import com.kudosly.repository.RecognitionRepository;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +27,7 @@ import java.util.Optional;
 public class RecognitionController {
 
     private final RecognitionRepository recognitionRepository;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Get a specific recognition by ID
@@ -85,4 +91,32 @@ public class RecognitionController {
         
         return ResponseEntity.ok(recognitions);
     }
+
+    /**
+     * Like a recognition
+     */
+    @PostMapping("/{recognitionId}/like")
+    public ResponseEntity<Void> like(@PathVariable String recognitionId) {
+        return increment(recognitionId, "likes");
+    }
+
+    /**
+     * Count a share of a recognition
+     */
+    @PostMapping("/{recognitionId}/share")
+    public ResponseEntity<Void> share(@PathVariable String recognitionId) {
+        return increment(recognitionId, "shares");
+    }
+
+    /**
+     * $inc one counter in place, so concurrent likes never overwrite each other
+     */
+    private ResponseEntity<Void> increment(String recognitionId, String counter) {
+        log.info("Incrementing {} on recognition: {}", counter, recognitionId);
+
+        UpdateResult result = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(recognitionId)),
+            new Update().inc(counter, 1), Recognition.class);
+
+        return result.getMatchedCount() > 0 ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
 }
@@ -1,16 +1,27 @@
 package com.kudosly.controller;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.kudosly.dto.BatchIngestResultDTO;
+import com.kudosly.ingest.IngestLog;
+import com.kudosly.ingest.IngestRecord;
+import com.kudosly.ingest.WebhookSignatureVerifier;
+import com.kudosly.service.BatchIngestService;
 import com.kudosly.service.EffortIntakeService;
+import jakarta.servlet.http.HttpServletRequest;
 import com.kudosly.model.Effort;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 
 /**
  * Webhook Controller for receiving effort events from external tools
  * Supports: Jira, Bitbucket, GitHub, Slack, Microsoft Teams
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/webhooks")
 @CrossOrigin(origins = "*", allowCredentials = "false")
@@ -19,80 +30,129 @@ public class WebhookController {
     @Autowired
     private EffortIntakeService effortIntakeService;
 
+    @Autowired
+    private BatchIngestService batchIngestService;
+
+    @Autowired
+    private IngestLog ingestLog;
+
+    @Autowired
+    private WebhookSignatureVerifier signatureVerifier;
+
     /**
      * Generic webhook endpoint for receiving effort events
+     * The raw body is appended to the ingest log and acknowledged with 202;
+     * normalization and persistence happen when the log is drained.
      * 
-     * @param payload Event payload from external tool
+     * @param body Raw event payload from external tool
      * @param source Integration source (jira, github, slack, etc.)
      * @param signature Webhook signature for verification
-     * @return Created Effort object
+     * @return Accepted status with the ingest log offset
      */
     @PostMapping("/efforts")
-    public ResponseEntity<Effort> receiveEffortWebhook(
-            @RequestBody Map<String, Object> payload,
+    public ResponseEntity<Map<String, Object>> receiveEffortWebhook(
+            @RequestBody byte[] body,
             @RequestParam(defaultValue = "unknown") String source,
-            @RequestHeader(value = "X-Webhook-Signature", required = false) String signature) {
+            @RequestHeader(value = "X-Webhook-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Delivery-Id", required = false) String deliveryId) {
         
+        return acceptWebhook(body, source, signature, null, deliveryId);
+    }
+
+    private ResponseEntity<Map<String, Object>> acceptWebhook(
+            byte[] body, String source, String signature, String timestamp, String deliveryId) {
         try {
-            // Verify webhook signature
-            if (signature != null && !signature.isEmpty()) {
-                if (!effortIntakeService.verifyWebhookSignature(payload, signature, source)) {
-                    return ResponseEntity.status(401).build();
-                }
+            // Verify webhook signature over the raw bytes as sent
+            if (signatureVerifier.isConfigured(source)
+                    && !signatureVerifier.verify(source, body, signature, timestamp)) {
+                return ResponseEntity.status(401).build();
             }
 
-            // Process webhook and create effort
-            Effort effort = effortIntakeService.processWebhook(payload, source);
+            // Durably record the delivery; the ingest log consumer creates the effort
+            Map<String, String> headers = deliveryId != null
+                ? Map.of(IngestRecord.DELIVERY_ID, deliveryId)
+                : Collections.emptyMap();
+            long offset = ingestLog.append(source, headers, body);
             
-            return ResponseEntity.ok(effort);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "status", "accepted",
+                "source", source,
+                "offset", offset
+            ));
+        } catch (IOException e) {
+            log.error("Failed to append webhook from source: {} to ingest log", source, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
+    /**
+     * Batch endpoint for connectors that buffer events
+     * Accepts NDJSON (one event per line), optionally gzip-compressed, and
+     * returns a result per line so only failed lines need to be resent.
+     */
+    @PostMapping("/efforts/batch")
+    public ResponseEntity<BatchIngestResultDTO> receiveEffortBatch(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "unknown") String source) {
+        
+        try {
+            BatchIngestResultDTO result = batchIngestService.ingestNdjson(request.getInputStream(), source);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.error("Failed to read batch from source: {}", source, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Jira-specific webhook endpoint
      */
     @PostMapping("/jira")
-    public ResponseEntity<Effort> receiveJiraWebhook(
-            @RequestBody Map<String, Object> payload,
-            @RequestHeader(value = "X-Atlassian-Webhook-Signature", required = false) String signature) {
+    public ResponseEntity<Map<String, Object>> receiveJiraWebhook(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-Atlassian-Webhook-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Atlassian-Webhook-Identifier", required = false) String deliveryId) {
         
-        return receiveEffortWebhook(payload, "jira", signature);
+        return acceptWebhook(body, "jira", signature, null, deliveryId);
     }
 
     /**
      * Bitbucket-specific webhook endpoint
      */
     @PostMapping("/bitbucket")
-    public ResponseEntity<Effort> receiveBitbucketWebhook(
-            @RequestBody Map<String, Object> payload,
-            @RequestHeader(value = "X-Hook-UUID", required = false) String signature) {
+    public ResponseEntity<Map<String, Object>> receiveBitbucketWebhook(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-Hook-UUID", required = false) String signature,
+            @RequestHeader(value = "X-Request-UUID", required = false) String deliveryId) {
         
-        return receiveEffortWebhook(payload, "bitbucket", signature);
+        return acceptWebhook(body, "bitbucket", signature, null, deliveryId);
     }
 
     /**
      * GitHub-specific webhook endpoint
      */
     @PostMapping("/github")
-    public ResponseEntity<Effort> receiveGithubWebhook(
-            @RequestBody Map<String, Object> payload,
-            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature) {
+    public ResponseEntity<Map<String, Object>> receiveGithubWebhook(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId) {
         
-        return receiveEffortWebhook(payload, "github", signature);
+        return acceptWebhook(body, "github", signature, null, deliveryId);
     }
 
     /**
      * Slack-specific webhook endpoint
      */
     @PostMapping("/slack")
-    public ResponseEntity<Effort> receiveSlackWebhook(
-            @RequestBody Map<String, Object> payload,
+    public ResponseEntity<Map<String, Object>> receiveSlackWebhook(
+            @RequestBody byte[] body,
             @RequestHeader(value = "X-Slack-Request-Timestamp", required = false) String timestamp,
             @RequestHeader(value = "X-Slack-Signature", required = false) String signature) {
         
-        return receiveEffortWebhook(payload, "slack", signature);
+        // Slack has no delivery header; its event_id is read from the body when consumed
+        return acceptWebhook(body, "slack", signature, timestamp, null);
     }
 
     /**
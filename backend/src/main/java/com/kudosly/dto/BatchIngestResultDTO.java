@@ -0,0 +1,30 @@
+package com.kudosly.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResultDTO {
+    private String source;
+    private int totalLines;
+    private int created;
+    private int failed;
+    private List<LineResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private int line;
+        private String status; // created, skipped (a push with no new commits), failed
+        private String effortId;
+        private List<String> effortIds; // every effort the line created: one per new commit of a push
+        private String error;
+    }
+}
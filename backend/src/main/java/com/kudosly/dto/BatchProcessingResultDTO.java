@@ -0,0 +1,29 @@
+package com.kudosly.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProcessingResultDTO {
+    private int total;
+    private int processed;
+    private int failed;
+    private int recognitions;
+    private long elapsedMillis;
+    private List<ItemFailure> failures = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemFailure {
+        private String effortId;
+        private String stage; // classify, persist
+        private String error;
+    }
+}
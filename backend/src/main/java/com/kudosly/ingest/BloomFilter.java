@@ -0,0 +1,70 @@
+package com.kudosly.ingest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings
+ * Answers "definitely not seen" or "possibly seen" in O(k) without allocation.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Size the filter for the expected number of insertions and target false-positive rate
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long bitsNeeded = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (bitsNeeded + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units; good enough spread for delivery ids
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
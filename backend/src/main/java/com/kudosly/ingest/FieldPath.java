@@ -0,0 +1,103 @@
+package com.kudosly.ingest;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * A dot-separated path into a nested payload map, split once at compile time
+ *
+ * Replaces hand-written chains of {@code (Map<String, Object>) x.get(...)} casts:
+ * a lookup is one array walk that returns null as soon as a segment is missing or
+ * is not an object, instead of throwing.
+ */
+public final class FieldPath {
+
+    private final String path;
+    private final String[] segments;
+
+    private FieldPath(String path) {
+        this.path = path;
+        this.segments = path.split("\\.");
+    }
+
+    public static FieldPath of(String path) {
+        return new FieldPath(path);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Value at this path, or null if any segment is absent
+     */
+    public Object get(Map<String, ?> payload) {
+        Object node = payload;
+        for (String segment : segments) {
+            if (!(node instanceof Map<?, ?> map)) {
+                return null;
+            }
+            node = map.get(segment);
+        }
+        return node;
+    }
+
+    public boolean isPresent(Map<String, ?> payload) {
+        return get(payload) != null;
+    }
+
+    /**
+     * String value at this path, or null if absent or not a string
+     */
+    public String getString(Map<String, ?> payload) {
+        return get(payload) instanceof String value ? value : null;
+    }
+
+    /**
+     * Boolean value at this path, or null if absent or not a boolean
+     */
+    public Boolean getBoolean(Map<String, ?> payload) {
+        return get(payload) instanceof Boolean value ? value : null;
+    }
+
+    /**
+     * Timestamp at this path, or null if absent or unparseable
+     * Accepts ISO-8601 strings with an offset, epoch milliseconds and epoch seconds,
+     * including Slack's fractional "1712345678.000100" strings.
+     */
+    public Date getDate(Map<String, ?> payload) {
+        Object value = get(payload);
+        if (value instanceof Number number) {
+            return fromEpoch(number.doubleValue());
+        }
+        if (!(value instanceof String text) || text.isEmpty()) {
+            return null;
+        }
+        if (Character.isDigit(text.charAt(0)) && text.indexOf('-') < 0) {
+            try {
+                return fromEpoch(Double.parseDouble(text));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Values below 1e11 are seconds (until the year 5138), larger ones milliseconds
+    private static Date fromEpoch(double epoch) {
+        long millis = epoch < 1e11 ? (long) (epoch * 1000) : (long) epoch;
+        return Date.from(Instant.ofEpochMilli(millis));
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
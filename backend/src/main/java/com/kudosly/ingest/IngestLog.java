@@ -0,0 +1,211 @@
+package com.kudosly.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, segmented, memory-mapped log of raw webhook deliveries
+ *
+ * Request threads append and return immediately; a single consumer polls records,
+ * processes them and commits offsets. Segments whose records are all committed are
+ * deleted, and anything uncommitted is replayed after a restart.
+ */
+@Slf4j
+@Component
+public class IngestLog implements Closeable {
+
+    private static final String COMMIT_FILE = "commit.offset";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean forceOnAppend;
+
+    private final ConcurrentSkipListMap<Long, IngestLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile IngestLogSegment activeSegment;
+    private volatile long committedOffset;
+
+    // Consumer cursor, only touched by the polling thread
+    private IngestLogSegment readSegment;
+    private int readPosition;
+
+    public IngestLog(@Value("${app.ingest.log.dir:data/ingest-log}") String directory,
+                     @Value("${app.ingest.log.segment-bytes:67108864}") int segmentBytes,
+                     @Value("${app.ingest.log.force-on-append:false}") boolean forceOnAppend) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.forceOnAppend = forceOnAppend;
+        open();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(IngestLogSegment.FILE_SUFFIX)).sorted().toList()) {
+                IngestLogSegment segment = IngestLogSegment.open(file);
+                segments.put(segment.baseOffset(), segment);
+            }
+        }
+
+        committedOffset = readCommittedOffset();
+
+        if (segments.isEmpty()) {
+            activeSegment = IngestLogSegment.create(directory, committedOffset, segmentBytes);
+            segments.put(activeSegment.baseOffset(), activeSegment);
+        } else {
+            activeSegment = segments.lastEntry().getValue();
+            segments.headMap(activeSegment.baseOffset()).values().forEach(IngestLogSegment::seal);
+        }
+
+        rewind();
+        log.info("Opened ingest log at {} with {} segment(s), committed offset {}, next offset {}",
+                directory.toAbsolutePath(), segments.size(), committedOffset, activeSegment.nextOffset());
+    }
+
+    /**
+     * Append a raw delivery and return its offset
+     */
+    public long append(String source, Map<String, String> headers, byte[] body) throws IOException {
+        int size = IngestLogSegment.encodedSize(source, headers, body);
+        appendLock.lock();
+        try {
+            IngestLogSegment segment = activeSegment;
+            if (!segment.hasRoomFor(size)) {
+                segment = roll(size);
+            }
+            return segment.append(source, headers, body, forceOnAppend);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private IngestLogSegment roll(int recordSize) throws IOException {
+        IngestLogSegment previous = activeSegment;
+        int capacity = Math.max(segmentBytes, recordSize + 4);
+        IngestLogSegment next = IngestLogSegment.create(directory, previous.nextOffset(), capacity);
+        segments.put(next.baseOffset(), next);
+        activeSegment = next;
+        // Sealing after publishing the new segment lets the consumer move on as soon as it drains the old one
+        previous.seal();
+        log.debug("Rolled ingest log segment at offset {}", next.baseOffset());
+        return next;
+    }
+
+    /**
+     * Read up to maxRecords records after the consumer cursor
+     */
+    public synchronized List<IngestRecord> poll(int maxRecords) {
+        List<IngestRecord> records = new ArrayList<>();
+        while (records.size() < maxRecords) {
+            IngestRecord record = readSegment.read(readPosition);
+            if (record == null) {
+                if (!readSegment.isSealed() || readPosition < readSegment.writePosition()) {
+                    break;
+                }
+                Map.Entry<Long, IngestLogSegment> next = segments.higherEntry(readSegment.baseOffset());
+                if (next == null) {
+                    break;
+                }
+                readSegment = next.getValue();
+                readPosition = 0;
+                continue;
+            }
+            readPosition = readSegment.nextPosition(readPosition);
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Move the consumer cursor back to the first uncommitted record
+     */
+    public synchronized void rewind() {
+        Map.Entry<Long, IngestLogSegment> entry = segments.floorEntry(committedOffset);
+        readSegment = entry != null ? entry.getValue() : segments.firstEntry().getValue();
+        readPosition = readSegment.positionOf(Math.max(committedOffset, readSegment.baseOffset()));
+    }
+
+    /**
+     * Mark every record up to and including the given offset as processed and drop
+     * segments that no longer hold uncommitted records
+     */
+    public synchronized void commit(long offset) throws IOException {
+        if (offset < committedOffset) {
+            return;
+        }
+        committedOffset = offset + 1;
+        writeCommittedOffset(committedOffset);
+        truncate();
+    }
+
+    private void truncate() throws IOException {
+        for (IngestLogSegment segment : segments.values()) {
+            if (segment == activeSegment || segment == readSegment || segment.nextOffset() > committedOffset) {
+                break;
+            }
+            segments.remove(segment.baseOffset());
+            segment.delete();
+            log.debug("Deleted committed ingest log segment {}", segment.baseOffset());
+        }
+    }
+
+    /**
+     * Offset the next appended record will receive
+     */
+    public long endOffset() {
+        return activeSegment.nextOffset();
+    }
+
+    /**
+     * First offset that has not been committed yet
+     */
+    public long committedOffset() {
+        return committedOffset;
+    }
+
+    /**
+     * Number of appended records that have not been committed
+     */
+    public long lag() {
+        return endOffset() - committedOffset;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private long readCommittedOffset() throws IOException {
+        Path file = directory.resolve(COMMIT_FILE);
+        if (!Files.exists(file)) {
+            return segments.isEmpty() ? 0 : segments.firstKey();
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+    }
+
+    private void writeCommittedOffset(long offset) throws IOException {
+        Path temp = directory.resolve(COMMIT_FILE + ".tmp");
+        Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(offset).array());
+        Files.move(temp, directory.resolve(COMMIT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() {
+        segments.values().forEach(IngestLogSegment::force);
+    }
+}
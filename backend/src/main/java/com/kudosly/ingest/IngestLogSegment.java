@@ -0,0 +1,264 @@
+package com.kudosly.ingest;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped, pre-allocated segment file of the ingest log
+ *
+ * Record layout: [int length][int crc32][long offset][payload], where payload is
+ * [short sourceLen][source][byte headerCount]([short kLen][k][short vLen][v])*[int bodyLen][body].
+ * A zero length marks the end of written data.
+ */
+class IngestLogSegment {
+
+    static final int RECORD_HEADER_BYTES = 16;
+    static final String FILE_SUFFIX = ".log";
+
+    private final Path file;
+    private final long baseOffset;
+    private final MappedByteBuffer buffer;
+
+    // Published by the writer, read by the consumer thread
+    private volatile int writePosition;
+    private volatile long nextOffset;
+    private volatile boolean sealed;
+
+    private IngestLogSegment(Path file, long baseOffset, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.buffer = buffer;
+        this.nextOffset = baseOffset;
+    }
+
+    /**
+     * Create a new pre-allocated segment starting at the given offset
+     */
+    static IngestLogSegment create(Path dir, long baseOffset, int capacity) throws IOException {
+        Path file = dir.resolve(fileName(baseOffset));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new IngestLogSegment(file, baseOffset, buffer);
+        }
+    }
+
+    /**
+     * Open an existing segment and recover its write position by scanning valid records
+     */
+    static IngestLogSegment open(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - FILE_SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            IngestLogSegment segment = new IngestLogSegment(file, baseOffset, buffer);
+            segment.recover();
+            return segment;
+        }
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, FILE_SUFFIX);
+    }
+
+    /**
+     * Scan forward until the first torn or empty record and mark it as the end of data
+     */
+    private void recover() {
+        int position = 0;
+        long offset = baseOffset;
+        while (true) {
+            int length = recordLength(position);
+            if (length <= 0 || !checksumMatches(position, length) || buffer.getLong(position + 8) != offset) {
+                break;
+            }
+            position += RECORD_HEADER_BYTES + length;
+            offset++;
+        }
+        if (position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        this.writePosition = position;
+        this.nextOffset = offset;
+    }
+
+    /**
+     * Number of bytes a record needs in a segment, including its header
+     */
+    static int encodedSize(String source, Map<String, String> headers, byte[] body) {
+        int size = RECORD_HEADER_BYTES + 2 + utf8(source).length + 1 + 4 + body.length;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            size += 2 + utf8(header.getKey()).length + 2 + utf8(header.getValue()).length;
+        }
+        return size;
+    }
+
+    boolean hasRoomFor(int encodedSize) {
+        // Keep room for the zero terminator so readers always find an end marker
+        return writePosition + encodedSize + 4 <= buffer.capacity();
+    }
+
+    /**
+     * Append a record; caller must hold the log's append lock and check {@link #hasRoomFor}
+     */
+    long append(String source, Map<String, String> headers, byte[] body, boolean force) {
+        int start = writePosition;
+        int position = start + RECORD_HEADER_BYTES;
+
+        byte[] sourceBytes = utf8(source);
+        buffer.putShort(position, (short) sourceBytes.length);
+        buffer.put(position + 2, sourceBytes);
+        position += 2 + sourceBytes.length;
+
+        buffer.put(position++, (byte) headers.size());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            position = putShortString(position, header.getKey());
+            position = putShortString(position, header.getValue());
+        }
+
+        buffer.putInt(position, body.length);
+        buffer.put(position + 4, body);
+        position += 4 + body.length;
+
+        int length = position - start - RECORD_HEADER_BYTES;
+        long offset = nextOffset;
+        buffer.putLong(start + 8, offset);
+        buffer.putInt(start + 4, checksum(start + RECORD_HEADER_BYTES, length));
+        // Length is written last so a torn write never looks like a complete record
+        buffer.putInt(start, length);
+
+        if (force) {
+            buffer.force(start, position - start);
+        }
+
+        this.nextOffset = offset + 1;
+        this.writePosition = position;
+        return offset;
+    }
+
+    /**
+     * Read the record at the given position, or null if nothing has been published there yet
+     */
+    IngestRecord read(int position) {
+        if (position >= writePosition) {
+            return null;
+        }
+        int length = recordLength(position);
+        long offset = buffer.getLong(position + 8);
+        int cursor = position + RECORD_HEADER_BYTES;
+
+        int sourceLength = buffer.getShort(cursor);
+        String source = getString(cursor + 2, sourceLength);
+        cursor += 2 + sourceLength;
+
+        int headerCount = buffer.get(cursor++) & 0xFF;
+        Map<String, String> headers = headerCount == 0 ? Collections.emptyMap() : new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            int keyLength = buffer.getShort(cursor);
+            String key = getString(cursor + 2, keyLength);
+            cursor += 2 + keyLength;
+            int valueLength = buffer.getShort(cursor);
+            String value = getString(cursor + 2, valueLength);
+            cursor += 2 + valueLength;
+            headers.put(key, value);
+        }
+
+        int bodyLength = buffer.getInt(cursor);
+        byte[] body = new byte[bodyLength];
+        buffer.get(cursor + 4, body);
+
+        assert cursor + 4 + bodyLength == position + RECORD_HEADER_BYTES + length;
+        return new IngestRecord(offset, source, headers, body);
+    }
+
+    /**
+     * Position of the record following the one at the given position
+     */
+    int nextPosition(int position) {
+        return position + RECORD_HEADER_BYTES + recordLength(position);
+    }
+
+    /**
+     * Position of the record with the given offset; scans from the start of the segment
+     */
+    int positionOf(long offset) {
+        int position = 0;
+        for (long current = baseOffset; current < offset && position < writePosition; current++) {
+            position = nextPosition(position);
+        }
+        return position;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void seal() {
+        force();
+        this.sealed = true;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    private int recordLength(int position) {
+        if (position + RECORD_HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        return position + RECORD_HEADER_BYTES + length > buffer.capacity() ? 0 : length;
+    }
+
+    private boolean checksumMatches(int position, int length) {
+        return buffer.getInt(position + 4) == checksum(position + RECORD_HEADER_BYTES, length);
+    }
+
+    private int checksum(int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private int putShortString(int position, String value) {
+        byte[] bytes = utf8(value);
+        buffer.putShort(position, (short) bytes.length);
+        buffer.put(position + 2, bytes);
+        return position + 2 + bytes.length;
+    }
+
+    private String getString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kudosly.ingest;
+
+import java.util.Map;
+
+/**
+ * A single raw webhook delivery as stored in the {@link IngestLog}
+ *
+ * @param offset  Monotonic log offset assigned on append
+ * @param source  Integration source (jira, github, slack, etc.)
+ * @param headers Selected request headers captured with the delivery
+ * @param body    Raw request body bytes exactly as received
+ */
+public record IngestRecord(long offset, String source, Map<String, String> headers, byte[] body) {
+
+    /**
+     * Header key for the sender's delivery id, used to reject redeliveries
+     */
+    public static final String DELIVERY_ID = "delivery-id";
+}
@@ -0,0 +1,99 @@
+package com.kudosly.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single-pass streaming extraction of declared field paths from a JSON document
+ *
+ * Paths use dot notation ("pull_request.user.login"). They are compiled into a trie
+ * once; while parsing, any subtree that no path leads into is skipped without being
+ * materialized. The result is a pruned nested map with the same shape as the source
+ * document, so code written against a fully bound payload keeps working: an object on a
+ * declared path is present, if empty, even when none of its declared fields are.
+ */
+public final class PayloadFieldExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Node root;
+
+    private PayloadFieldExtractor(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile the given dot-separated paths into an extractor
+     * A path ending at an object or array captures that whole subtree.
+     */
+    public static PayloadFieldExtractor compile(Collection<String> paths) {
+        Node root = new Node();
+        for (String path : paths) {
+            Node node = root;
+            for (String segment : path.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.capture = true;
+        }
+        return new PayloadFieldExtractor(root);
+    }
+
+    /**
+     * Extract the declared paths from a raw JSON object
+     */
+    public Map<String, Object> extract(byte[] json) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            return readObject(parser, root);
+        }
+    }
+
+    private Map<String, Object> readObject(JsonParser parser, Node node) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            Node child = node.children.get(name);
+            JsonToken token = parser.nextToken();
+
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.capture) {
+                values.put(name, readValue(parser, token));
+            } else if (token == JsonToken.START_OBJECT) {
+                // Kept even when empty: the object exists, e.g. a Jira assignee whose email is hidden
+                values.put(name, readObject(parser, child));
+            } else {
+                // A path expects an object here but the document has something else
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case START_OBJECT, START_ARRAY -> MAPPER.readValue(parser, Object.class);
+            default -> null;
+        };
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean capture;
+    }
+}
@@ -0,0 +1,177 @@
+package com.kudosly.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verifies webhook HMAC-SHA256 signatures over the raw request bytes
+ *
+ * Each source gets a Mac keyed once at startup; request threads use thread-local
+ * clones of it, so verification is a single pass over the body with no key setup
+ * and no per-request buffers. Header formats:
+ * - github/jira: "sha256=" + hex digest of the body
+ * - slack: "v0=" + hex digest of "v0:{timestamp}:{body}"
+ * - anything else: bare hex or Base64 digest of the body
+ */
+@Slf4j
+@Component
+public class WebhookSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int DIGEST_BYTES = 32;
+    private static final String SHA256_PREFIX = "sha256=";
+    private static final String SLACK_PREFIX = "v0=";
+
+    private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+    private final ThreadLocal<byte[]> digests = ThreadLocal.withInitial(() -> new byte[DIGEST_BYTES]);
+    private final long slackMaxClockSkewSeconds;
+
+    public WebhookSignatureVerifier(
+            @Value("${app.webhooks.secrets.jira:}") String jiraSecret,
+            @Value("${app.webhooks.secrets.github:}") String githubSecret,
+            @Value("${app.webhooks.secrets.slack:}") String slackSecret,
+            @Value("${app.webhooks.slack.max-clock-skew-seconds:300}") long slackMaxClockSkewSeconds) {
+        this.slackMaxClockSkewSeconds = slackMaxClockSkewSeconds;
+        register("jira", jiraSecret);
+        register("github", githubSecret);
+        register("slack", slackSecret);
+    }
+
+    private void register(String source, String secret) {
+        if (secret == null || secret.isEmpty()) {
+            return;
+        }
+        try {
+            Mac prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            macs.put(source, ThreadLocal.withInitial(() -> copyOf(prototype)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize webhook signature verification for " + source, e);
+        }
+    }
+
+    private static Mac copyOf(Mac prototype) {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC provider does not support cloning keyed instances", e);
+        }
+    }
+
+    /**
+     * Whether a secret is configured for the source
+     */
+    public boolean isConfigured(String source) {
+        return macs.containsKey(source.toLowerCase());
+    }
+
+    /**
+     * Verify a signature header against the raw body
+     *
+     * @param source    Integration source
+     * @param body      Raw request body exactly as received
+     * @param signature Signature header value
+     * @param timestamp Request timestamp header (Slack only)
+     */
+    public boolean verify(String source, byte[] body, String signature, String timestamp) {
+        ThreadLocal<Mac> macHolder = macs.get(source.toLowerCase());
+        if (macHolder == null) {
+            log.warn("No webhook secret configured for source: {}", source);
+            return true;
+        }
+        if (signature == null || signature.isEmpty()) {
+            return false;
+        }
+
+        Mac mac = macHolder.get();
+        mac.reset();
+
+        boolean slack = "slack".equalsIgnoreCase(source);
+        if (slack) {
+            if (!withinClockSkew(timestamp)) {
+                log.warn("Rejecting Slack webhook with stale or missing timestamp: {}", timestamp);
+                return false;
+            }
+            mac.update((byte) 'v');
+            mac.update((byte) '0');
+            mac.update((byte) ':');
+            for (int i = 0; i < timestamp.length(); i++) {
+                mac.update((byte) timestamp.charAt(i));
+            }
+            mac.update((byte) ':');
+        }
+        mac.update(body);
+
+        byte[] digest = digests.get();
+        try {
+            mac.doFinal(digest, 0);
+        } catch (GeneralSecurityException e) {
+            log.error("Error computing webhook signature for source: {}", source, e);
+            return false;
+        }
+
+        boolean valid;
+        if (slack) {
+            valid = signature.startsWith(SLACK_PREFIX) && hexEquals(signature, SLACK_PREFIX.length(), digest);
+        } else if (signature.startsWith(SHA256_PREFIX)) {
+            valid = hexEquals(signature, SHA256_PREFIX.length(), digest);
+        } else if (signature.length() == DIGEST_BYTES * 2) {
+            valid = hexEquals(signature, 0, digest);
+        } else {
+            valid = base64Equals(signature, digest);
+        }
+
+        if (!valid) {
+            log.warn("Invalid webhook signature for source: {}", source);
+        }
+        return valid;
+    }
+
+    private boolean withinClockSkew(String timestamp) {
+        if (timestamp == null) {
+            return false;
+        }
+        try {
+            long seconds = Long.parseLong(timestamp);
+            return Math.abs(System.currentTimeMillis() / 1000 - seconds) <= slackMaxClockSkewSeconds;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Constant-time comparison of a hex string (from offset) with the digest bytes
+     */
+    static boolean hexEquals(String signature, int offset, byte[] digest) {
+        if (signature.length() - offset != digest.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < digest.length; i++) {
+            int high = Character.digit(signature.charAt(offset + 2 * i), 16);
+            int low = Character.digit(signature.charAt(offset + 2 * i + 1), 16);
+            // An invalid hex digit yields -1, which sets bits outside the byte range
+            diff |= ((high << 4) | low) ^ (digest[i] & 0xFF);
+        }
+        return diff == 0;
+    }
+
+    private static boolean base64Equals(String signature, byte[] digest) {
+        try {
+            byte[] expected = Base64.getDecoder().decode(signature);
+            return MessageDigest.isEqual(expected, digest);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
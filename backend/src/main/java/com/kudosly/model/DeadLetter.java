@@ -0,0 +1,30 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An effort whose processing failed at some stage, waiting to be retried
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dead_letters")
+public class DeadLetter {
+    @Id
+    private String id; // effortId|stage, so repeated failures update one entry
+    private String effortId;
+    private String stage; // classify, persist, recognize, award, analyze
+    private String status; // pending, exhausted
+    private String errorType;
+    private String errorMessage;
+    private Integer attempts;
+    private Date firstFailedAt;
+    private Date lastFailedAt;
+    private Date nextAttemptAt; // unset once exhausted
+}
@@ -1,9 +1,13 @@
 package com.kudosly.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -20,15 +24,35 @@ public class Effort {
     private String employeeId;
     private String source; // jira, git, slack, lms, calendar
     private String effortType;
+    private String title; // issue summary, PR title or message text
+    private String externalId; // issue key, repo#PR number, message ts
     private Integer impactScore;
     private Date timestamp;
     private Date createdAt;
     private Date updatedAt;
     private Map<String, Object> payload;
     private String category;
-    private String status;
+    private String status; // see EffortStatus: received -> scored -> recognized | failed
     private Boolean isPublic;
     private List<Map<String, Object>> comments;
     private Integer likes;
     private Integer shares;
+    private Integer eventCount; // source events coalesced into this effort by sessionization
+    private String commitSha; // set on efforts fanned out from a push; unique when present
+    private String syncKey; // connector:itemId for efforts pulled by a connector; unique when present
+    private List<String> pendingEffects; // outbox: side effects (recognition, badge) not yet applied
+    private Date pendingSince; // when the outbox was written; unset once it is empty
+    private Integer priority; // processing lane from the intake pre-score: 0 high, 1 normal, 2 low
+
+    // Payload features extracted once for classification, scoring and recognition; never stored
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private EffortFeatures features;
+
+    public void setPayload(Map<String, Object> payload) {
+        this.payload = payload;
+        this.features = null;
+    }
 }
@@ -0,0 +1,31 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Per-employee effort totals for one event-time day or week, maintained incrementally
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "effort_aggregates")
+public class EffortAggregate {
+    @Id
+    private String id; // employeeId|granularity|bucketStart (ISO date)
+    private String employeeId;
+    private String granularity; // day, week
+    private Date bucketStart;
+    private Date bucketEnd;
+    private Long effortCount;
+    private Long impactTotal;
+    private Map<String, Long> countsByType;
+    private Long lateCorrections; // efforts applied after the watermark had passed the bucket
+    private Date updatedAt;
+}
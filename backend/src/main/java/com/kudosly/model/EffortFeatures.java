@@ -0,0 +1,151 @@
+package com.kudosly.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the classifier, scorer and recognition generator read from an effort's payload,
+ * extracted in one pass
+ *
+ * - text: lowercased content fields (issue, PR, commit(s), message, generic text/title/description)
+ * - tokens: the distinct words of text, so single-word keyword checks are set lookups
+ * - payloadText: the whole payload, lowercased, for the scorer's substring signals
+ * - PR metrics from pull_request, null when absent
+ * - description: the human-readable name of the effort used in recognition messages
+ */
+public record EffortFeatures(
+    String text,
+    Set<String> tokens,
+    String payloadText,
+    Integer additions,
+    Integer deletions,
+    Integer changedFiles,
+    Integer reviewComments,
+    boolean merged,
+    String description) {
+
+    public static final String DEFAULT_DESCRIPTION = "your contribution";
+
+    public static final EffortFeatures EMPTY =
+        new EffortFeatures("", Set.of(), "", null, null, null, null, false, DEFAULT_DESCRIPTION);
+
+    private static final Pattern NON_WORD = Pattern.compile("\\W+");
+
+    public EffortFeatures {
+        tokens = Set.copyOf(tokens);
+    }
+
+    /**
+     * The effort's features, extracted on first use and kept on the effort until its payload changes
+     */
+    public static EffortFeatures of(Effort effort) {
+        EffortFeatures features = effort.getFeatures();
+        if (features == null) {
+            features = extract(effort.getPayload());
+            effort.setFeatures(features);
+        }
+        return features;
+    }
+
+    public static EffortFeatures extract(Map<String, Object> payload) {
+        if (payload == null) {
+            return EMPTY;
+        }
+        String text = text(payload);
+        Set<String> tokens = Arrays.stream(NON_WORD.split(text))
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toSet());
+        Map<?, ?> pr = payload.get("pull_request") instanceof Map<?, ?> m ? m : Map.of();
+
+        return new EffortFeatures(
+            text,
+            tokens,
+            payload.toString().toLowerCase(),
+            intValue(pr.get("additions")),
+            intValue(pr.get("deletions")),
+            intValue(pr.get("changed_files")),
+            intValue(pr.get("review_comments")),
+            Boolean.TRUE.equals(pr.get("merged")),
+            description(payload));
+    }
+
+    /**
+     * Whether text contains the single-word keyword as a whole word
+     */
+    public boolean mentions(String keyword) {
+        return tokens.contains(keyword);
+    }
+
+    private static String text(Map<String, Object> payload) {
+        StringBuilder text = new StringBuilder();
+
+        // Jira payload
+        if (payload.get("issue") instanceof Map<?, ?> issue) {
+            append(text, issue.get("summary"));
+            append(text, issue.get("description"));
+        }
+
+        // GitHub payload
+        if (payload.get("pull_request") instanceof Map<?, ?> pr) {
+            append(text, pr.get("title"));
+            append(text, pr.get("body"));
+        }
+
+        if (payload.get("commit") instanceof Map<?, ?> commit) {
+            append(text, commit.get("message"));
+        }
+
+        // GitHub push payload not fanned out per commit
+        if (payload.get("commits") instanceof Iterable<?> commits) {
+            for (Object commit : commits) {
+                if (commit instanceof Map<?, ?> c) {
+                    append(text, c.get("message"));
+                }
+            }
+        }
+
+        // Slack payload
+        if (payload.get("event") instanceof Map<?, ?> event) {
+            append(text, event.get("text"));
+        }
+
+        // Generic text field
+        append(text, payload.get("text"));
+        append(text, payload.get("title"));
+        append(text, payload.get("description"));
+
+        return text.toString().toLowerCase();
+    }
+
+    private static String description(Map<String, Object> payload) {
+        // Try common payload fields in order of preference
+        if (payload.get("title") != null) {
+            return payload.get("title").toString();
+        }
+        if (payload.get("summary") != null) {
+            return payload.get("summary").toString();
+        }
+        if (payload.get("issue") instanceof Map<?, ?> issue && issue.get("summary") != null) {
+            return issue.get("summary").toString();
+        }
+        if (payload.get("pull_request") instanceof Map<?, ?> pr && pr.get("title") != null) {
+            return pr.get("title").toString();
+        }
+        if (payload.get("commit") instanceof Map<?, ?> commit && commit.get("message") != null) {
+            return commit.get("message").toString().split("\n")[0];
+        }
+        return DEFAULT_DESCRIPTION;
+    }
+
+    private static void append(StringBuilder text, Object value) {
+        text.append(Objects.toString(value, "")).append(" ");
+    }
+
+    private static Integer intValue(Object value) {
+        return value instanceof Number n ? n.intValue() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.kudosly.model;
+
+/**
+ * Values of Effort.status as an effort moves through processing
+ *
+ * received -> scored -> recognized; an effort below the recognition threshold stops at
+ * scored. Classification and scoring run as one step and are stored together, so there
+ * is no separate classified state. failed is stored when a step is dead-lettered; a
+ * successful retry moves the effort on to scored or recognized.
+ */
+public final class EffortStatus {
+
+    public static final String RECEIVED = "received";
+    public static final String SCORED = "scored";
+    public static final String RECOGNIZED = "recognized";
+    public static final String FAILED = "failed";
+
+    private EffortStatus() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Connector item whose employee was not resolved, mapped again on each sync until it is
+ * Expired by a TTL index on parkedAt; retries take the least recently tried items first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "parked_sync_items")
+public class ParkedSyncItem {
+    @Id
+    private String id; // syncKey: connector:itemId
+    private String connector;
+    private Map<String, Object> item;
+    private Date parkedAt;
+    private Date retriedAt;
+}
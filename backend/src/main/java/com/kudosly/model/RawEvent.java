@@ -0,0 +1,25 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Gzip-compressed raw webhook body, archived apart from the slim Effort document
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "raw_events")
+public class RawEvent {
+    @Id
+    private String id; // effort id
+    private String source;
+    private byte[] body; // gzip
+    private Integer rawSize;
+    private Date archivedAt;
+}
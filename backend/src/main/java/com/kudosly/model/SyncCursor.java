@@ -0,0 +1,27 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Sync position of a pull connector; each run fetches only what changed since the cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sync_cursors")
+public class SyncCursor {
+    @Id
+    private String id; // connector name
+    private String cursor; // watermark returned by the remote API at the end of the last complete run
+    private String pageToken; // next page of an interrupted run; resumed before starting a new one
+    private Date lastRunAt;
+    private Date lastSuccessAt;
+    private Long itemsSynced;
+    private Long itemsSkipped; // items without an id, which cannot be deduplicated or retried
+}
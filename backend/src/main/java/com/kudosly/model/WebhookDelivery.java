@@ -0,0 +1,24 @@
+package com.kudosly.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Record of a processed webhook delivery, expired by a TTL index on receivedAt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "webhook_deliveries")
+public class WebhookDelivery {
+    @Id
+    private String id; // source:deliveryId
+    private String source;
+    private String deliveryId;
+    private Date receivedAt;
+}
@@ -0,0 +1,60 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+import com.kudosly.service.EmployeeIdentityIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalize Bitbucket pull request webhooks; usernames share the GitHub identity namespace
+ */
+@Component
+@RequiredArgsConstructor
+public class BitbucketNormalizer implements SourceNormalizer {
+
+    private static final FieldPath USERNAME = FieldPath.of("pullrequest.author.user.username");
+    private static final FieldPath ID = FieldPath.of("pullrequest.id");
+    private static final FieldPath TITLE = FieldPath.of("pullrequest.title");
+    private static final FieldPath UPDATED_ON = FieldPath.of("pullrequest.updated_on");
+
+    private static final List<FieldPath> FIELD_PATHS = List.of(
+        ID, TITLE, FieldPath.of("pullrequest.description"), USERNAME, UPDATED_ON);
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    @Override
+    public String source() {
+        return "bitbucket";
+    }
+
+    @Override
+    public List<FieldPath> fieldPaths() {
+        return FIELD_PATHS;
+    }
+
+    @Override
+    public Effort normalize(Map<String, Object> payload) {
+        String username = USERNAME.getString(payload);
+        if (username == null) {
+            return null;
+        }
+
+        Effort effort = new Effort();
+        effort.setSource("bitbucket");
+        effort.setEmployeeId(identityIndex.findByGithubUsername(username));
+        effort.setEffortType("feature-work");
+        effort.setTitle(TITLE.getString(payload));
+        Object id = ID.get(payload);
+        effort.setExternalId(id == null ? null : id.toString());
+        effort.setPayload(payload);
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(UPDATED_ON.getDate(payload), receivedAt));
+        return effort;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+import com.kudosly.service.EmployeeIdentityIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalize GitHub pull request webhooks; the author is resolved by login
+ * Push events carry no pull request and normalize to null here; see PushEventFanOutService.
+ */
+@Component
+@RequiredArgsConstructor
+public class GithubNormalizer implements SourceNormalizer {
+
+    private static final FieldPath ACTION = FieldPath.of("action");
+    private static final FieldPath LOGIN = FieldPath.of("pull_request.user.login");
+    private static final FieldPath MERGED = FieldPath.of("pull_request.merged");
+    private static final FieldPath NUMBER = FieldPath.of("pull_request.number");
+    private static final FieldPath REPOSITORY = FieldPath.of("repository.full_name");
+    private static final FieldPath TITLE = FieldPath.of("pull_request.title");
+    private static final FieldPath UPDATED_AT = FieldPath.of("pull_request.updated_at");
+
+    private static final List<FieldPath> FIELD_PATHS = List.of(
+        NUMBER, REPOSITORY, TITLE, FieldPath.of("pull_request.body"), UPDATED_AT,
+        LOGIN, MERGED, FieldPath.of("pull_request.additions"), FieldPath.of("pull_request.deletions"),
+        FieldPath.of("pull_request.changed_files"), FieldPath.of("pull_request.review_comments"),
+        FieldPath.of("commit.message"),
+        // Push events; fanned out per commit by PushEventFanOutService
+        FieldPath.of("commits"), FieldPath.of("ref"));
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    @Override
+    public String source() {
+        return "github";
+    }
+
+    @Override
+    public List<FieldPath> fieldPaths() {
+        return FIELD_PATHS;
+    }
+
+    @Override
+    public Effort normalize(Map<String, Object> payload) {
+        String username = LOGIN.getString(payload);
+        if (username == null) {
+            return null;
+        }
+
+        Effort effort = new Effort();
+        effort.setSource("github");
+        effort.setEmployeeId(identityIndex.findByGithubUsername(username));
+        effort.setEffortType(detectEffortType(ACTION.getString(payload), payload));
+        effort.setTitle(TITLE.getString(payload));
+        Object number = NUMBER.get(payload);
+        effort.setExternalId(number == null ? null : REPOSITORY.getString(payload) + "#" + number);
+        effort.setPayload(payload);
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(UPDATED_AT.getDate(payload), receivedAt));
+        return effort;
+    }
+
+    /**
+     * Coalesce updates to an open PR (synchronize, edited, labeled, ...) per PR;
+     * opened, reopened and closed remain separate efforts
+     */
+    @Override
+    public String sessionKey(Map<String, Object> payload) {
+        String action = ACTION.getString(payload);
+        Object number = NUMBER.get(payload);
+        if (number == null || "opened".equals(action) || "reopened".equals(action) || "closed".equals(action)) {
+            return null;
+        }
+        return "github:" + REPOSITORY.getString(payload) + "#" + number;
+    }
+
+    /**
+     * Detect GitHub effort type from the webhook action
+     */
+    private static String detectEffortType(String action, Map<String, Object> payload) {
+        if ("opened".equals(action) || "reopened".equals(action)) {
+            return "feature-work";
+        } else if ("closed".equals(action)) {
+            return Boolean.TRUE.equals(MERGED.getBoolean(payload)) ? "feature-work" : "collaboration";
+        }
+        return "collaboration";
+    }
+}
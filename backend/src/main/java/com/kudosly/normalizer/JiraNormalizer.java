@@ -0,0 +1,74 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+import com.kudosly.service.EmployeeIdentityIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalize Jira issue webhooks; the assignee is resolved by email
+ */
+@Component
+@RequiredArgsConstructor
+public class JiraNormalizer implements SourceNormalizer {
+
+    private static final FieldPath ISSUE = FieldPath.of("issue");
+    private static final FieldPath ISSUE_KEY = FieldPath.of("issue.key");
+    private static final FieldPath SUMMARY = FieldPath.of("issue.summary");
+    private static final FieldPath DESCRIPTION = FieldPath.of("issue.description");
+    private static final FieldPath ASSIGNEE = FieldPath.of("issue.assignee");
+    private static final FieldPath ASSIGNEE_EMAIL = FieldPath.of("issue.assignee.emailAddress");
+    private static final FieldPath ISSUE_TYPE = FieldPath.of("issue.issuetype.name");
+    private static final FieldPath TIMESTAMP = FieldPath.of("timestamp");
+
+    private static final List<FieldPath> FIELD_PATHS = List.of(
+        ISSUE_KEY, SUMMARY, DESCRIPTION, ASSIGNEE_EMAIL, ISSUE_TYPE, TIMESTAMP);
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    @Override
+    public String source() {
+        return "jira";
+    }
+
+    @Override
+    public List<FieldPath> fieldPaths() {
+        return FIELD_PATHS;
+    }
+
+    @Override
+    public Effort normalize(Map<String, Object> payload) {
+        if (!ISSUE.isPresent(payload) || !ASSIGNEE.isPresent(payload)) {
+            return null;
+        }
+        String assigneeEmail = ASSIGNEE_EMAIL.getString(payload);
+
+        Effort effort = new Effort();
+        effort.setSource("jira");
+        effort.setEmployeeId(identityIndex.findByEmail(assigneeEmail != null ? assigneeEmail : ""));
+        effort.setEffortType(detectEffortType(ISSUE_TYPE.getString(payload)));
+        effort.setTitle(SUMMARY.getString(payload));
+        effort.setExternalId(ISSUE_KEY.getString(payload));
+        effort.setPayload(payload);
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(TIMESTAMP.getDate(payload), receivedAt));
+        return effort;
+    }
+
+    /**
+     * Detect Jira effort type from the issue type name
+     */
+    private static String detectEffortType(String type) {
+        if (type == null) return "collaboration";
+        if (type.contains("Bug")) return "bug-fix";
+        if (type.contains("Feature")) return "feature-work";
+        if (type.contains("Epic")) return "feature-work";
+        return "collaboration";
+    }
+}
@@ -0,0 +1,72 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+import com.kudosly.service.EmployeeIdentityIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalize Slack Events API callbacks; the sender is resolved by Slack user id
+ */
+@Component
+@RequiredArgsConstructor
+public class SlackNormalizer implements SourceNormalizer {
+
+    private static final FieldPath EVENT = FieldPath.of("event");
+    private static final FieldPath USER = FieldPath.of("event.user");
+    private static final FieldPath CHANNEL = FieldPath.of("event.channel");
+    private static final FieldPath TS = FieldPath.of("event.ts");
+    private static final FieldPath THREAD_TS = FieldPath.of("event.thread_ts");
+    private static final FieldPath TEXT = FieldPath.of("event.text");
+
+    // event_id is the delivery id used for redelivery detection
+    private static final List<FieldPath> FIELD_PATHS = List.of(
+        FieldPath.of("event_id"), FieldPath.of("event.type"), USER, TEXT,
+        CHANNEL, TS, THREAD_TS);
+
+    private final EmployeeIdentityIndex identityIndex;
+
+    @Override
+    public String source() {
+        return "slack";
+    }
+
+    @Override
+    public List<FieldPath> fieldPaths() {
+        return FIELD_PATHS;
+    }
+
+    @Override
+    public Effort normalize(Map<String, Object> payload) {
+        if (!EVENT.isPresent(payload)) {
+            return null;
+        }
+
+        Effort effort = new Effort();
+        effort.setSource("slack");
+        effort.setEmployeeId(identityIndex.findBySlackId(USER.getString(payload)));
+        effort.setEffortType("collaboration");
+        effort.setTitle(TEXT.getString(payload));
+        effort.setExternalId(TS.getString(payload));
+        effort.setPayload(payload);
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(TS.getDate(payload), receivedAt));
+        return effort;
+    }
+
+    /**
+     * Coalesce a thread: replies carry the parent's ts as thread_ts
+     */
+    @Override
+    public String sessionKey(Map<String, Object> payload) {
+        String threadTs = THREAD_TS.getString(payload);
+        String ts = threadTs != null ? threadTs : TS.getString(payload);
+        return ts == null ? null : "slack:" + CHANNEL.getString(payload) + ":" + ts;
+    }
+}
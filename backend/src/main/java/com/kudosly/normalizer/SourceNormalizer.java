@@ -0,0 +1,52 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a webhook payload from one integration source to an {@link Effort}
+ *
+ * Implementations are Spring beans and are picked up by {@link SourceNormalizerRegistry}
+ * at startup; adding a source means adding one bean.
+ */
+public interface SourceNormalizer {
+
+    /**
+     * Source name as used in webhook URLs and Effort.source (lowercase)
+     */
+    String source();
+
+    /**
+     * Paths read from the raw body, by this normalizer or by downstream scoring
+     * Only these (plus the registry's common paths) are parsed out of the body;
+     * an empty list binds the whole document.
+     */
+    List<FieldPath> fieldPaths();
+
+    /**
+     * Build an unsaved effort, or return null if the payload cannot be mapped
+     */
+    Effort normalize(Map<String, Object> payload);
+
+    /**
+     * Key grouping bursts of related events (same PR, same thread) into one effort
+     * Events with the same key from the same employee are coalesced until the key has
+     * been quiet for the inactivity gap. Null means the event stands alone.
+     */
+    default String sessionKey(Map<String, Object> payload) {
+        return null;
+    }
+
+    /**
+     * Event time for an effort: when it happened at the source, not when it reached us
+     * Falls back to the receive time when the source has no timestamp, and clamps
+     * timestamps from the future (clock skew) to the receive time.
+     */
+    static Date eventTime(Date sourceTime, Date receivedAt) {
+        return sourceTime == null || sourceTime.after(receivedAt) ? receivedAt : sourceTime;
+    }
+}
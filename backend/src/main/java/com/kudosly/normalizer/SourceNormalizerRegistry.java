@@ -0,0 +1,57 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.PayloadFieldExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Source name to {@link SourceNormalizer} lookup, built from all normalizer beans
+ * Each normalizer's field paths are compiled into a {@link PayloadFieldExtractor} once here.
+ */
+@Slf4j
+@Component
+public class SourceNormalizerRegistry {
+
+    // Fields read downstream by classification, scoring and recognition for any source
+    private static final List<String> COMMON_FIELD_PATHS = List.of("action", "text", "title", "summary", "description");
+
+    private final Map<String, SourceNormalizer> normalizers = new HashMap<>();
+    private final Map<String, PayloadFieldExtractor> extractors = new HashMap<>();
+
+    public SourceNormalizerRegistry(List<SourceNormalizer> normalizers) {
+        for (SourceNormalizer normalizer : normalizers) {
+            String source = normalizer.source().toLowerCase(Locale.ROOT);
+            SourceNormalizer existing = this.normalizers.putIfAbsent(source, normalizer);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate normalizer for source " + source + ": "
+                    + existing.getClass().getSimpleName() + ", " + normalizer.getClass().getSimpleName());
+            }
+            if (!normalizer.fieldPaths().isEmpty()) {
+                List<String> paths = new ArrayList<>(COMMON_FIELD_PATHS);
+                normalizer.fieldPaths().forEach(path -> paths.add(path.path()));
+                extractors.put(source, PayloadFieldExtractor.compile(paths));
+            }
+        }
+        log.info("Registered source normalizers: {}", this.normalizers.keySet());
+    }
+
+    /**
+     * Normalizer for the source, or null if none is registered
+     */
+    public SourceNormalizer normalizerFor(String source) {
+        return normalizers.get(source.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Field extractor for the source, or null if the payload should be bound in full
+     */
+    public PayloadFieldExtractor extractorFor(String source) {
+        return extractors.get(source.toLowerCase(Locale.ROOT));
+    }
+}
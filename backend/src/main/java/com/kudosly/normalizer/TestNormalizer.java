@@ -0,0 +1,49 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.ingest.FieldPath;
+import com.kudosly.model.Effort;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalize development test payloads, which name the employee and effort type directly
+ */
+@Component
+public class TestNormalizer implements SourceNormalizer {
+
+    private static final FieldPath EMPLOYEE_ID = FieldPath.of("employeeId");
+    private static final FieldPath EFFORT_TYPE = FieldPath.of("effortType");
+    private static final FieldPath TITLE = FieldPath.of("title");
+    private static final FieldPath TIMESTAMP = FieldPath.of("timestamp");
+
+    @Override
+    public String source() {
+        return "test";
+    }
+
+    @Override
+    public List<FieldPath> fieldPaths() {
+        // Bind the whole document so arbitrary test fields reach scoring
+        return List.of();
+    }
+
+    @Override
+    public Effort normalize(Map<String, Object> payload) {
+        String employeeId = EMPLOYEE_ID.getString(payload);
+        String effortType = EFFORT_TYPE.getString(payload);
+
+        Effort effort = new Effort();
+        effort.setSource("test");
+        effort.setEmployeeId(employeeId != null ? employeeId : "user-001");
+        effort.setEffortType(effortType != null ? effortType : "collaboration");
+        effort.setTitle(TITLE.getString(payload));
+        effort.setPayload(payload);
+        Date receivedAt = new Date();
+        effort.setCreatedAt(receivedAt);
+        effort.setTimestamp(SourceNormalizer.eventTime(TIMESTAMP.getDate(payload), receivedAt));
+        return effort;
+    }
+}
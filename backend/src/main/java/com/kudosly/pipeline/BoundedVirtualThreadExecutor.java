@@ -0,0 +1,116 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs each task on its own virtual thread, with at most maxConcurrency running at once
+ *
+ * Tasks over the cap park their virtual thread on a semaphore rather than sitting in
+ * a pool queue, so blocking I/O inside a task (Mongo, the AI client) never pins a
+ * platform thread. Exposes, tagged with the executor name:
+ * - kudosly.pipeline.queued: tasks waiting for a permit
+ * - kudosly.pipeline.active: tasks running
+ * - kudosly.pipeline.task.wait: submit to start
+ * - kudosly.pipeline.task.latency: submit to finish
+ */
+@Slf4j
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final String name;
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final Duration shutdownTimeout;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer latencyTimer;
+
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency, Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+        }
+        this.name = name;
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("kudosly.pipeline.queued", queued, AtomicInteger::get)
+            .tag("executor", name).description("Tasks waiting for a concurrency permit").register(meterRegistry);
+        Gauge.builder("kudosly.pipeline.active", active, AtomicInteger::get)
+            .tag("executor", name).description("Tasks currently running").register(meterRegistry);
+        waitTimer = Timer.builder("kudosly.pipeline.task.wait")
+            .tag("executor", name).description("Time from submit to start").register(meterRegistry);
+        latencyTimer = Timer.builder("kudosly.pipeline.task.latency")
+            .tag("executor", name).description("Time from submit to completion").register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            threads.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            queued.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+            latencyTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int queuedTasks() {
+        return queued.get();
+    }
+
+    public int activeTasks() {
+        return active.get();
+    }
+
+    /**
+     * Stop accepting tasks and wait up to the shutdown timeout for submitted ones to finish
+     */
+    @Override
+    public void close() {
+        threads.shutdown();
+        try {
+            if (!threads.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Executor {} shut down with {} queued and {} active tasks", name, queued.get(), active.get());
+                threads.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            threads.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
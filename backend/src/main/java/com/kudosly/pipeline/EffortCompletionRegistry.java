@@ -0,0 +1,89 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.service.OutboxRelayService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory registry of callers waiting for an effort to finish processing
+ *
+ * A waiter is a CompletableFuture parked on the effort id, with no thread behind it: the
+ * pipeline completes every waiter for an effort when its run ends, and timeouts fire from
+ * CompletableFuture's shared delayer. Thousands of waiters cost a map entry each. Only
+ * runs on this instance complete waiters; a waiter for an effort processed elsewhere
+ * times out. Publishes kudosly.efforts.awaiting, the number of parked waiters.
+ */
+@Component
+public class EffortCompletionRegistry {
+
+    private final ConcurrentHashMap<String, List<CompletableFuture<Effort>>> waiting = new ConcurrentHashMap<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public EffortCompletionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("kudosly.efforts.awaiting", waiters, AtomicInteger::get)
+            .description("Callers waiting for an effort to finish processing").register(meterRegistry);
+    }
+
+    /**
+     * Park until the effort's processing ends; completes with the effort, or with null on timeout
+     * Register before reading the effort's stored state, so a run ending in between is not missed.
+     */
+    public CompletableFuture<Effort> await(String effortId, Duration timeout) {
+        CompletableFuture<Effort> waiter = new CompletableFuture<>();
+        waiting.compute(effortId, (id, futures) -> {
+            List<CompletableFuture<Effort>> list = futures != null ? futures : new ArrayList<>(1);
+            list.add(waiter);
+            return list;
+        });
+        waiters.incrementAndGet();
+        waiter.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((effort, error) -> release(effortId, waiter));
+        return waiter;
+    }
+
+    /**
+     * Wake every waiter for the effort with its final state
+     */
+    public void complete(Effort effort) {
+        if (effort.getId() == null) {
+            return;
+        }
+        List<CompletableFuture<Effort>> futures = waiting.remove(effort.getId());
+        if (futures != null) {
+            futures.forEach(waiter -> waiter.complete(effort));
+        }
+    }
+
+    public int waiters() {
+        return waiters.get();
+    }
+
+    /**
+     * Whether a stored effort has nothing left that changes what a waiter sees:
+     * recognized, failed, or scored with no recognition pending
+     */
+    public static boolean isSettled(Effort effort) {
+        String status = effort.getStatus();
+        return EffortStatus.RECOGNIZED.equals(status) || EffortStatus.FAILED.equals(status)
+            || (EffortStatus.SCORED.equals(status) && !OutboxRelayService.isPending(effort, OutboxRelayService.RECOGNITION));
+    }
+
+    private void release(String effortId, CompletableFuture<Effort> waiter) {
+        waiters.decrementAndGet();
+        waiting.computeIfPresent(effortId, (id, futures) -> {
+            futures.remove(waiter);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Cheap intake pre-score that picks an effort's processing lane before classification
+ *
+ * Uses only what the normalizer already set: the source and the effort type detected from
+ * the Jira issue type or the GitHub action. Bug fixes and feature work (merged or opened
+ * PRs, Jira bugs, features and epics) go first; chat messages and other collaboration last.
+ */
+public final class EffortPriority {
+
+    public static final int HIGH = 0;
+    public static final int NORMAL = 1;
+    public static final int LOW = 2;
+
+    // Lane names by priority, highest first, as used for stage lanes and metric tags
+    public static final List<String> LANES = List.of("high", "normal", "low");
+
+    private static final Set<String> HIGH_TYPES = Set.of("bug-fix", "feature-work");
+    private static final Set<String> CHAT_SOURCES = Set.of("slack");
+
+    private EffortPriority() {
+    }
+
+    public static int preScore(Effort effort) {
+        String source = effort.getSource() == null ? "" : effort.getSource().toLowerCase(Locale.ROOT);
+        if (CHAT_SOURCES.contains(source) || "collaboration".equals(effort.getEffortType())) {
+            return LOW;
+        }
+        return effort.getEffortType() != null && HIGH_TYPES.contains(effort.getEffortType()) ? HIGH : NORMAL;
+    }
+
+    /**
+     * The effort's lane, pre-scoring it if intake has not
+     */
+    public static int of(Effort effort) {
+        Integer priority = effort.getPriority();
+        if (priority == null || priority < HIGH || priority > LOW) {
+            priority = preScore(effort);
+            effort.setPriority(priority);
+        }
+        return priority;
+    }
+
+    public static String lane(Effort effort) {
+        return LANES.get(of(effort));
+    }
+}
@@ -0,0 +1,192 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.service.EffortProcessingService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces bursts of related events into one effort per (employee, session key)
+ *
+ * The first event of a session is saved straight away, and each later event is written
+ * as a batched partial update (event count, latest payload) before offer returns, so every
+ * event is stored before its delivery is recorded and its ingest log offset committed.
+ * Once a session has been quiet for the inactivity gap, has been open for the maximum
+ * session length or has taken the maximum number of events, its effort, already up to
+ * date in the store, is sent through the processing pipeline: a burst costs at most one
+ * classification, score and recognition. A session left open by a crash leaves its
+ * effort, with every event it had taken, received in the store, where
+ * StalledEffortRelayService picks it up.
+ *
+ * Writes are not cut to one per session: holding events in memory until close would
+ * acknowledge deliveries a crash could lose. The per-event updates of one effort only
+ * merge when they share a write-behind batch (kudosly.writebehind.coalesced); the saving
+ * is in pipeline runs, kudosly.sessions.events against kudosly.sessions.closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EffortSessionizer {
+
+    private final WriteBehindBatcher writeBehind;
+    private final EffortProcessingService effortProcessingService;
+    private final FairAdmissionScheduler admissionScheduler;
+    private final PipelineMetrics metrics;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @Value("${app.sessionization.inactivity-gap-ms:300000}")
+    private long inactivityGapMillis;
+
+    @Value("${app.sessionization.max-session-ms:1800000}")
+    private long maxSessionMillis;
+
+    @Value("${app.sessionization.max-events:500}")
+    private int maxSessionEvents;
+
+    /**
+     * Add an event to its session and return the session's effort, once the event is stored
+     */
+    public Effort offer(Effort effort, String sessionKey) {
+        String key = effort.getEmployeeId() + "|" + sessionKey;
+        long now = System.currentTimeMillis();
+
+        // The id is assigned up front so events folded in before the first save can target it
+        if (effort.getId() == null) {
+            effort.setId(new ObjectId().toHexString());
+        }
+        Session created = new Session(effort, now);
+        Session session = sessions.merge(key, created, (existing, ignored) -> existing.add(effort, now));
+        if (session == created) {
+            effort.setEventCount(1);
+            effort.setUpdatedAt(new Date(now));
+            try {
+                Effort saved = writeBehind.save(effort).join();
+                created.saved.complete(null);
+                log.debug("Opened session {} with effort {}", key, saved.getId());
+                return saved;
+            } catch (RuntimeException e) {
+                // Events folded in meanwhile fail with it; their senders retry into a new session
+                sessions.remove(key, created);
+                created.saved.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Update update = new Update()
+            .inc("eventCount", 1)
+            .set("payload", effort.getPayload())
+            .set("updatedAt", new Date(now));
+        session.saved.thenCompose(ignored -> writeBehind.update(Effort.class, session.effort.getId(), update)).join();
+        metrics.sessionEvent();
+        if (session.events >= maxSessionEvents && sessions.remove(key, session)) {
+            // A session that never goes quiet is still processed; later events open a new one
+            close(session, "max-events");
+        }
+        return session.effort;
+    }
+
+    /**
+     * Close sessions idle for longer than the inactivity gap or open for longer than the maximum
+     */
+    @Scheduled(fixedDelayString = "${app.sessionization.flush-interval-ms:1000}")
+    public void flushIdle() {
+        long now = System.currentTimeMillis();
+        long idleBefore = now - inactivityGapMillis;
+        long openedBefore = now - maxSessionMillis;
+        flush(session -> session.lastSeen <= idleBefore ? "idle"
+            : session.opened <= openedBefore ? "max-duration" : null);
+    }
+
+    /**
+     * Close every open session, e.g. on shutdown
+     */
+    @PreDestroy
+    public void flushAll() {
+        flush(session -> "shutdown");
+    }
+
+    public int openSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Remove and close the sessions the rule gives a close reason for
+     */
+    private void flush(Function<Session, String> closeReason) {
+        Map<Session, String> closed = new LinkedHashMap<>();
+        for (String key : sessions.keySet()) {
+            sessions.computeIfPresent(key, (k, session) -> {
+                String reason = closeReason.apply(session);
+                if (reason == null) {
+                    return session;
+                }
+                closed.put(session, reason);
+                return null;
+            });
+        }
+        closed.forEach(this::close);
+    }
+
+    /**
+     * Hand a closed session's effort to the pipeline; its events are already stored
+     */
+    private void close(Session session, String reason) {
+        Effort effort;
+        synchronized (session) {
+            effort = session.effort;
+            effort.setEventCount(session.events);
+            effort.setUpdatedAt(new Date(session.lastSeen));
+        }
+        try {
+            session.saved.join();
+        } catch (CompletionException e) {
+            log.warn("Dropping session for effort {} whose first event was not stored", effort.getId());
+            return;
+        }
+        log.info("Closed session for effort {} with {} events ({})", effort.getId(), effort.getEventCount(), reason);
+        metrics.sessionClosed(reason);
+        metrics.begin(effort);
+        admissionScheduler.submit(effort.getSource(), effort.getEmployeeId(),
+            () -> effortProcessingService.processNewEffort(effort));
+    }
+
+    private static final class Session {
+
+        private final Effort effort;
+        private final CompletableFuture<Void> saved = new CompletableFuture<>();
+        private final long opened;
+        private volatile int events = 1;
+        private volatile long lastSeen;
+
+        Session(Effort effort, long now) {
+            this.effort = effort;
+            this.opened = now;
+            this.lastSeen = now;
+        }
+
+        /**
+         * Fold a later event in: keep the first id and timestamp, take the latest payload
+         */
+        synchronized Session add(Effort later, long now) {
+            events++;
+            lastSeen = now;
+            effort.setPayload(later.getPayload());
+            return this;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortAggregate;
+import com.kudosly.service.WeeklyDigestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns processed efforts to event-time day and week buckets per employee
+ *
+ * Each effort adds its count, impact and type to the two effort_aggregates documents
+ * for its event-time day and week. Deltas are combined in memory and flushed as one
+ * unordered bulk of $inc upserts, so an aggregate is never recomputed from efforts.
+ *
+ * The watermark trails the largest event time seen by the allowed lateness. An effort
+ * whose bucket ends at or before the watermark is late: it is still applied to just its
+ * two buckets, and once flushed the employee's digests covering that day are rebuilt. Efforts older
+ * than the maximum lateness are dropped from the aggregates rather than reopening
+ * arbitrarily old windows.
+ *
+ * Accepted loss: deltas not yet flushed (at most one flush interval's worth; a graceful
+ * shutdown flushes them) are lost on a crash and never recomputed, as are the deltas of a
+ * flush that fails with an unknown outcome (upserts a bulk rejects are retried), so the affected
+ * buckets under-count from then on. Recovery does not re-record them: an effort is
+ * aggregated only after its analysis is written, and stalled-effort recovery and the
+ * dead-letter retry re-run only efforts whose analysis was not. Readers (the weekly
+ * digests) must tolerate the gap; lower flush-interval-ms to narrow it.
+ */
+@Slf4j
+@Component
+public class EffortWindowAggregator {
+
+    public static final String DAY = "day";
+    public static final String WEEK = "week";
+
+    private final MongoTemplate mongoTemplate;
+    private final WeeklyDigestService digestService;
+    private final ZoneId zone;
+    private final long allowedLatenessMillis;
+    private final long maxLatenessMillis;
+
+    private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+    private final ConcurrentHashMap<String, Delta> pending = new ConcurrentHashMap<>();
+
+    private final Counter onTime;
+    private final Counter late;
+    private final Counter dropped;
+
+    public EffortWindowAggregator(
+            MongoTemplate mongoTemplate,
+            WeeklyDigestService digestService,
+            MeterRegistry meterRegistry,
+            @Value("${app.windows.zone:UTC}") String zone,
+            @Value("${app.windows.allowed-lateness-ms:3600000}") long allowedLatenessMillis,
+            @Value("${app.windows.max-lateness-days:56}") long maxLatenessDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.digestService = digestService;
+        this.zone = ZoneId.of(zone);
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        this.maxLatenessMillis = Duration.ofDays(maxLatenessDays).toMillis();
+
+        onTime = meterRegistry.counter("kudosly.windows.efforts", "timeliness", "on_time");
+        late = meterRegistry.counter("kudosly.windows.efforts", "timeliness", "late");
+        dropped = meterRegistry.counter("kudosly.windows.efforts", "timeliness", "dropped");
+        Gauge.builder("kudosly.windows.watermark.lag", this, EffortWindowAggregator::watermarkLagMillis)
+            .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Current watermark in epoch millis, or Long.MIN_VALUE before the first effort
+     */
+    public long watermark() {
+        long max = maxEventTime.get();
+        return max == Long.MIN_VALUE ? Long.MIN_VALUE : max - allowedLatenessMillis;
+    }
+
+    /**
+     * Add a processed effort to its day and week buckets
+     */
+    public void record(Effort effort) {
+        if (effort.getEmployeeId() == null || effort.getTimestamp() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long eventTime = Math.min(effort.getTimestamp().getTime(), now);
+        if (eventTime < now - maxLatenessMillis) {
+            dropped.increment();
+            log.debug("Effort {} is older than the maximum lateness; not aggregated", effort.getId());
+            return;
+        }
+
+        // Lateness is judged against the watermark before this effort advances it
+        long watermark = watermark();
+        maxEventTime.accumulateAndGet(eventTime, Math::max);
+
+        LocalDate day = Instant.ofEpochMilli(eventTime).atZone(zone).toLocalDate();
+        LocalDate week = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        boolean isLate = add(effort, DAY, day, day.plusDays(1), watermark);
+        isLate |= add(effort, WEEK, week, week.plusWeeks(1), watermark);
+        (isLate ? late : onTime).increment();
+    }
+
+    private boolean add(Effort effort, String granularity, LocalDate start, LocalDate end, long watermark) {
+        Date bucketStart = Date.from(start.atStartOfDay(zone).toInstant());
+        Date bucketEnd = Date.from(end.atStartOfDay(zone).toInstant());
+        boolean isLate = bucketEnd.getTime() <= watermark;
+        String id = effort.getEmployeeId() + "|" + granularity + "|" + start;
+        pending.compute(id, (key, delta) -> {
+            Delta d = delta != null ? delta : new Delta(id, effort.getEmployeeId(), granularity, bucketStart, bucketEnd);
+            d.add(effort, isLate);
+            return d;
+        });
+        return isLate;
+    }
+
+    /**
+     * Write pending deltas, then correct digests for days that received late efforts
+     */
+    @Scheduled(fixedDelayString = "${app.windows.flush-interval-ms:5000}")
+    public void flush() {
+        List<Delta> batch = new ArrayList<>();
+        for (String id : pending.keySet()) {
+            Delta delta = pending.remove(id);
+            if (delta != null) {
+                batch.add(delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Date now = new Date();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EffortAggregate.class);
+        for (Delta delta : batch) {
+            bulk.upsert(new Query(Criteria.where("_id").is(delta.id)), delta.toUpdate(now));
+        }
+        List<Delta> written = batch;
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: the other upserts have applied their $inc, so only the rejected ones are retried
+            Set<Integer> rejected = new HashSet<>();
+            e.getErrors().forEach(error -> rejected.add(error.getIndex()));
+            written = new ArrayList<>(batch.size() - rejected.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Delta delta = batch.get(i);
+                if (rejected.contains(i)) {
+                    pending.merge(delta.id, delta, Delta::merge);
+                } else {
+                    written.add(delta);
+                }
+            }
+            log.warn("{} of {} effort aggregates were rejected; will retry them", rejected.size(), batch.size(), e);
+        } catch (Exception e) {
+            // Outcome unknown: some $inc may have applied, and a retry could count them twice
+            log.error("Failed to flush {} effort aggregates; dropped like a crash loss", batch.size(), e);
+            return;
+        }
+
+        // One digest correction per employee, spanning the days that received late efforts
+        Map<String, Date[]> lateRanges = new HashMap<>();
+        for (Delta delta : written) {
+            if (delta.late > 0 && DAY.equals(delta.granularity)) {
+                lateRanges.merge(delta.employeeId, new Date[]{delta.start, delta.end}, (a, b) -> new Date[]{
+                    a[0].before(b[0]) ? a[0] : b[0], a[1].after(b[1]) ? a[1] : b[1]});
+            }
+        }
+        lateRanges.forEach((employeeId, range) -> {
+            try {
+                digestService.correctDigests(employeeId, range[0], range[1]);
+            } catch (Exception e) {
+                log.error("Failed to correct digests for employee {} after late efforts", employeeId, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    int pendingBuckets() {
+        return pending.size();
+    }
+
+    private double watermarkLagMillis() {
+        long watermark = watermark();
+        return watermark == Long.MIN_VALUE ? 0 : System.currentTimeMillis() - watermark;
+    }
+
+    /**
+     * Changes to one aggregate since the last flush; mutated only inside pending.compute
+     */
+    private static final class Delta {
+        private final String id;
+        private final String employeeId;
+        private final String granularity;
+        private final Date start;
+        private final Date end;
+        private final Map<String, Long> byType = new HashMap<>();
+        private long count;
+        private long impact;
+        private long late;
+
+        Delta(String id, String employeeId, String granularity, Date start, Date end) {
+            this.id = id;
+            this.employeeId = employeeId;
+            this.granularity = granularity;
+            this.start = start;
+            this.end = end;
+        }
+
+        void add(Effort effort, boolean isLate) {
+            count++;
+            impact += effort.getImpactScore() != null ? effort.getImpactScore() : 0;
+            byType.merge(effort.getEffortType() != null ? effort.getEffortType() : "unclassified", 1L, Long::sum);
+            if (isLate) {
+                late++;
+            }
+        }
+
+        Delta merge(Delta other) {
+            count += other.count;
+            impact += other.impact;
+            late += other.late;
+            other.byType.forEach((type, n) -> byType.merge(type, n, Long::sum));
+            return this;
+        }
+
+        Update toUpdate(Date now) {
+            Update update = new Update()
+                .setOnInsert("employeeId", employeeId)
+                .setOnInsert("granularity", granularity)
+                .setOnInsert("bucketStart", start)
+                .setOnInsert("bucketEnd", end)
+                .inc("effortCount", count)
+                .inc("impactTotal", impact)
+                .inc("lateCorrections", late)
+                .set("updatedAt", now);
+            byType.forEach((type, n) -> update.inc("countsByType." + type, n));
+            return update;
+        }
+    }
+}
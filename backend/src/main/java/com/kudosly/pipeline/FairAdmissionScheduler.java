@@ -0,0 +1,433 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits work into the effort pipeline with per-source and per-employee token buckets
+ * and weighted fair queuing across sources
+ *
+ * Each source has its own lane. Tasks get a start-time fair queuing tag on submit, so a
+ * backlog from one source is interleaved with newer work from the others in proportion
+ * to their weights instead of being served first. Within a lane tasks queue per employee:
+ * an employee out of tokens is parked until its bucket refills, so it never holds up the
+ * rest of its source. Nothing is dropped. Employee buckets that have refilled to full are
+ * evicted, as a new bucket would be the same. At most maxInFlight admitted tasks run at
+ * once, which keeps the ordering decision here rather than in the executor's own wait queue.
+ *
+ * The queue is capped at maxQueued tasks across sources. submit never refuses work, since
+ * its callers hold an already saved effort; instead the pollers that feed it (ingest log
+ * consumer, pull sync, stalled-effort relay) stop taking new work while isSaturated, and
+ * leave it in the ingest log, at the remote cursor or in Mongo as received until the queue
+ * drains. Request-driven intake (direct webhooks, batch ingest) can overshoot the cap by
+ * what is in flight on those requests.
+ *
+ * Admission and the stage lanes of EffortProcessingService answer different questions:
+ * admission decides when an effort may enter the pipeline (rates, fairness across
+ * sources), the stage lanes decide in which order admitted efforts get the stage workers
+ * (effort priority). An admitted task only enqueues into the classify stage, so work
+ * queues here while it is over a rate limit, or when a full classify stage blocks the
+ * admitted tasks and the in-flight cap fills; the stage's backpressure then becomes a
+ * backlog that this scheduler drains fairly across sources.
+ *
+ * Metrics, tagged with source:
+ * - kudosly.admission.queued: tasks waiting
+ * - kudosly.admission.saturated: polls turned away because the queue was at maxQueued (untagged)
+ * - kudosly.admission.admitted: tasks started
+ * - kudosly.admission.throttled: tasks held back at least once, tagged limit=source|employee
+ * - kudosly.admission.wait: submit to admission
+ */
+@Slf4j
+@Component
+public class FairAdmissionScheduler implements AutoCloseable {
+
+    // How often buckets of employees idle long enough to refill are dropped
+    private static final long EVICT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final Map<String, Double> weights;
+    private final Map<String, Double> sourceRates;
+    private final double defaultSourceRate;
+    private final double employeeRate;
+    private final double employeeBurst;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter saturated;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final Map<String, TokenBucket> employeeBuckets = new HashMap<>();
+    private double virtualTime;
+    private long evictedAt = System.nanoTime();
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public FairAdmissionScheduler(
+            @Qualifier("effortPipelineExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${app.pipeline.max-concurrency:64}") int maxInFlight,
+            @Value("${app.admission.source-weights:}") String sourceWeights,
+            @Value("${app.admission.source-rates:}") String sourceRates,
+            @Value("${app.admission.default-source-rate:0}") double defaultSourceRate,
+            @Value("${app.admission.employee-rate:0}") double employeeRate,
+            @Value("${app.admission.employee-burst:10}") double employeeBurst,
+            @Value("${app.admission.max-queued:10000}") int maxQueued) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.weights = parseSourceValues(sourceWeights);
+        this.sourceRates = parseSourceValues(sourceRates);
+        this.defaultSourceRate = defaultSourceRate;
+        this.employeeRate = employeeRate;
+        this.employeeBurst = employeeBurst;
+        this.maxQueued = maxQueued;
+        this.saturated = meterRegistry.counter("kudosly.admission.saturated");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform().daemon().name("effort-admission").start(this::dispatchLoop);
+    }
+
+    /**
+     * Queue work for a source and employee; it runs on the pipeline executor once admitted
+     */
+    public void submit(String source, String employeeId, Runnable work) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Lane lane = lanes.computeIfAbsent(source == null ? "unknown" : source.toLowerCase(Locale.ROOT), this::newLane);
+            double startTag = Math.max(virtualTime, lane.lastFinishTag);
+            lane.lastFinishTag = startTag + 1 / lane.weight;
+            lane.add(new Task(employeeId, work, now, startTag, lane.lastFinishTag));
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether maxQueued tasks are waiting; pollers should hold off submitting more until it clears
+     */
+    public boolean isSaturated() {
+        if (queued.get() < maxQueued) {
+            return false;
+        }
+        saturated.increment();
+        return true;
+    }
+
+    public int queuedTasks(String source) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(source.toLowerCase(Locale.ROOT));
+            return lane == null ? 0 : lane.depth.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                inFlight.acquire();
+                Task task = awaitNext();
+                if (task == null) {
+                    inFlight.release();
+                    continue;
+                }
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.work.run();
+                        } catch (Exception e) {
+                            log.error("Unhandled error in admitted pipeline task", e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    log.error("Pipeline executor rejected an admitted task; is the application shutting down?", e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Block until some lane has an admissible task, then take it
+     * Picks the smallest finish tag among lanes whose source bucket has a token, each
+     * offering its earliest task from an employee with a token.
+     */
+    private Task awaitNext() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                evictIdleBuckets(now);
+                long waitNanos = employeeBuckets.isEmpty() ? Long.MAX_VALUE : EVICT_INTERVAL_NANOS;
+                Lane bestLane = null;
+                Task best = null;
+
+                for (Lane lane : lanes.values()) {
+                    if (lane.depth.get() == 0) {
+                        continue;
+                    }
+                    if (!lane.bucket.hasToken(now)) {
+                        Task head = lane.peek();
+                        if (!head.sourceThrottled) {
+                            head.sourceThrottled = true;
+                            lane.throttledBySource.increment();
+                        }
+                        waitNanos = Math.min(waitNanos, lane.bucket.nanosUntilToken(now));
+                        continue;
+                    }
+                    Task candidate = lane.nextAdmissible(now);
+                    if (candidate == null) {
+                        waitNanos = Math.min(waitNanos, lane.nanosUntilUnparked(now));
+                    } else if (best == null || candidate.finishTag < best.finishTag) {
+                        bestLane = lane;
+                        best = candidate;
+                    }
+                }
+
+                if (best != null) {
+                    bestLane.take();
+                    bestLane.bucket.take(now);
+                    TokenBucket employeeBucket = employeeBucket(best.employeeId, now);
+                    if (employeeBucket != null) {
+                        employeeBucket.take(now);
+                    }
+                    virtualTime = Math.max(virtualTime, best.startTag);
+                    bestLane.admitted.increment();
+                    bestLane.wait.record(now - best.submittedAt, TimeUnit.NANOSECONDS);
+                    return best;
+                }
+
+                if (waitNanos == Long.MAX_VALUE) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waitNanos);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled to capacity; a later task gets an identical new one
+     */
+    private void evictIdleBuckets(long now) {
+        if (now - evictedAt < EVICT_INTERVAL_NANOS) {
+            return;
+        }
+        evictedAt = now;
+        employeeBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private TokenBucket employeeBucket(String employeeId, long now) {
+        if (employeeId == null || employeeRate <= 0) {
+            return null;
+        }
+        return employeeBuckets.computeIfAbsent(employeeId, id -> new TokenBucket(employeeRate, employeeBurst, now));
+    }
+
+    private Lane newLane(String source) {
+        double rate = sourceRates.getOrDefault(source, defaultSourceRate);
+        return new Lane(source, weights.getOrDefault(source, 1.0), new TokenBucket(rate, rate, System.nanoTime()));
+    }
+
+    /**
+     * Stop admitting; tasks still queued are abandoned and their efforts stay unprocessed
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        lock.lock();
+        try {
+            int abandoned = lanes.values().stream().mapToInt(lane -> lane.depth.get()).sum();
+            if (abandoned > 0) {
+                log.warn("Admission scheduler stopped with {} queued tasks", abandoned);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parse "jira:4,github:4,slack:1" into a source to value map
+     */
+    static Map<String, Double> parseSourceValues(String spec) {
+        Map<String, Double> values = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return values;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected source:value but got '" + entry + "'");
+            }
+            values.put(parts[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(parts[1].trim()));
+        }
+        return values;
+    }
+
+    private static final class Task {
+        private final String employeeId;
+        private final Runnable work;
+        private final long submittedAt;
+        private final double startTag;
+        private final double finishTag;
+        private boolean sourceThrottled;
+        private boolean employeeThrottled;
+
+        Task(String employeeId, Runnable work, long submittedAt, double startTag, double finishTag) {
+            this.employeeId = employeeId;
+            this.work = work;
+            this.submittedAt = submittedAt;
+            this.startTag = startTag;
+            this.finishTag = finishTag;
+        }
+    }
+
+    /**
+     * One employee's queued tasks within a lane, in submission order
+     */
+    private static final class EmployeeQueue {
+        private final String employeeId;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private long parkedUntil;
+
+        EmployeeQueue(String employeeId) {
+            this.employeeId = employeeId;
+        }
+    }
+
+    private final class Lane {
+        private final double weight;
+        private final TokenBucket bucket;
+        private final Map<String, EmployeeQueue> employees = new HashMap<>();
+        // Employees with a token, by their head's finish tag; employees out of tokens, by refill time
+        private final PriorityQueue<EmployeeQueue> ready =
+            new PriorityQueue<>(Comparator.comparingDouble(queue -> queue.tasks.peekFirst().finishTag));
+        private final PriorityQueue<EmployeeQueue> parked =
+            new PriorityQueue<>(Comparator.comparingLong(queue -> queue.parkedUntil));
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Counter admitted;
+        private final Counter throttledBySource;
+        private final Counter throttledByEmployee;
+        private final Timer wait;
+        private double lastFinishTag;
+
+        Lane(String source, double weight, TokenBucket bucket) {
+            this.weight = weight > 0 ? weight : 1.0;
+            this.bucket = bucket;
+            Gauge.builder("kudosly.admission.queued", depth, AtomicInteger::get)
+                .tag("source", source).register(meterRegistry);
+            admitted = meterRegistry.counter("kudosly.admission.admitted", "source", source);
+            throttledBySource = meterRegistry.counter("kudosly.admission.throttled", "source", source, "limit", "source");
+            throttledByEmployee = meterRegistry.counter("kudosly.admission.throttled", "source", source, "limit", "employee");
+            wait = meterRegistry.timer("kudosly.admission.wait", "source", source);
+        }
+
+        void add(Task task) {
+            EmployeeQueue queue = employees.computeIfAbsent(Objects.toString(task.employeeId, ""),
+                id -> new EmployeeQueue(task.employeeId));
+            queue.tasks.addLast(task);
+            if (queue.tasks.size() == 1) {
+                ready.add(queue);
+            }
+            depth.incrementAndGet();
+            queued.incrementAndGet();
+        }
+
+        /**
+         * The earliest queued task overall, for throttling by source
+         */
+        Task peek() {
+            EmployeeQueue queue = ready.isEmpty() ? parked.peek() : ready.peek();
+            return queue.tasks.peekFirst();
+        }
+
+        /**
+         * The earliest task of an employee with a token, parking employees without one
+         */
+        Task nextAdmissible(long now) {
+            while (!parked.isEmpty() && parked.peek().parkedUntil <= now) {
+                ready.add(parked.poll());
+            }
+            while (!ready.isEmpty()) {
+                EmployeeQueue queue = ready.peek();
+                TokenBucket employeeBucket = employeeBucket(queue.employeeId, now);
+                if (employeeBucket == null || employeeBucket.hasToken(now)) {
+                    return queue.tasks.peekFirst();
+                }
+                Task head = queue.tasks.peekFirst();
+                if (!head.employeeThrottled) {
+                    head.employeeThrottled = true;
+                    throttledByEmployee.increment();
+                }
+                ready.poll();
+                queue.parkedUntil = now + employeeBucket.nanosUntilToken(now);
+                parked.add(queue);
+            }
+            return null;
+        }
+
+        long nanosUntilUnparked(long now) {
+            return parked.isEmpty() ? Long.MAX_VALUE : Math.max(0, parked.peek().parkedUntil - now);
+        }
+
+        /**
+         * Remove the task nextAdmissible returned
+         */
+        void take() {
+            EmployeeQueue queue = ready.poll();
+            queue.tasks.pollFirst();
+            if (queue.tasks.isEmpty()) {
+                employees.remove(Objects.toString(queue.employeeId, ""));
+            } else {
+                ready.add(queue);
+            }
+            depth.decrementAndGet();
+            queued.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the effort pipeline, published on /actuator/metrics and /actuator/prometheus
+ *
+ * - kudosly.pipeline.step{step}: latency histogram of each unit of work: normalize,
+ *   extract (payload features), classify, score, recognize (generate and store), generate (batch only) and award;
+ *   compare with kudosly.stage.queue.wait to tell a slow step from a starved stage
+ * - kudosly.efforts.received{source}: efforts accepted at intake
+ * - kudosly.efforts.processed{source, effortType, impact}: efforts scored, impact bucketed
+ * - kudosly.efforts.in_flight: efforts between admission and the end of the pipeline
+ * - kudosly.efforts.lag{source, milestone, priority}: time from Effort.timestamp (the source
+ *   event) until the effort is recognized or completes the pipeline, by intake priority lane
+ * - kudosly.sessions.events: events folded into an open session instead of starting an effort
+ * - kudosly.sessions.closed{reason}: sessions handed to the pipeline (idle, max-duration,
+ *   max-events, shutdown)
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String RECOGNIZED = "recognized";
+    public static final String COMPLETED = "completed";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("kudosly.efforts.in_flight", inFlight, Set::size)
+            .description("Efforts in the processing pipeline").register(meterRegistry);
+    }
+
+    /**
+     * Run one step of work and record its latency, whether or not it throws
+     */
+    public <T> T time(String step, Supplier<T> work) {
+        return stepTimer(step).record(work);
+    }
+
+    public void time(String step, Runnable work) {
+        stepTimer(step).record(work);
+    }
+
+    public void received(String source) {
+        meterRegistry.counter("kudosly.efforts.received", "source", tag(source)).increment();
+    }
+
+    public void sessionEvent() {
+        meterRegistry.counter("kudosly.sessions.events").increment();
+    }
+
+    public void sessionClosed(String reason) {
+        meterRegistry.counter("kudosly.sessions.closed", "reason", reason).increment();
+    }
+
+    public void processed(Effort effort) {
+        Counter.builder("kudosly.efforts.processed")
+            .tag("source", tag(effort.getSource()))
+            .tag("effortType", tag(effort.getEffortType()))
+            .tag("impact", impactBucket(effort.getImpactScore()))
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Count the effort as in flight until finish(); called on admission and again on
+     * entering the pipeline, so queued efforts count too
+     */
+    public void begin(Effort effort) {
+        if (effort.getId() != null) {
+            inFlight.add(effort.getId());
+        }
+    }
+
+    /**
+     * Take the effort out of flight; records completion lag unless it failed
+     */
+    public void finish(Effort effort, boolean completed) {
+        if (effort.getId() != null && inFlight.remove(effort.getId()) && completed) {
+            lag(effort, COMPLETED);
+        }
+    }
+
+    /**
+     * Record time from the effort's source event until now
+     */
+    public void lag(Effort effort, String milestone) {
+        if (effort.getTimestamp() == null) {
+            return;
+        }
+        long millis = System.currentTimeMillis() - effort.getTimestamp().getTime();
+        Timer.builder("kudosly.efforts.lag")
+            .description("Time from the source event to a pipeline milestone")
+            .tag("source", tag(effort.getSource()))
+            .tag("milestone", milestone)
+            .tag("priority", EffortPriority.lane(effort))
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofDays(1))
+            .register(meterRegistry)
+            .record(Duration.ofMillis(Math.max(millis, 0)));
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public boolean isInFlight(String effortId) {
+        return inFlight.contains(effortId);
+    }
+
+    static String impactBucket(Integer score) {
+        if (score == null) {
+            return "none";
+        }
+        if (score >= 9) {
+            return "9-10";
+        }
+        if (score >= 7) {
+            return "7-8";
+        }
+        return score >= 5 ? "5-6" : "0-4";
+    }
+
+    private Timer stepTimer(String step) {
+        return Timer.builder("kudosly.pipeline.step")
+            .description("Latency of one unit of pipeline work")
+            .tag("step", step)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static String tag(String value) {
+        return value != null ? value.toLowerCase() : "unknown";
+    }
+}
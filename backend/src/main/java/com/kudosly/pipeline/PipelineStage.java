@@ -0,0 +1,191 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * One stage of a staged (SEDA) pipeline: a bounded queue drained by a fixed set of workers
+ *
+ * Stages are sized independently, so a slow stage backs up its own queue instead of
+ * holding threads that a faster stage needs. When the queue stays full for the offer
+ * timeout the item is rejected from the queue and handled on the submitting thread;
+ * nothing is dropped, and the submitter (usually the upstream stage's worker) slows to
+ * the pace of this stage. Exposes, tagged with the stage name:
+ * - kudosly.stage.queue.depth: items waiting
+ * - kudosly.stage.queue.wait: submit to start
+ * - kudosly.stage.service.time: time in the handler
+ * - kudosly.stage.rejected: items run on the submitter because the queue was full
+ *
+ * A stage built with lanes queues each item in the lane its priority function picks (see
+ * PriorityLanes): higher lanes are served first and waiting items age upwards so lower
+ * lanes still progress. Each lane holds up to the stage capacity. Adds, tagged with
+ * stage and lane:
+ * - kudosly.stage.lane.depth: items waiting in the lane
+ * - kudosly.stage.lane.wait: submit to start for the lane's items
+ * - kudosly.stage.lane.promoted: items served ahead of a higher lane after aging (tagged with stage only)
+ */
+@Slf4j
+public class PipelineStage<T> implements AutoCloseable {
+
+    private final String name;
+    private final int workerCount;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final Consumer<T> handler;
+    private final ToIntFunction<T> laneOf;
+    private final PriorityLanes<T> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Timer waitTimer;
+    private final Timer[] laneWaitTimers;
+    private final Timer serviceTimer;
+    private final Counter rejected;
+
+    private volatile boolean running;
+
+    public PipelineStage(String name, int workers, int capacity, Duration offerTimeout, Duration shutdownTimeout,
+                         Consumer<T> handler, MeterRegistry meterRegistry) {
+        this(name, workers, capacity, offerTimeout, shutdownTimeout, handler, meterRegistry,
+            List.of(), value -> 0, Duration.ZERO);
+    }
+
+    /**
+     * A stage with priority lanes, highest first; laneOf maps an item to an index into lanes
+     */
+    public PipelineStage(String name, int workers, int capacity, Duration offerTimeout, Duration shutdownTimeout,
+                         Consumer<T> handler, MeterRegistry meterRegistry,
+                         List<String> lanes, ToIntFunction<T> laneOf, Duration aging) {
+        if (workers < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Stage " + name + " needs at least one worker and one queue slot");
+        }
+        this.name = name;
+        this.workerCount = workers;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.handler = handler;
+        this.laneOf = laneOf;
+        this.queue = new PriorityLanes<>(Math.max(lanes.size(), 1), capacity, aging.toNanos());
+
+        Gauge.builder("kudosly.stage.queue.depth", queue, PriorityLanes::size)
+            .tag("stage", name).description("Items waiting in the stage queue").register(meterRegistry);
+        laneWaitTimers = new Timer[lanes.size()];
+        for (int i = 0; i < lanes.size(); i++) {
+            int lane = i;
+            Gauge.builder("kudosly.stage.lane.depth", queue, q -> q.size(lane))
+                .tags("stage", name, "lane", lanes.get(i)).description("Items waiting in the lane")
+                .register(meterRegistry);
+            laneWaitTimers[i] = Timer.builder("kudosly.stage.lane.wait")
+                .tags("stage", name, "lane", lanes.get(i)).description("Time from submit to start, per lane")
+                .publishPercentileHistogram().register(meterRegistry);
+        }
+        if (!lanes.isEmpty()) {
+            FunctionCounter.builder("kudosly.stage.lane.promoted", queue, PriorityLanes::promoted)
+                .tag("stage", name).description("Items served ahead of a higher lane after aging")
+                .register(meterRegistry);
+        }
+        waitTimer = Timer.builder("kudosly.stage.queue.wait")
+            .tag("stage", name).description("Time from submit to start")
+            .publishPercentileHistogram().register(meterRegistry);
+        serviceTimer = Timer.builder("kudosly.stage.service.time")
+            .tag("stage", name).description("Time spent in the stage handler")
+            .publishPercentileHistogram().register(meterRegistry);
+        rejected = Counter.builder("kudosly.stage.rejected")
+            .tag("stage", name).description("Items run on the submitting thread because the queue was full")
+            .register(meterRegistry);
+    }
+
+    public PipelineStage<T> start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("stage-" + name + "-" + i).start(this::drain));
+        }
+        return this;
+    }
+
+    /**
+     * Queue an item; if the queue stays full for the offer timeout, handle it on this thread
+     */
+    public void submit(T value) {
+        long submittedAt = System.nanoTime();
+        int lane = Math.clamp(laneOf.applyAsInt(value), 0, queue.levels() - 1);
+        if (running) {
+            try {
+                if (queue.offer(value, lane, submittedAt, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejected.increment();
+        }
+        handle(value, lane, submittedAt);
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PriorityLanes.Entry<T> entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    handle(entry.value(), entry.lane(), entry.enqueuedAt());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handle(T value, int lane, long submittedAt) {
+        long start = System.nanoTime();
+        waitTimer.record(start - submittedAt, TimeUnit.NANOSECONDS);
+        if (lane < laneWaitTimers.length) {
+            laneWaitTimers[lane].record(start - submittedAt, TimeUnit.NANOSECONDS);
+        }
+        try {
+            handler.accept(value);
+        } catch (Exception e) {
+            log.error("Unhandled error in pipeline stage {}", name, e);
+        } finally {
+            serviceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stop taking new items and let the workers drain the queue for up to the shutdown timeout
+     * Items submitted after this run on the submitting thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (Thread worker : workers) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Pipeline stage {} stopped with {} queued items", name, queue.size());
+            workers.forEach(Thread::interrupt);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.kudosly.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded multi-level queue: FIFO within a lane, highest lane (0) first across lanes, with aging
+ *
+ * An item's effective level is its lane minus one for every aging interval it has waited,
+ * so a low lane under a steady stream of high-priority work is still served once its head
+ * has waited (lane distance x aging) longer than the high lane's head. Each lane has its
+ * own capacity, so a flood in one lane never blocks offers to another.
+ */
+class PriorityLanes<E> {
+
+    private final ArrayDeque<Entry<E>>[] lanes;
+    private final int capacity;
+    private final long agingNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition[] notFull;
+    private int size;
+    private long promoted;
+
+    @SuppressWarnings("unchecked")
+    PriorityLanes(int levels, int capacity, long agingNanos) {
+        this.lanes = new ArrayDeque[levels];
+        this.notFull = new Condition[levels];
+        for (int i = 0; i < levels; i++) {
+            lanes[i] = new ArrayDeque<>();
+            notFull[i] = lock.newCondition();
+        }
+        this.capacity = capacity;
+        this.agingNanos = agingNanos;
+    }
+
+    /**
+     * Add to the lane's tail, waiting up to the timeout for room; returns false if none came
+     */
+    boolean offer(E value, int lane, long enqueuedAt, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (lanes[lane].size() >= capacity) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull[lane].awaitNanos(remaining);
+            }
+            lanes[lane].addLast(new Entry<>(value, lane, enqueuedAt));
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the head with the best effective level, waiting up to the timeout for one
+     */
+    Entry<E> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            int lane = next(System.nanoTime());
+            Entry<E> entry = lanes[lane].pollFirst();
+            size--;
+            notFull[lane].signal();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Items served ahead of a waiting higher lane because they had aged past it
+     */
+    long promoted() {
+        lock.lock();
+        try {
+            return promoted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int levels() {
+        return lanes.length;
+    }
+
+    /**
+     * Index of the non-empty lane whose head has the lowest effective level; ties go to the higher lane
+     */
+    private int next(long now) {
+        int best = -1;
+        double bestLevel = Double.MAX_VALUE;
+        for (int i = 0; i < lanes.length; i++) {
+            Entry<E> head = lanes[i].peekFirst();
+            if (head == null) {
+                continue;
+            }
+            double level = agingNanos > 0 ? i - (double) (now - head.enqueuedAt) / agingNanos : i;
+            if (level < bestLevel) {
+                best = i;
+                bestLevel = level;
+            }
+        }
+        for (int i = 0; i < best; i++) {
+            if (!lanes[i].isEmpty()) {
+                promoted++;
+                break;
+            }
+        }
+        return best;
+    }
+
+    record Entry<E>(E value, int lane, long enqueuedAt) {
+    }
+}
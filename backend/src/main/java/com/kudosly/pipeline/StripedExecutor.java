@@ -0,0 +1,291 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs keyed tasks on N serial stripes: tasks with the same key run one at a time, in
+ * submission order, on the stripe the key hashes to
+ *
+ * Work for one employee (aggregates, badge checks) is therefore never concurrent and needs
+ * no locks, as long as every caller goes through the lanes: code off the pipeline (DLQ
+ * retry, outbox relay) queues its work with executeAndWait. A full stripe
+ * blocks the submitter until there is room; unlike PipelineStage it never runs the task on
+ * the submitting thread, which would break the one-at-a-time guarantee. A task that
+ * submits to a full stripe is rejected instead of blocking: its own worker (or another
+ * stripe's, waiting back on it) is the only thing that could make room. Metrics, tagged
+ * with the executor name:
+ * - kudosly.striped.depth{stripe}: tasks waiting on each stripe
+ * - kudosly.striped.executed{stripe}: tasks run by each stripe
+ * - kudosly.striped.wait: submit to start
+ * - kudosly.striped.imbalance: deepest stripe / mean depth (1 is even; 0 when idle)
+ * - kudosly.striped.hottest.share: largest share of one key's tasks in the last hot window
+ * - kudosly.striped.hot.keys: keys seen above the hot share in a window (logged by key)
+ */
+@Slf4j
+public class StripedExecutor implements AutoCloseable {
+
+    private final String name;
+    private final Stripe[] stripes;
+    private final Duration shutdownTimeout;
+    private final double hotShare;
+    private final long hotWindowNanos;
+    private final int hotMinTasks;
+
+    private final Timer waitTimer;
+    private final Counter hotKeys;
+
+    // Tasks per key in the current hot window
+    private final Map<String, LongAdder> windowCounts = new ConcurrentHashMap<>();
+    private final LongAdder windowTotal = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double hottestShare;
+
+    private volatile boolean running;
+
+    public StripedExecutor(String name, int stripes, int capacity, Duration shutdownTimeout,
+                           double hotShare, Duration hotWindow, int hotMinTasks, MeterRegistry meterRegistry) {
+        if (stripes < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Striped executor " + name + " needs at least one stripe and one slot");
+        }
+        this.name = name;
+        this.stripes = new Stripe[stripes];
+        this.shutdownTimeout = shutdownTimeout;
+        this.hotShare = hotShare;
+        this.hotWindowNanos = hotWindow.toNanos();
+        this.hotMinTasks = hotMinTasks;
+
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(i, capacity, meterRegistry);
+        }
+        waitTimer = Timer.builder("kudosly.striped.wait")
+            .tag("executor", name).description("Time from submit to start")
+            .publishPercentileHistogram().register(meterRegistry);
+        Gauge.builder("kudosly.striped.imbalance", this, StripedExecutor::imbalance)
+            .tag("executor", name).description("Deepest stripe over mean stripe depth").register(meterRegistry);
+        Gauge.builder("kudosly.striped.hottest.share", this, executor -> executor.hottestShare)
+            .tag("executor", name).description("Largest share of one key's tasks in the last window")
+            .register(meterRegistry);
+        hotKeys = Counter.builder("kudosly.striped.hot.keys")
+            .tag("executor", name).description("Keys above the hot share in a window").register(meterRegistry);
+    }
+
+    public StripedExecutor start() {
+        running = true;
+        for (Stripe stripe : stripes) {
+            stripe.worker = Thread.ofVirtual().name("striped-" + name + "-" + stripe.index).start(stripe::drain);
+        }
+        return this;
+    }
+
+    /**
+     * Queue a task behind earlier tasks for the same key, blocking while the stripe is full
+     * A null key is spread by identity, so it is not ordered against anything. Called from
+     * a stripe worker, a full stripe rejects the task rather than block.
+     */
+    public void execute(String key, Runnable task) {
+        if (!running) {
+            throw new RejectedExecutionException("Striped executor " + name + " is stopped");
+        }
+        Stripe stripe = stripes[stripeFor(key)];
+        countForHotWindow(key);
+        Task queued = new Task(task, System.nanoTime());
+        if (onStripeWorker()) {
+            if (!stripe.queue.offer(queued)) {
+                throw new RejectedExecutionException("Stripe " + stripe.index + " of " + name
+                    + " is full; a stripe worker cannot wait for room");
+            }
+            return;
+        }
+        try {
+            stripe.queue.put(queued);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing on stripe " + stripe.index, e);
+        }
+    }
+
+    /**
+     * Queue a task like execute and wait for it to run, rethrowing what it throws
+     * For callers off the stripes; a stripe worker waiting on a stripe could deadlock.
+     */
+    public void executeAndWait(String key, Runnable task) {
+        if (onStripeWorker()) {
+            throw new IllegalStateException("A stripe worker of " + name + " cannot wait on a stripe");
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        execute(key, () -> {
+            try {
+                task.run();
+                done.complete(null);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private boolean onStripeWorker() {
+        Thread current = Thread.currentThread();
+        for (Stripe stripe : stripes) {
+            if (stripe.worker == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int stripeFor(String key) {
+        int hash = key != null ? key.hashCode() : System.identityHashCode(new Object());
+        // Spread the high bits, as HashMap does, before taking the stripe
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    public int queuedTasks() {
+        int queued = 0;
+        for (Stripe stripe : stripes) {
+            queued += stripe.queue.size();
+        }
+        return queued;
+    }
+
+    double imbalance() {
+        int max = 0;
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            int depth = stripe.queue.size();
+            max = Math.max(max, depth);
+            total += depth;
+        }
+        return total == 0 ? 0 : (double) max * stripes.length / total;
+    }
+
+    double hottestShare() {
+        return hottestShare;
+    }
+
+    /**
+     * Count the key in the current window; the first submit after the window ends closes it
+     */
+    private void countForHotWindow(String key) {
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= hotWindowNanos && windowStart.compareAndSet(start, now)) {
+            closeHotWindow();
+        }
+        if (key != null) {
+            windowCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+            windowTotal.increment();
+        }
+    }
+
+    private void closeHotWindow() {
+        long total = windowTotal.sumThenReset();
+        double hottest = 0;
+        for (Map.Entry<String, LongAdder> entry : windowCounts.entrySet()) {
+            long count = entry.getValue().sum();
+            double share = total == 0 ? 0 : (double) count / total;
+            hottest = Math.max(hottest, share);
+            if (total >= hotMinTasks && share >= hotShare) {
+                hotKeys.increment();
+                log.warn("Hot key on striped executor {}: {} had {} of {} tasks ({}%) on stripe {}",
+                    name, entry.getKey(), count, total, Math.round(share * 100), stripeFor(entry.getKey()));
+            }
+        }
+        windowCounts.clear();
+        hottestShare = hottest;
+    }
+
+    /**
+     * Stop taking tasks and let the stripes drain for up to the shutdown timeout
+     */
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (Stripe stripe : stripes) {
+                long remaining = deadline - System.nanoTime();
+                if (stripe.worker == null || remaining <= 0 || !stripe.worker.join(Duration.ofNanos(remaining))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int queued = queuedTasks();
+        if (queued > 0) {
+            log.warn("Striped executor {} stopped with {} queued tasks", name, queued);
+            for (Stripe stripe : stripes) {
+                if (stripe.worker != null) {
+                    stripe.worker.interrupt();
+                }
+            }
+        }
+    }
+
+    private final class Stripe {
+        private final int index;
+        private final BlockingQueue<Task> queue;
+        private final Counter executed;
+        private volatile Thread worker;
+
+        Stripe(int index, int capacity, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            String stripe = Integer.toString(index);
+            Gauge.builder("kudosly.striped.depth", queue, BlockingQueue::size)
+                .tags("executor", name, "stripe", stripe).description("Tasks waiting on the stripe")
+                .register(meterRegistry);
+            executed = Counter.builder("kudosly.striped.executed")
+                .tags("executor", name, "stripe", stripe).description("Tasks run by the stripe")
+                .register(meterRegistry);
+        }
+
+        private void drain() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Task task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    waitTimer.record(System.nanoTime() - task.submittedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        task.work.run();
+                    } catch (Exception e) {
+                        log.error("Unhandled error on stripe {} of {}", index, name, e);
+                    } finally {
+                        executed.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Task(Runnable work, long submittedAt) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.kudosly.pipeline;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to its capacity
+ * Not thread-safe; callers guard it with their own lock. A non-positive rate means unlimited.
+ */
+public final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double capacity, long now) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.refilledAt = now;
+    }
+
+    public boolean isUnlimited() {
+        return tokensPerNano <= 0;
+    }
+
+    public boolean hasToken(long now) {
+        refill(now);
+        return isUnlimited() || tokens >= 1;
+    }
+
+    public void take(long now) {
+        refill(now);
+        if (!isUnlimited()) {
+            tokens -= 1;
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled to capacity, i.e. is indistinguishable from a new one
+     */
+    public boolean isFull(long now) {
+        refill(now);
+        return isUnlimited() || tokens >= capacity;
+    }
+
+    /**
+     * Nanoseconds until a token is available, 0 if one is available now
+     */
+    public long nanosUntilToken(long now) {
+        refill(now);
+        if (isUnlimited() || tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long now) {
+        if (isUnlimited() || now <= refilledAt) {
+            return;
+        }
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
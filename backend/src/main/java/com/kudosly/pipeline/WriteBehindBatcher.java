@@ -0,0 +1,467 @@
+package com.kudosly.pipeline;
+
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects entity saves for a few milliseconds and writes them as unordered bulk upserts
+ *
+ * A batch is flushed when it reaches maxBatchSize documents or when its oldest save has
+ * waited maxDelay, whichever comes first: raise the delay and size for throughput, lower
+ * them for latency. Each flush issues one unordered bulk of replace-by-id upserts per
+ * collection. Saves of the same document within a batch are coalesced into the last one.
+ * Ids are assigned on submit, so callers can use them before the write lands. insert()
+ * queues a plain insert instead, for documents a unique index keeps to one per key: a
+ * duplicate completes with null rather than failing, so retried inserts are safe.
+ * update() queues a partial $set/$inc update of an existing document, so a hot path
+ * writes the few fields it changed rather than the whole document. Updates of the same
+ * document within a batch are merged (later $set wins, $inc adds up) when both are pure
+ * $set/$inc on identical or disjoint paths; any other update is kept as a separate write
+ * after the ones before it. Updates are written after the batch's saves and inserts.
+ *
+ * Futures complete on their own virtual threads, so callbacks may block without holding
+ * up the flusher. When maxPending saves are buffered, save() blocks until a flush drains.
+ */
+@Slf4j
+@Component
+public class WriteBehindBatcher implements AutoCloseable {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final Set<String> MERGEABLE = Set.of("$set", "$inc");
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final int maxPending;
+    private final ExecutorService completions = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private LinkedHashMap<Key, Pending> buffer = new LinkedHashMap<>();
+    private long oldestQueuedAt;
+
+    private final Counter coalesced;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WriteBehindBatcher(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.write-behind.max-batch-size:200}") int maxBatchSize,
+            @Value("${app.write-behind.max-delay-ms:5}") long maxDelayMillis,
+            @Value("${app.write-behind.max-pending:5000}") int maxPending) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxPending = Math.max(maxPending, maxBatchSize);
+
+        Gauge.builder("kudosly.writebehind.pending", this, WriteBehindBatcher::pending)
+            .description("Saves waiting to be flushed").register(meterRegistry);
+        coalesced = meterRegistry.counter("kudosly.writebehind.coalesced");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().daemon().name("write-behind").start(this::flushLoop);
+    }
+
+    /**
+     * Queue an entity for an upsert by id; the future completes once it is written
+     */
+    public <T> CompletableFuture<T> save(T entity) {
+        return enqueue(entity, false);
+    }
+
+    /**
+     * Queue an entity for insert; the future completes with null if a unique index rejects it
+     */
+    public <T> CompletableFuture<T> insert(T entity) {
+        return enqueue(entity, true);
+    }
+
+    /**
+     * Queue a partial update of an existing document by id; never upserts
+     * The future completes once the update is written, whether or not a document matched.
+     */
+    public CompletableFuture<Void> update(Class<?> type, Object id, Update update) {
+        return enqueue(new Key(type, id, 1), new Pending(id, null, update, false));
+    }
+
+    private <T> CompletableFuture<T> enqueue(T entity, boolean insert) {
+        Object id = ensureId(entity);
+        return enqueue(new Key(entity.getClass(), id, 0), new Pending(id, entity, null, insert));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(Key key, Pending write) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            while (running && buffer.size() >= maxPending) {
+                notFull.await();
+            }
+            if (!running) {
+                // Shutting down: write through rather than strand the save
+                future.complete((T) writeNow(key.type(), write));
+                return future;
+            }
+            if (key.slot() > 0) {
+                key = lastUpdateSlot(key);
+            }
+            Pending pending = buffer.get(key);
+            if (pending != null && key.slot() > 0 && !canMerge(pending.update, write.update)) {
+                // Not safely mergeable: write it after the queued update instead
+                key = new Key(key.type(), key.id(), key.slot() + 1);
+                pending = null;
+            }
+            if (pending != null) {
+                if (key.slot() > 0) {
+                    pending.update = merge(pending.update, write.update);
+                } else {
+                    pending.entity = write.entity;
+                    pending.insert = write.insert;
+                }
+                coalesced.increment();
+            } else {
+                if (buffer.isEmpty()) {
+                    oldestQueuedAt = System.nanoTime();
+                }
+                pending = write;
+                buffer.put(key, pending);
+            }
+            pending.futures.add((CompletableFuture<Object>) future);
+            if (buffer.size() == 1 || buffer.size() >= maxBatchSize) {
+                notEmpty.signal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    public int pending() {
+        lock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Map<Key, Pending> batch;
+            try {
+                batch = awaitBatch();
+            } catch (InterruptedException e) {
+                batch = drainBuffer();
+                running = false;
+            }
+            if (batch == null) {
+                return;
+            }
+            write(batch);
+        }
+    }
+
+    /**
+     * Block until the buffer holds a full batch or its oldest save is maxDelay old
+     * Returns null once stopped with nothing left to write.
+     */
+    private Map<Key, Pending> awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (buffer.isEmpty()) {
+                if (!running) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            while (running && buffer.size() < maxBatchSize) {
+                long remaining = oldestQueuedAt + maxDelayNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                notEmpty.awaitNanos(remaining);
+            }
+            return drainBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Key lastUpdateSlot(Key key) {
+        while (buffer.containsKey(new Key(key.type(), key.id(), key.slot() + 1))) {
+            key = new Key(key.type(), key.id(), key.slot() + 1);
+        }
+        return key;
+    }
+
+    private Map<Key, Pending> drainBuffer() {
+        lock.lock();
+        try {
+            if (buffer.isEmpty()) {
+                return running ? Map.of() : null;
+            }
+            Map<Key, Pending> batch = buffer;
+            buffer = new LinkedHashMap<>();
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write slot by slot: saves and inserts first, then each round of updates, so writes
+     * to one document land in the order they were queued
+     */
+    private void write(Map<Key, Pending> batch) {
+        Map<Integer, Map<Class<?>, List<Pending>>> bySlot = new TreeMap<>();
+        batch.forEach((key, pending) -> bySlot.computeIfAbsent(key.slot(), s -> new LinkedHashMap<>())
+            .computeIfAbsent(key.type(), t -> new ArrayList<>()).add(pending));
+        bySlot.values().forEach(byType -> byType.forEach(this::writeCollection));
+    }
+
+    private void writeCollection(Class<?> type, List<Pending> writes) {
+        String collection = mongoTemplate.getCollectionName(type);
+        long start = System.nanoTime();
+        List<Throwable> errors = new ArrayList<>(Collections.nCopies(writes.size(), null));
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            for (Pending pending : writes) {
+                if (pending.update != null) {
+                    bulk.updateOne(new Query(Criteria.where("_id").is(pending.id)), pending.update);
+                } else if (pending.insert) {
+                    bulk.insert(pending.entity);
+                } else {
+                    bulk.replaceOne(new Query(Criteria.where("_id").is(pending.id)), pending.entity,
+                        FindAndReplaceOptions.options().upsert());
+                }
+            }
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                Pending pending = writes.get(error.getIndex());
+                if (pending.insert && error.getCode() == DUPLICATE_KEY) {
+                    pending.duplicate = true;
+                } else {
+                    errors.set(error.getIndex(), new IllegalStateException(
+                        "Write-behind save to " + collection + " failed: " + error.getMessage(), e));
+                }
+            }
+        } catch (Exception e) {
+            Collections.fill(errors, e);
+        }
+
+        long failed = errors.stream().filter(error -> error != null).count();
+        DistributionSummary.builder("kudosly.writebehind.batch.size").tag("collection", collection)
+            .register(meterRegistry).record(writes.size());
+        Timer.builder("kudosly.writebehind.flush").tag("collection", collection)
+            .register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (failed > 0) {
+            meterRegistry.counter("kudosly.writebehind.failed", "collection", collection).increment(failed);
+            log.error("Write-behind flush to {} failed for {} of {} documents", collection, failed, writes.size());
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            Pending pending = writes.get(i);
+            Throwable error = errors.get(i);
+            for (CompletableFuture<Object> future : pending.futures) {
+                completions.execute(() -> {
+                    if (error == null) {
+                        future.complete(pending.duplicate ? null : pending.entity);
+                    } else {
+                        future.completeExceptionally(error);
+                    }
+                });
+            }
+        }
+    }
+
+    private Object writeNow(Class<?> type, Pending write) {
+        if (write.update != null) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(write.id)), write.update, type);
+            return null;
+        }
+        return write.insert ? insertNow(write.entity) : mongoTemplate.save(write.entity);
+    }
+
+    /**
+     * Whether merge() preserves the effect of applying both updates in order: both must be
+     * pure $set/$inc, every pair of paths identical or disjoint (a and a.b overlap), and an
+     * $inc may only follow a numeric value on the same path
+     */
+    static boolean canMerge(Update earlier, Update later) {
+        Document before = earlier.getUpdateObject();
+        Document after = later.getUpdateObject();
+        if (!MERGEABLE.containsAll(before.keySet()) || !MERGEABLE.containsAll(after.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Object> ops : after.entrySet()) {
+            for (Map.Entry<String, Object> change : ((Document) ops.getValue()).entrySet()) {
+                String path = change.getKey();
+                for (Object earlierOps : before.values()) {
+                    for (Map.Entry<String, Object> previous : ((Document) earlierOps).entrySet()) {
+                        if (path.equals(previous.getKey())) {
+                            if ("$inc".equals(ops.getKey()) && !(previous.getValue() instanceof Number)) {
+                                return false;
+                            }
+                        } else if (path.startsWith(previous.getKey() + ".")
+                            || previous.getKey().startsWith(path + ".")) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Combine two updates of one document as if applied in order: a later operator on a
+     * field replaces the earlier one, except that $inc adds to an earlier $inc or numeric $set.
+     * Only exact when canMerge() holds.
+     */
+    static Update merge(Update earlier, Update later) {
+        Document merged = new Document();
+        earlier.getUpdateObject().forEach((op, fields) -> merged.put(op, new Document((Document) fields)));
+        later.getUpdateObject().forEach((op, fields) -> ((Document) fields).forEach((field, value) -> {
+            if ("$inc".equals(op) && value instanceof Number delta) {
+                for (String base : List.of("$set", "$inc")) {
+                    if (merged.get(base) instanceof Document ops && ops.get(field) instanceof Number previous) {
+                        ops.put(field, add(previous, delta));
+                        return;
+                    }
+                }
+            }
+            merged.values().forEach(ops -> ((Document) ops).remove(field));
+            ((Document) merged.computeIfAbsent(op, o -> new Document())).put(field, value);
+        }));
+        merged.values().removeIf(ops -> ((Document) ops).isEmpty());
+        return Update.fromDocument(merged);
+    }
+
+    private static Number add(Number a, Number b) {
+        if (a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float) {
+            return a.doubleValue() + b.doubleValue();
+        }
+        long sum = a.longValue() + b.longValue();
+        return a instanceof Long || b instanceof Long || sum != (int) sum ? (Number) sum : (Number) (int) sum;
+    }
+
+    private <T> T insertNow(T entity) {
+        try {
+            return mongoTemplate.insert(entity);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read the entity's id, assigning a new ObjectId when it has none
+     */
+    private Object ensureId(Object entity) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(entity.getClass());
+        MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+        PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(entity);
+        Object id = accessor.getProperty(idProperty);
+        if (id == null) {
+            ObjectId generated = new ObjectId();
+            id = String.class.equals(idProperty.getType()) ? generated.toHexString() : generated;
+            accessor.setProperty(idProperty, id);
+        }
+        return id;
+    }
+
+    /**
+     * Flush what is buffered, then stop; later saves write through
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        completions.close();
+    }
+
+    // slot 0: a save or insert; 1..n: queued update()s of the document, written in slot order
+    private record Key(Class<?> type, Object id, int slot) {
+    }
+
+    private static final class Pending {
+        private final Object id;
+        private final List<CompletableFuture<Object>> futures = new ArrayList<>(1);
+        private Object entity;
+        private Update update;
+        private boolean insert;
+        private boolean duplicate;
+
+        Pending(Object id, Object entity, Update update, boolean insert) {
+            this.id = id;
+            this.entity = entity;
+            this.update = update;
+            this.insert = insert;
+        }
+    }
+}
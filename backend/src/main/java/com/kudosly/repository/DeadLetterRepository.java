@@ -0,0 +1,15 @@
+package com.kudosly.repository;
+
+import com.kudosly.model.DeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeadLetterRepository extends MongoRepository<DeadLetter, String> {
+    List<DeadLetter> findByStatus(String status, Pageable pageable);
+    long countByStatus(String status);
+    long deleteByStatus(String status);
+}
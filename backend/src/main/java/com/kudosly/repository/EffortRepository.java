@@ -13,6 +13,12 @@ import java.util.List;
 public interface EffortRepository extends MongoRepository<Effort, String> {
     List<Effort> findByEmployeeId(String employeeId);
     
+    /**
+     * Efforts without their payload, for aggregate checks that only read typed fields
+     */
+    @Query(value = "{ 'employeeId': ?0 }", fields = "{ 'payload': 0 }")
+    List<Effort> findSlimByEmployeeId(String employeeId);
+    
     List<Effort> findByEmployeeIdAndTimestampBetween(String employeeId, Date start, Date end);
     
     List<Effort> findByTimestampAfter(Date timestamp);
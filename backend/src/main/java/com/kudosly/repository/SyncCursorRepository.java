@@ -0,0 +1,9 @@
+package com.kudosly.repository;
+
+import com.kudosly.model.SyncCursor;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncCursorRepository extends MongoRepository<SyncCursor, String> {
+}
@@ -0,0 +1,9 @@
+package com.kudosly.repository;
+
+import com.kudosly.model.WebhookDelivery;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookDeliveryRepository extends MongoRepository<WebhookDelivery, String> {
+}
@@ -5,10 +5,12 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WeeklyDigestRepository extends MongoRepository<WeeklyDigest, String> {
     Optional<WeeklyDigest> findByEmployeeIdAndWeekStartAndWeekEnd(String employeeId, Date weekStart, Date weekEnd);
     Optional<WeeklyDigest> findTopByEmployeeIdOrderByWeekEndDesc(String employeeId);
+    List<WeeklyDigest> findByEmployeeIdAndWeekStartBeforeAndWeekEndAfter(String employeeId, Date end, Date start);
 }
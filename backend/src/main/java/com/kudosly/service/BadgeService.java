@@ -3,9 +3,11 @@ package com.kudosly.service;
 import com.kudosly.model.Badge;
 import com.kudosly.model.EmployeeBadge;
 import com.kudosly.model.Effort;
+import com.kudosly.pipeline.WriteBehindBatcher;
 import com.kudosly.repository.BadgeRepository;
 import com.kudosly.repository.EffortRepository;
 import com.kudosly.repository.EmployeeBadgeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,8 @@ public class BadgeService {
     private final BadgeRepository badgeRepository;
     private final EmployeeBadgeRepository employeeBadgeRepository;
     private final EffortRepository effortRepository;
+    private final WriteBehindBatcher writeBehind;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Get all available badges
@@ -73,7 +77,13 @@ public class BadgeService {
         employeeBadge.setEarnedDate(new Date());
         employeeBadge.setProgressPercentage(100);
         
-        return employeeBadgeRepository.save(employeeBadge);
+        // The unique (employeeId, badgeId) index rejects a concurrent or retried award
+        EmployeeBadge awarded = writeBehind.insert(employeeBadge).join();
+        if (awarded != null) {
+            meterRegistry.counter("kudosly.badges.awarded", "badge", badgeId).increment();
+        }
+        return awarded != null ? awarded
+            : employeeBadgeRepository.findByEmployeeIdAndBadgeId(employeeId, badgeId).orElse(null);
     }
 
     /**
@@ -117,7 +127,7 @@ public class BadgeService {
 
     private boolean checkCollaborationHero(String employeeId, Map<String, Object> criteria) {
         int minEfforts = (Integer) criteria.getOrDefault("minCollaborationEfforts", 10);
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         long collaborationCount = efforts.stream()
                 .filter(e -> "collaboration".equals(e.getEffortType()))
                 .count();
@@ -127,7 +137,7 @@ public class BadgeService {
     private boolean checkProblemSolver(String employeeId, Map<String, Object> criteria) {
         int minBugFixes = (Integer) criteria.getOrDefault("minBugFixes", 5);
         int minImpactScore = (Integer) criteria.getOrDefault("minImpactScore", 8);
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         long qualifyingFixes = efforts.stream()
                 .filter(e -> "bug-fix".equals(e.getEffortType()))
                 .filter(e -> e.getImpactScore() != null && e.getImpactScore() >= minImpactScore)
@@ -138,7 +148,7 @@ public class BadgeService {
     private boolean checkKnowledgeSharer(String employeeId, Map<String, Object> criteria) {
         int minMentoring = (Integer) criteria.getOrDefault("minMentoringEfforts", 5);
         int minCodeReviews = (Integer) criteria.getOrDefault("minCodeReviews", 10);
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         
         long mentoringCount = efforts.stream()
                 .filter(e -> "mentoring".equals(e.getEffortType()))
@@ -153,7 +163,7 @@ public class BadgeService {
 
     private boolean checkConsistencyChampion(String employeeId, Map<String, Object> criteria) {
         int minDailyEfforts = (Integer) criteria.getOrDefault("minDailyEfforts", 3);
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         
         if (efforts.isEmpty()) {
             return false;
@@ -167,7 +177,7 @@ public class BadgeService {
     private boolean checkInnovationSpark(String employeeId, Map<String, Object> criteria) {
         int minFeatures = (Integer) criteria.getOrDefault("minInnovativeFeatures", 3);
         int minImpactScore = (Integer) criteria.getOrDefault("minImpactScore", 9);
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         
         long innovativeFeatures = efforts.stream()
                 .filter(e -> "feature-work".equals(e.getEffortType()))
@@ -181,7 +191,7 @@ public class BadgeService {
         int minTeamEfforts = (Integer) criteria.getOrDefault("minTeamEfforts", 20);
         double positiveRatio = (Double) criteria.getOrDefault("positiveCollaborationRatio", 0.8);
         
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         long teamEfforts = efforts.stream()
                 .filter(e -> "collaboration".equals(e.getEffortType()))
                 .count();
@@ -254,7 +264,7 @@ public class BadgeService {
     }
 
     private int calculateBadgeProgress(String employeeId, Badge badge) {
-        List<Effort> efforts = effortRepository.findByEmployeeId(employeeId);
+        List<Effort> efforts = effortRepository.findSlimByEmployeeId(employeeId);
         
         switch (badge.getBadgeId()) {
             case "collaboration-hero":
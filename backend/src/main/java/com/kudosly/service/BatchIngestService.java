@@ -0,0 +1,203 @@
+package com.kudosly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.kudosly.dto.BatchIngestResultDTO;
+import com.kudosly.dto.BatchIngestResultDTO.LineResult;
+import com.kudosly.model.Effort;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk ingest of NDJSON effort streams (optionally gzip-compressed)
+ * Each line is normalized through the regular webhook dispatch and efforts are
+ * written in chunks with unordered bulk inserts, reporting a result per line. GitHub
+ * push lines fan out into per-commit efforts through the same path as push webhooks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchIngestService {
+
+    private final EffortIntakeService effortIntakeService;
+    private final MongoTemplate mongoTemplate;
+    private final RawEventArchiveService rawEventArchive;
+
+    @Value("${app.ingest.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Ingest an NDJSON stream; gzip input is detected from its magic bytes
+     */
+    public BatchIngestResultDTO ingestNdjson(InputStream input, String source) throws IOException {
+        log.info("Processing batch ingest from source: {}", source);
+
+        BatchIngestResultDTO result = new BatchIngestResultDTO();
+        result.setSource(source);
+
+        List<Effort> chunk = new ArrayList<>(chunkSize);
+        List<LineResult> chunkResults = new ArrayList<>(chunkSize);
+        List<byte[]> chunkBodies = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(decompressIfNeeded(input), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                LineResult lineResult = new LineResult(lineNumber, "failed", null, null, null);
+                result.getResults().add(lineResult);
+
+                byte[] body = line.getBytes(StandardCharsets.UTF_8);
+                Effort effort = normalizeLine(body, source, lineResult);
+                if (effort == null) {
+                    continue;
+                }
+
+                chunk.add(effort);
+                chunkResults.add(lineResult);
+                chunkBodies.add(body);
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, chunkResults, chunkBodies, source);
+                }
+            }
+        }
+        flush(chunk, chunkResults, chunkBodies, source);
+
+        int created = (int) result.getResults().stream().filter(r -> "created".equals(r.getStatus())).count();
+        result.setTotalLines(result.getResults().size());
+        result.setCreated(created);
+        result.setFailed((int) result.getResults().stream().filter(r -> "failed".equals(r.getStatus())).count());
+
+        log.info("Batch ingest from source: {} created {} of {} efforts", source, created, result.getTotalLines());
+        return result;
+    }
+
+    private Effort normalizeLine(byte[] line, String source, LineResult lineResult) {
+        try {
+            Map<String, Object> payload = effortIntakeService.extractPayload(line, source);
+            if (EffortIntakeService.isPush(payload, source)) {
+                ingestPush(payload, line, lineResult);
+                return null;
+            }
+            Effort effort = effortIntakeService.normalizePayload(payload, source);
+            if (effort == null) {
+                lineResult.setError("Payload could not be normalized for source: " + source);
+            }
+            return effort;
+        } catch (JsonProcessingException e) {
+            lineResult.setError("Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            lineResult.setError("Unreadable line: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fan a push line out into per-commit efforts, written and queued straight away
+     */
+    private void ingestPush(Map<String, Object> payload, byte[] line, LineResult lineResult) {
+        try {
+            List<Effort> efforts = effortIntakeService.ingestPush(payload, line);
+            if (efforts.isEmpty()) {
+                lineResult.setStatus("skipped");
+                lineResult.setError("Push has no new commits");
+                return;
+            }
+            lineResult.setStatus("created");
+            lineResult.setEffortId(efforts.get(0).getId());
+            lineResult.setEffortIds(efforts.stream().map(Effort::getId).toList());
+        } catch (Exception e) {
+            log.error("Push fan-out failed on line {}", lineResult.getLine(), e);
+            lineResult.setError("Push fan-out failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Insert a chunk with a single unordered bulk write and mark per-line outcomes
+     * Raw lines of the inserted efforts are then archived with one more bulk write.
+     */
+    private void flush(List<Effort> chunk, List<LineResult> chunkResults, List<byte[]> chunkBodies, String source) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Assign ids up front so results can reference them without a read-back
+        chunk.forEach(effort -> effort.setId(new ObjectId().toHexString()));
+        boolean[] failed = new boolean[chunk.size()];
+
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class);
+            bulk.insert(chunk);
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed[error.getIndex()] = true;
+                chunkResults.get(error.getIndex()).setError(error.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Bulk insert of {} efforts failed", chunk.size(), e);
+            chunkResults.forEach(r -> r.setError("Bulk insert failed: " + e.getMessage()));
+            chunk.clear();
+            chunkResults.clear();
+            chunkBodies.clear();
+            return;
+        }
+
+        List<String> archivedIds = new ArrayList<>(chunk.size());
+        List<byte[]> archivedBodies = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (failed[i]) {
+                continue;
+            }
+            LineResult lineResult = chunkResults.get(i);
+            lineResult.setStatus("created");
+            lineResult.setEffortId(chunk.get(i).getId());
+            archivedIds.add(chunk.get(i).getId());
+            archivedBodies.add(chunkBodies.get(i));
+        }
+        rawEventArchive.archiveAll(archivedIds, source, archivedBodies);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!failed[i]) {
+                effortIntakeService.processEffortAsync(chunk.get(i));
+            }
+        }
+
+        chunk.clear();
+        chunkResults.clear();
+        chunkBodies.clear();
+    }
+
+    private InputStream decompressIfNeeded(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return gzip ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+}
@@ -0,0 +1,86 @@
+package com.kudosly.service;
+
+import com.kudosly.config.SchedulingConfig;
+import com.kudosly.model.DeadLetter;
+import com.kudosly.model.Effort;
+import com.kudosly.repository.EffortRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Retries dead-lettered efforts whose backoff has elapsed, one batch per tick
+ * A retry that fails again goes back through DeadLetterService.record, which counts the
+ * attempt and schedules the next one; entries that succeed are deleted in one call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterRetryService {
+
+    private final DeadLetterService deadLetters;
+    private final EffortRepository effortRepository;
+    private final EffortProcessingService processingService;
+
+    @Value("${app.dlq.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Retry one batch of due entries; anything left waits for the next tick
+     * Bounded so outage recovery cannot hold the maintenance scheduler for minutes.
+     */
+    @Scheduled(fixedDelayString = "${app.dlq.retry-interval-ms:10000}",
+        initialDelayString = "${app.dlq.retry-interval-ms:10000}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void retryDue() {
+        List<DeadLetter> batch = deadLetters.claimDue(batchSize);
+        List<String> succeeded = new ArrayList<>();
+        for (DeadLetter letter : batch) {
+            if (retry(letter)) {
+                succeeded.add(letter.getId());
+            }
+        }
+        deadLetters.resolve(succeeded);
+
+        if (!batch.isEmpty()) {
+            log.info("Dead-letter retry: {} of {} efforts recovered", succeeded.size(), batch.size());
+        }
+    }
+
+    /**
+     * Retry one entry now, whatever its status or schedule; returns whether it succeeded
+     */
+    public boolean replay(String id) {
+        DeadLetter letter = deadLetters.get(id);
+        if (letter == null) {
+            throw new IllegalArgumentException("Dead letter not found: " + id);
+        }
+        boolean succeeded = retry(letter);
+        if (succeeded) {
+            deadLetters.resolve(List.of(id));
+        }
+        return succeeded;
+    }
+
+    private boolean retry(DeadLetter letter) {
+        Optional<Effort> effort = effortRepository.findById(letter.getEffortId());
+        if (effort.isEmpty()) {
+            log.info("Effort {} no longer exists; dropping its dead letter", letter.getEffortId());
+            return true;
+        }
+        try {
+            processingService.reprocess(effort.get(), letter.getStage());
+            log.info("Recovered effort {} at stage {} after {} failed attempts",
+                letter.getEffortId(), letter.getStage(), letter.getAttempts());
+            return true;
+        } catch (Exception e) {
+            deadLetters.record(effort.get(), letter.getStage(), e);
+            return false;
+        }
+    }
+}
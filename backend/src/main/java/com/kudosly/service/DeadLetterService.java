@@ -0,0 +1,203 @@
+package com.kudosly.service;
+
+import com.kudosly.model.DeadLetter;
+import com.kudosly.model.Effort;
+import com.kudosly.repository.DeadLetterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mongo-backed dead-letter queue for efforts whose processing failed
+ *
+ * Each failure is recorded under effortId|stage with the exception, and scheduled for a
+ * retry after an exponential backoff (base-delay-ms doubling per attempt, capped at
+ * max-delay-ms) with equal jitter, so efforts that failed together during an outage do
+ * not all retry at the same moment. After max-attempts the entry is exhausted and only
+ * retried when replayed by hand. DeadLetterRetryService does the retrying.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterService {
+
+    public static final String PENDING = "pending";
+    public static final String EXHAUSTED = "exhausted";
+
+    private final MongoTemplate mongoTemplate;
+    private final DeadLetterRepository deadLetterRepository;
+
+    @Value("${app.dlq.base-delay-ms:5000}")
+    private long baseDelayMillis;
+
+    @Value("${app.dlq.max-delay-ms:3600000}")
+    private long maxDelayMillis;
+
+    @Value("${app.dlq.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.dlq.lease-ms:300000}")
+    private long leaseMillis;
+
+    /**
+     * Create the index the retry scheduler polls
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            mongoTemplate.indexOps(DeadLetter.class).ensureIndex(new Index()
+                .on("status", Sort.Direction.ASC).on("nextAttemptAt", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not create dead-letter index; retries will scan the collection", e);
+        }
+    }
+
+    public static String idFor(String effortId, String stage) {
+        return effortId + "|" + stage;
+    }
+
+    /**
+     * Record a failed stage and schedule its next retry; never throws
+     */
+    public void record(Effort effort, String stage, Throwable error) {
+        if (effort.getId() == null) {
+            log.error("Effort failed at {} before it had an id; not dead-lettered", stage, error);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        try {
+            Date now = new Date();
+            Query query = new Query(Criteria.where("_id").is(idFor(effort.getId(), stage)));
+            Update update = new Update()
+                .setOnInsert("effortId", effort.getId())
+                .setOnInsert("stage", stage)
+                .setOnInsert("firstFailedAt", now)
+                .inc("attempts", 1)
+                .set("errorType", cause.getClass().getName())
+                .set("errorMessage", cause.getMessage())
+                .set("lastFailedAt", now);
+            DeadLetter letter = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), DeadLetter.class);
+
+            int attempts = letter != null && letter.getAttempts() != null ? letter.getAttempts() : 1;
+            if (attempts >= maxAttempts) {
+                mongoTemplate.updateFirst(query, new Update().set("status", EXHAUSTED).unset("nextAttemptAt"),
+                    DeadLetter.class);
+                log.error("Effort {} failed at {} {} times; dead letter exhausted", effort.getId(), stage, attempts, cause);
+            } else {
+                Date next = new Date(now.getTime() + backoffMillis(attempts));
+                mongoTemplate.updateFirst(query, new Update().set("status", PENDING).set("nextAttemptAt", next),
+                    DeadLetter.class);
+                log.warn("Effort {} failed at {} (attempt {}); retrying at {}: {}",
+                    effort.getId(), stage, attempts, next, cause.toString());
+            }
+        } catch (Exception e) {
+            log.error("Could not dead-letter effort {} failed at {} ({})", effort.getId(), stage, cause.toString(), e);
+        }
+    }
+
+    /**
+     * Delay before retry number attempts+1: half the capped exponential delay plus up to half again at random
+     */
+    long backoffMillis(int attempts) {
+        long exponential = baseDelayMillis << Math.min(attempts - 1, 30);
+        long delay = exponential <= 0 ? maxDelayMillis : Math.min(exponential, maxDelayMillis);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Claim up to limit pending entries whose retry is due, oldest first
+     * A claim pushes nextAttemptAt out by the lease, so another instance polling at the
+     * same time skips the entry, and one whose retry dies with the process comes back.
+     */
+    public List<DeadLetter> claimDue(int limit) {
+        Date now = new Date();
+        Query due = new Query(Criteria.where("status").is(PENDING).and("nextAttemptAt").lte(now))
+            .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"))
+            .limit(limit);
+        List<DeadLetter> claimed = new ArrayList<>();
+        for (DeadLetter letter : mongoTemplate.find(due, DeadLetter.class)) {
+            Query claim = new Query(Criteria.where("_id").is(letter.getId())
+                .and("status").is(PENDING).and("nextAttemptAt").is(letter.getNextAttemptAt()));
+            Update lease = new Update().set("nextAttemptAt", new Date(now.getTime() + leaseMillis));
+            if (mongoTemplate.updateFirst(claim, lease, DeadLetter.class).getModifiedCount() == 1) {
+                claimed.add(letter);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Remove entries whose retry succeeded
+     */
+    public void resolve(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), DeadLetter.class);
+        }
+    }
+
+    /**
+     * Make entries with the given status (all if null) due now, with a fresh attempt budget
+     * Returns the number rescheduled.
+     */
+    public long scheduleReplay(String status) {
+        Query query = status != null ? new Query(Criteria.where("status").is(status)) : new Query();
+        Update update = new Update().set("status", PENDING).set("attempts", 0).set("nextAttemptAt", new Date());
+        return mongoTemplate.updateMulti(query, update, DeadLetter.class).getModifiedCount();
+    }
+
+    public List<DeadLetter> list(String status, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "lastFailedAt"));
+        return status != null ? deadLetterRepository.findByStatus(status, pageable)
+            : deadLetterRepository.findAll(pageable).getContent();
+    }
+
+    public DeadLetter get(String id) {
+        return deadLetterRepository.findById(id).orElse(null);
+    }
+
+    public long count(String status) {
+        return deadLetterRepository.countByStatus(status);
+    }
+
+    /**
+     * Delete one entry
+     */
+    public boolean purge(String id) {
+        if (!deadLetterRepository.existsById(id)) {
+            return false;
+        }
+        deadLetterRepository.deleteById(id);
+        return true;
+    }
+
+    /**
+     * Delete entries with the given status, or all if null; returns the number deleted
+     */
+    public long purgeAll(String status) {
+        if (status != null) {
+            return deadLetterRepository.deleteByStatus(status);
+        }
+        long count = deadLetterRepository.count();
+        deadLetterRepository.deleteAll();
+        return count;
+    }
+}
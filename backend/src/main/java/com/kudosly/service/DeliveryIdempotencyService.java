@@ -0,0 +1,154 @@
+package com.kudosly.service;
+
+import com.kudosly.ingest.BloomFilter;
+import com.kudosly.model.WebhookDelivery;
+import com.kudosly.repository.WebhookDeliveryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * Rejects redelivered webhooks by their delivery id
+ *
+ * An in-memory Bloom filter answers the common "never seen" case without touching
+ * Mongo; only possible duplicates are confirmed against the TTL-indexed
+ * webhook_deliveries collection. Two filter generations are rotated every TTL so
+ * the filter forgets ids roughly when the collection expires them. Until the filter has
+ * been loaded (the ingest log replays at context refresh, before the application is
+ * ready) or if loading fails, every check goes to the store.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeliveryIdempotencyService {
+
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.webhooks.idempotency.ttl-hours:72}")
+    private long ttlHours;
+
+    @Value("${app.webhooks.idempotency.expected-deliveries:1000000}")
+    private long expectedDeliveries;
+
+    @Value("${app.webhooks.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter currentFilter;
+    private volatile BloomFilter previousFilter;
+    private volatile long rotatedAtMillis;
+    private volatile boolean warmedUp;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        currentFilter = newFilter();
+        previousFilter = newFilter();
+        rotatedAtMillis = System.currentTimeMillis();
+
+        hits = meterRegistry.counter("kudosly.webhook.idempotency", "result", "hit");
+        misses = meterRegistry.counter("kudosly.webhook.idempotency", "result", "miss");
+        falsePositives = meterRegistry.counter("kudosly.webhook.idempotency", "result", "false_positive");
+    }
+
+    /**
+     * Create the TTL index and load ids still inside the TTL into the filter
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            mongoTemplate.indexOps(WebhookDelivery.class)
+                .ensureIndex(new Index().on("receivedAt", Sort.Direction.ASC).expire(Duration.ofHours(ttlHours)));
+
+            Query idsOnly = new Query();
+            idsOnly.fields().include("_id");
+            long loaded;
+            try (Stream<WebhookDelivery> deliveries = mongoTemplate.stream(idsOnly, WebhookDelivery.class)) {
+                loaded = deliveries.peek(d -> currentFilter.put(d.getId())).count();
+            }
+            warmedUp = true;
+            log.info("Loaded {} recent webhook delivery ids into idempotency filter", loaded);
+        } catch (Exception e) {
+            log.warn("Could not warm up webhook idempotency filter; duplicates will be caught by the store", e);
+        }
+    }
+
+    /**
+     * Whether this delivery has already been processed
+     */
+    public boolean isDuplicate(String source, String deliveryId) {
+        String key = key(source, deliveryId);
+        rotateIfDue();
+
+        if (warmedUp && !currentFilter.mightContain(key) && !previousFilter.mightContain(key)) {
+            misses.increment();
+            return false;
+        }
+
+        if (deliveryRepository.existsById(key)) {
+            hits.increment();
+            return true;
+        }
+
+        if (warmedUp) {
+            falsePositives.increment();
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Remember a successfully processed delivery
+     */
+    public void recordDelivery(String source, String deliveryId) {
+        String key = key(source, deliveryId);
+        try {
+            deliveryRepository.insert(new WebhookDelivery(key, source, deliveryId, new Date()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Delivery {} already recorded", key);
+        }
+        currentFilter.put(key);
+    }
+
+    private void rotateIfDue() {
+        long ttlMillis = Duration.ofHours(ttlHours).toMillis();
+        if (System.currentTimeMillis() - rotatedAtMillis < ttlMillis) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - rotatedAtMillis >= ttlMillis) {
+                previousFilter = currentFilter;
+                currentFilter = newFilter();
+                rotatedAtMillis = now;
+            }
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedDeliveries, falsePositiveRate);
+    }
+
+    private static String key(String source, String deliveryId) {
+        return source.toLowerCase() + ":" + deliveryId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kudosly.service;
 
 import com.kudosly.model.Effort;
+import com.kudosly.model.EffortFeatures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,9 @@ public class EffortClassifierService {
         Map.entry("learning", new String[]{"learn", "study", "course", "training", "skill", "development", "education"})
     );
 
+    // Word-boundary matchers for the multi-word keywords; single words are looked up in the token set
+    private static final Map<String, Pattern> PHRASE_PATTERNS = compilePhrasePatterns();
+
     /**
      * Classify effort based on content and metadata
      */
@@ -36,11 +40,8 @@ public class EffortClassifierService {
                 return validateEffortType(effort.getEffortType());
             }
 
-            // Extract text from payload
-            String text = extractTextFromPayload(effort.getPayload());
-            
-            // Classify based on keywords
-            String classification = classifyByKeywords(text);
+            // Classify based on keywords in the payload text
+            String classification = classifyByKeywords(EffortFeatures.of(effort));
             
             log.debug("Classified effort {} as: {}", effort.getId(), classification);
             return classification;
@@ -51,64 +52,22 @@ public class EffortClassifierService {
     }
 
     /**
-     * Extract text from various payload formats
+     * Classify a batch of efforts in place, e.g. the commits of one push
+     * Efforts that already carry a valid type keep it.
      */
-    private String extractTextFromPayload(Map<String, Object> payload) {
-        StringBuilder text = new StringBuilder();
-
-        // Jira payload
-        if (payload.containsKey("issue")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> issue = (Map<String, Object>) payload.get("issue");
-            text.append(issue.getOrDefault("summary", "")).append(" ");
-            text.append(issue.getOrDefault("description", "")).append(" ");
+    public void classifyAll(List<Effort> efforts) {
+        for (Effort effort : efforts) {
+            effort.setEffortType(classifyEffort(effort));
         }
-
-        // GitHub payload
-        if (payload.containsKey("pull_request")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-            text.append(pr.getOrDefault("title", "")).append(" ");
-            text.append(pr.getOrDefault("body", "")).append(" ");
-        }
-
-        if (payload.containsKey("commit")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> commit = (Map<String, Object>) payload.get("commit");
-            text.append(commit.getOrDefault("message", "")).append(" ");
-        }
-
-        // Slack payload
-        if (payload.containsKey("event")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> event = (Map<String, Object>) payload.get("event");
-            text.append(event.getOrDefault("text", "")).append(" ");
-        }
-
-        // Generic text field
-        text.append(payload.getOrDefault("text", "")).append(" ");
-        text.append(payload.getOrDefault("title", "")).append(" ");
-        text.append(payload.getOrDefault("description", "")).append(" ");
-
-        return text.toString().toLowerCase();
     }
 
     /**
      * Classify by keyword matching
      */
-    private String classifyByKeywords(String text) {
+    private String classifyByKeywords(EffortFeatures features) {
         Map<String, Integer> scores = new HashMap<>();
         
-        EFFORT_KEYWORDS.forEach((category, keywords) -> {
-            int score = 0;
-            for (String keyword : keywords) {
-                Pattern pattern = Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b");
-                if (pattern.matcher(text).find()) {
-                    score += 10;
-                }
-            }
-            scores.put(category, score);
-        });
+        EFFORT_KEYWORDS.forEach((category, keywords) -> scores.put(category, countMatches(features, keywords) * 10));
 
         // Return category with highest score
         return scores.entrySet().stream()
@@ -132,20 +91,13 @@ public class EffortClassifierService {
      */
     public int getConfidenceScore(Effort effort, String classification) {
         try {
-            String text = extractTextFromPayload(effort.getPayload());
             String[] keywords = EFFORT_KEYWORDS.get(classification);
             
             if (keywords == null) {
                 return 30; // Low confidence for unknown types
             }
 
-            int matches = 0;
-            for (String keyword : keywords) {
-                Pattern pattern = Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b");
-                if (pattern.matcher(text).find()) {
-                    matches++;
-                }
-            }
+            int matches = countMatches(EffortFeatures.of(effort), keywords);
 
             // Calculate confidence (0-100)
             return Math.min(100, (matches * 100) / keywords.length);
@@ -154,4 +106,24 @@ public class EffortClassifierService {
             return 50;
         }
     }
+
+    private static int countMatches(EffortFeatures features, String[] keywords) {
+        int matches = 0;
+        for (String keyword : keywords) {
+            Pattern phrase = PHRASE_PATTERNS.get(keyword);
+            if (phrase != null ? phrase.matcher(features.text()).find() : features.mentions(keyword)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static Map<String, Pattern> compilePhrasePatterns() {
+        Map<String, Pattern> patterns = new HashMap<>();
+        EFFORT_KEYWORDS.values().stream()
+            .flatMap(Arrays::stream)
+            .filter(keyword -> keyword.contains(" "))
+            .forEach(keyword -> patterns.put(keyword, Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b")));
+        return patterns;
+    }
 }
@@ -1,18 +1,26 @@
 package com.kudosly.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.ingest.PayloadFieldExtractor;
 import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
 import com.kudosly.model.Recognition;
+import com.kudosly.normalizer.SourceNormalizer;
+import com.kudosly.normalizer.SourceNormalizerRegistry;
+import com.kudosly.pipeline.EffortCompletionRegistry;
+import com.kudosly.pipeline.EffortSessionizer;
+import com.kudosly.pipeline.FairAdmissionScheduler;
+import com.kudosly.pipeline.PipelineMetrics;
+import com.kudosly.pipeline.WriteBehindBatcher;
 import com.kudosly.repository.EffortRepository;
 import com.kudosly.repository.RecognitionRepository;
-import com.kudosly.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.util.*;
 
 @Slf4j
@@ -21,14 +29,22 @@ import java.util.*;
 public class EffortIntakeService {
 
     private final EffortRepository effortRepository;
-    private final EmployeeRepository employeeRepository;
+    private final SourceNormalizerRegistry normalizerRegistry;
     private final AIEffortAnalyzerService aiAnalyzerService;
     private final RecognitionGeneratorService recognitionService;
     private final EffortProcessingService effortProcessingService;
-
-    private static final String JIRA_WEBHOOK_SECRET = System.getenv("JIRA_WEBHOOK_SECRET");
-    private static final String GITHUB_WEBHOOK_SECRET = System.getenv("GITHUB_WEBHOOK_SECRET");
-    private static final String SLACK_WEBHOOK_SECRET = System.getenv("SLACK_WEBHOOK_SECRET");
+    private final DeliveryIdempotencyService idempotencyService;
+    private final EffortSessionizer sessionizer;
+    private final RawEventArchiveService rawEventArchive;
+    private final FairAdmissionScheduler admissionScheduler;
+    private final PushEventFanOutService pushFanOut;
+    private final WriteBehindBatcher writeBehind;
+    private final DeadLetterService deadLetters;
+    private final EffortCompletionRegistry completions;
+    private final PipelineMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
 
     /**
      * Process incoming effort event from various sources
@@ -41,7 +57,9 @@ public class EffortIntakeService {
         effort.setEmployeeId(employeeId);
         effort.setSource(source);
         effort.setPayload(payload);
+        effort.setStatus(EffortStatus.RECEIVED);
         effort.setTimestamp(new Date());
+        effort.setCreatedAt(effort.getTimestamp());
         
         // Save raw effort
         effort = effortRepository.save(effort);
@@ -53,333 +71,189 @@ public class EffortIntakeService {
     }
 
     /**
-     * Process webhook payload and create Effort (NEW)
-     */
-    public Effort processWebhook(Map<String, Object> payload, String source) {
-        log.info("Processing webhook from source: {}", source);
-
-        try {
-            Effort effort = normalizePayload(payload, source);
-            
-            if (effort == null) {
-                log.warn("Failed to normalize payload from source: {}", source);
-                return null;
-            }
-
-            // Save effort to database
-            Effort savedEffort = effortRepository.save(effort);
-            log.info("Saved effort: {} from source: {}", savedEffort.getId(), source);
-
-            // Async processing (classify, score, recognize, award badges)
-            processEffortAsync(savedEffort);
-
-            return savedEffort;
-        } catch (Exception e) {
-            log.error("Error processing webhook from source: {}", source, e);
-            throw new RuntimeException("Webhook processing failed", e);
-        }
-    }
-
-    /**
-     * Normalize webhook payload to standard Effort format
+     * Process a raw webhook body, reading only the fields the source needs
+     * The effort keeps the extracted fields; the full body is archived compressed.
+     * Redeliveries of an already processed delivery id are skipped and return null.
+     *
+     * @param deliveryId Sender's delivery id header, if any; Slack carries it as event_id in the body
      */
-    private Effort normalizePayload(Map<String, Object> payload, String source) {
-        switch (source.toLowerCase()) {
-            case "jira":
-                return normalizeJiraPayload(payload);
-            case "github":
-                return normalizeGithubPayload(payload);
-            case "bitbucket":
-                return normalizeBitbucketPayload(payload);
-            case "slack":
-                return normalizeSlackPayload(payload);
-            case "test":
-                return normalizeTestPayload(payload);
-            default:
-                log.warn("Unknown webhook source: {}", source);
-                return null;
-        }
-    }
+    public Effort processWebhook(byte[] body, String source, String deliveryId) throws IOException {
+        Map<String, Object> payload = extractPayload(body, source);
 
-    /**
-     * Normalize Jira webhook payload
-     */
-    private Effort normalizeJiraPayload(Map<String, Object> payload) {
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> issue = (Map<String, Object>) payload.get("issue");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> user = (Map<String, Object>) issue.get("assignee");
-            
-            if (issue == null || user == null) return null;
-
-            String effortType = detectJiraEffortType(payload);
-            String assigneeEmail = (String) user.getOrDefault("emailAddress", "");
-
-            Effort effort = new Effort();
-            effort.setSource("jira");
-            effort.setEmployeeId(findEmployeeIdByEmail(assigneeEmail));
-            effort.setEffortType(effortType);
-            effort.setPayload(payload);
-            effort.setTimestamp(new Date());
-
-            return effort;
-        } catch (Exception e) {
-            log.error("Error normalizing Jira payload", e);
+        String key = deliveryId != null ? deliveryId : (String) payload.get("event_id");
+        if (key != null && idempotencyService.isDuplicate(source, key)) {
+            log.info("Skipping duplicate delivery {} from source: {}", key, source);
             return null;
         }
-    }
 
-    /**
-     * Detect Jira effort type from webhook payload
-     */
-    private String detectJiraEffortType(Map<String, Object> payload) {
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> issue = (Map<String, Object>) payload.get("issue");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> issueType = (Map<String, Object>) issue.get("issuetype");
-            String type = (String) issueType.get("name");
-            
-            if (type.contains("Bug")) return "bug-fix";
-            if (type.contains("Feature")) return "feature-work";
-            if (type.contains("Epic")) return "feature-work";
-            if (type.contains("Task")) return "collaboration";
-            
-            return "collaboration";
-        } catch (Exception e) {
-            return "collaboration";
-        }
-    }
-
-    /**
-     * Normalize GitHub webhook payload
-     */
-    private Effort normalizeGithubPayload(Map<String, Object> payload) {
-        try {
-            String action = (String) payload.get("action");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pullRequest = (Map<String, Object>) payload.get("pull_request");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> user = (Map<String, Object>) pullRequest.get("user");
-            
-            String effortType = detectGithubEffortType(action, payload);
-            String username = (String) user.get("login");
-
-            Effort effort = new Effort();
-            effort.setSource("github");
-            effort.setEmployeeId(findEmployeeIdByGithubUsername(username));
-            effort.setEffortType(effortType);
-            effort.setPayload(payload);
-            effort.setTimestamp(new Date());
-
-            return effort;
-        } catch (Exception e) {
-            log.error("Error normalizing GitHub payload", e);
-            return null;
+        Effort effort = createEffort(payload, source, body);
+        if (key != null && effort != null) {
+            idempotencyService.recordDelivery(source, key);
         }
+        return effort;
     }
 
     /**
-     * Detect GitHub effort type from webhook
+     * Stream the fields declared for the source out of a raw webhook body
      */
-    private String detectGithubEffortType(String action, Map<String, Object> payload) {
-        if ("opened".equals(action) || "reopened".equals(action)) {
-            return "feature-work";
-        } else if ("closed".equals(action)) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-            Boolean merged = (Boolean) pr.get("merged");
-            return merged ? "feature-work" : "collaboration";
-        } else if ("synchronize".equals(action)) {
-            return "collaboration";
+    public Map<String, Object> extractPayload(byte[] body, String source) throws IOException {
+        PayloadFieldExtractor extractor = normalizerRegistry.extractorFor(source);
+        if (extractor == null) {
+            return objectMapper.readValue(body, PAYLOAD_TYPE);
         }
-        return "collaboration";
+        return extractor.extract(body);
     }
 
     /**
-     * Normalize Bitbucket webhook payload
+     * Process webhook payload and create Effort (NEW)
      */
-    private Effort normalizeBitbucketPayload(Map<String, Object> payload) {
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pullRequest = (Map<String, Object>) payload.get("pullrequest");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> author = (Map<String, Object>) pullRequest.get("author");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> userMap = (Map<String, Object>) author.get("user");
-            
-            String username = (String) userMap.get("username");
-
-            Effort effort = new Effort();
-            effort.setSource("bitbucket");
-            effort.setEmployeeId(findEmployeeIdByGithubUsername(username));
-            effort.setEffortType("feature-work");
-            effort.setPayload(payload);
-            effort.setTimestamp(new Date());
-
-            return effort;
-        } catch (Exception e) {
-            log.error("Error normalizing Bitbucket payload", e);
-            return null;
-        }
+    public Effort processWebhook(Map<String, Object> payload, String source) {
+        return createEffort(payload, source, null);
     }
 
     /**
-     * Normalize Slack webhook payload
+     * Normalize, persist and hand off an effort; the raw body (if any) goes to the archive
      */
-    private Effort normalizeSlackPayload(Map<String, Object> payload) {
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> event = (Map<String, Object>) payload.get("event");
-            String userId = (String) event.get("user");
-
-            Effort effort = new Effort();
-            effort.setSource("slack");
-            effort.setEmployeeId(findEmployeeIdBySlackId(userId));
-            effort.setEffortType("collaboration");
-            effort.setPayload(payload);
-            effort.setTimestamp(new Date());
-
-            return effort;
-        } catch (Exception e) {
-            log.error("Error normalizing Slack payload", e);
-            return null;
-        }
-    }
+    private Effort createEffort(Map<String, Object> payload, String source, byte[] rawBody) {
+        log.info("Processing webhook from source: {}", source);
 
-    /**
-     * Normalize test payload
-     */
-    private Effort normalizeTestPayload(Map<String, Object> payload) {
         try {
-            String employeeId = (String) payload.get("employeeId");
-            String effortType = (String) payload.get("effortType");
-
-            Effort effort = new Effort();
-            effort.setSource("test");
-            effort.setEmployeeId(employeeId != null ? employeeId : "user-001");
-            effort.setEffortType(effortType != null ? effortType : "collaboration");
-            effort.setPayload(payload);
-            effort.setTimestamp(new Date());
-
-            return effort;
-        } catch (Exception e) {
-            log.error("Error normalizing test payload", e);
-            return null;
-        }
-    }
+            if (isPush(payload, source)) {
+                List<Effort> efforts = ingestPush(payload, rawBody);
+                return efforts.isEmpty() ? null : efforts.get(0);
+            }
 
-    /**
-     * Verify webhook signature for security
-     */
-    public boolean verifyWebhookSignature(Map<String, Object> payload, String signature, String source) {
-        try {
-            String secret = getWebhookSecret(source);
-            if (secret == null || secret.isEmpty()) {
-                log.warn("No webhook secret configured for source: {}", source);
-                return true;
+            Effort effort = metrics.time("normalize", () -> normalizePayload(payload, source));
+            
+            if (effort == null) {
+                log.warn("Failed to normalize payload from source: {}", source);
+                return null;
+            }
+            metrics.received(source);
+
+            // Coalesce bursts (PR updates, thread replies); the sessionizer saves and processes on close
+            String sessionKey = normalizerRegistry.normalizerFor(source).sessionKey(payload);
+            if (sessionKey != null && effort.getEmployeeId() != null) {
+                Effort sessionEffort = sessionizer.offer(effort, sessionKey);
+                // Only the event that opened the session is archived
+                if (sessionEffort == effort && rawBody != null) {
+                    rawEventArchive.archive(sessionEffort.getId(), source, rawBody);
+                }
+                return sessionEffort;
             }
 
-            String expectedSignature = generateHmacSignature(payload.toString(), secret);
-            boolean isValid = expectedSignature.equals(signature);
+            // Save effort to database; concurrent webhooks share one bulk write
+            Effort savedEffort = writeBehind.save(effort).join();
+            log.info("Saved effort: {} from source: {}", savedEffort.getId(), source);
 
-            if (!isValid) {
-                log.warn("Invalid webhook signature for source: {}", source);
+            if (rawBody != null) {
+                rawEventArchive.archive(savedEffort.getId(), source, rawBody);
             }
 
-            return isValid;
+            // Async processing (classify, score, recognize, award badges)
+            processEffortAsync(savedEffort);
+
+            return savedEffort;
         } catch (Exception e) {
-            log.error("Error verifying webhook signature", e);
-            return false;
+            log.error("Error processing webhook from source: {}", source, e);
+            throw new RuntimeException("Webhook processing failed", e);
         }
     }
 
     /**
-     * Generate HMAC signature for verification
+     * Whether a payload is a GitHub push, which fans out into per-commit efforts instead of normalizing
      */
-    private String generateHmacSignature(String payload, String secret) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-        byte[] hmacBytes = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-        return Base64.getEncoder().encodeToString(hmacBytes);
+    public static boolean isPush(Map<String, Object> payload, String source) {
+        return "github".equalsIgnoreCase(source) && PushEventFanOutService.isPush(payload);
     }
 
     /**
-     * Get webhook secret for source
+     * Fan a push out into per-commit efforts and queue each new one for processing
+     * Returns the new efforts in push order, empty when every commit had been seen before;
+     * the raw push body (if any) is archived under the first.
      */
-    private String getWebhookSecret(String source) {
-        switch (source.toLowerCase()) {
-            case "jira":
-                return JIRA_WEBHOOK_SECRET;
-            case "github":
-                return GITHUB_WEBHOOK_SECRET;
-            case "slack":
-                return SLACK_WEBHOOK_SECRET;
-            default:
-                return null;
+    public List<Effort> ingestPush(Map<String, Object> payload, byte[] rawBody) {
+        List<Effort> efforts = pushFanOut.fanOut(payload);
+        if (efforts.isEmpty()) {
+            log.info("No new commits in push to {}", payload.get("ref"));
+            return efforts;
+        }
+        if (rawBody != null) {
+            rawEventArchive.archive(efforts.get(0).getId(), "github", rawBody);
         }
+        efforts.forEach(effort -> metrics.received(effort.getSource()));
+        efforts.forEach(this::processEffortAsync);
+        return efforts;
     }
 
     /**
-     * Async processing of effort
+     * Normalize webhook payload to standard Effort format
+     * Returns null when the payload cannot be mapped to an effort
      */
-    @Async
-    public void processEffortAsync(Effort effort) {
+    public Effort normalizePayload(Map<String, Object> payload, String source) {
+        SourceNormalizer normalizer = normalizerRegistry.normalizerFor(source);
+        if (normalizer == null) {
+            log.warn("Unknown webhook source: {}", source);
+            return null;
+        }
         try {
-            log.info("Starting async processing for effort: {}", effort.getId());
-            if (effortProcessingService != null) {
-                effortProcessingService.processNewEffort(effort);
-            } else {
-                analyzeAndRecognizeEffort(effort);
+            Effort effort = normalizer.normalize(payload);
+            if (effort != null) {
+                effort.setStatus(EffortStatus.RECEIVED);
             }
+            return effort;
         } catch (Exception e) {
-            log.error("Error in async effort processing", e);
+            log.error("Error normalizing {} payload", source, e);
+            return null;
         }
     }
 
     /**
-     * Find employee ID by email
+     * Hand a saved effort to the processing pipeline
+     * Returns immediately; the admission scheduler runs processNewEffort on the pipeline
+     * executor once the effort's source and employee are within their rate limits, so
+     * callers (request threads, the ingest log consumer) are not held for classification,
+     * scoring and recognition.
      */
-    private String findEmployeeIdByEmail(String email) {
-        return employeeRepository.findByEmail(email)
-            .map(emp -> emp.getId())
-            .orElse(null);
-    }
-
-    /**
-     * Find employee ID by GitHub username
-     */
-    private String findEmployeeIdByGithubUsername(String username) {
-        return "user-" + username.hashCode();
+    public void processEffortAsync(Effort effort) {
+        log.info("Queueing effort {} for processing", effort.getId());
+        metrics.begin(effort);
+        admissionScheduler.submit(effort.getSource(), effort.getEmployeeId(),
+            () -> effortProcessingService.processNewEffort(effort));
     }
 
     /**
-     * Find employee ID by Slack ID
+     * Whether the admission queue is full; pollers should leave new work where it is until it drains
      */
-    private String findEmployeeIdBySlackId(String slackId) {
-        return "user-" + slackId.hashCode();
+    public boolean isAdmissionSaturated() {
+        return admissionScheduler.isSaturated();
     }
 
     /**
-     * Analyze effort and generate recognition
+     * Analyze effort and generate recognition, then wake anyone awaiting the effort
      */
     private void analyzeAndRecognizeEffort(Effort effort) {
         try {
             // Use AI to classify and score effort
             Effort analyzedEffort = aiAnalyzerService.analyzeEffort(effort);
+            analyzedEffort.setStatus(EffortStatus.SCORED);
             
-            // Update effort with classification
-            effortRepository.save(analyzedEffort);
+            // Update effort with classification; only the analyzed fields, not the payload
+            writeBehind.update(Effort.class, analyzedEffort.getId(),
+                EffortProcessingService.analysisUpdate(analyzedEffort)).join();
             
             // Generate recognition if impact is significant
             if (analyzedEffort.getImpactScore() != null && analyzedEffort.getImpactScore() >= 6) {
                 Recognition recognition = recognitionService.generateRecognition(analyzedEffort);
                 log.info("Generated recognition: {} for effort: {}", recognition.getId(), effort.getId());
+                analyzedEffort.setStatus(EffortStatus.RECOGNIZED);
+                writeBehind.update(Effort.class, analyzedEffort.getId(),
+                    new Update().set("status", EffortStatus.RECOGNIZED)).join();
             }
-            
+            completions.complete(analyzedEffort);
         } catch (Exception e) {
-            log.error("Error analyzing effort: {}", effort.getId(), e);
+            deadLetters.record(effort, EffortProcessingService.ANALYZE, e);
+            effortProcessingService.markFailed(effort);
         }
     }
 }
@@ -1,15 +1,39 @@
 package com.kudosly.service;
 
+import com.kudosly.dto.BatchProcessingResultDTO;
 import com.kudosly.model.Effort;
+import com.kudosly.model.EffortFeatures;
+import com.kudosly.model.EffortStatus;
 import com.kudosly.model.Recognition;
+import com.kudosly.pipeline.EffortCompletionRegistry;
+import com.kudosly.pipeline.EffortPriority;
+import com.kudosly.pipeline.EffortWindowAggregator;
+import com.kudosly.pipeline.PipelineMetrics;
+import com.kudosly.pipeline.PipelineStage;
+import com.kudosly.pipeline.StripedExecutor;
+import com.kudosly.pipeline.WriteBehindBatcher;
 import com.kudosly.repository.EffortRepository;
 import com.kudosly.repository.RecognitionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Unified effort processing service that coordinates classification, scoring, and recognition
@@ -20,62 +44,447 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EffortProcessingService {
 
+    // Stage names, as recorded on dead letters
+    public static final String CLASSIFY = "classify";
+    public static final String PERSIST = "persist";
+    public static final String RECOGNIZE = "recognize";
+    public static final String AWARD = "award";
+    public static final String ANALYZE = "analyze"; // AI analysis in EffortIntakeService.processEffortEvent
+
     private final EffortRepository effortRepository;
     private final RecognitionRepository recognitionRepository;
     private final EffortClassifierService classifierService;
     private final ImpactScoringService scoringService;
     private final RecognitionGeneratorService generationService;
-    private final BadgeService badgeService;
+    private final OutboxRelayService outbox;
+    private final EffortWindowAggregator windowAggregator;
+    private final WriteBehindBatcher writeBehind;
+    private final DeadLetterService deadLetters;
+    private final EffortCompletionRegistry completions;
+    private final PipelineMetrics metrics;
+    private final MeterRegistry meterRegistry;
+    private final StripedExecutor employeeLanes;
+
+    @Value("${app.stages.offer-timeout-ms:100}")
+    private long offerTimeoutMillis;
+
+    @Value("${app.pipeline.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Value("${app.stages.aging-ms:2000}")
+    private long agingMillis;
+
+    @Value("${app.stages.classify.workers:4}")
+    private int classifyWorkers;
+
+    @Value("${app.stages.classify.capacity:1000}")
+    private int classifyCapacity;
+
+    @Value("${app.stages.persist.workers:8}")
+    private int persistWorkers;
+
+    @Value("${app.stages.persist.capacity:1000}")
+    private int persistCapacity;
+
+    @Value("${app.stages.recognize.workers:8}")
+    private int recognizeWorkers;
+
+    @Value("${app.stages.recognize.capacity:500}")
+    private int recognizeCapacity;
+
+    @Value("${app.batch.parallelism:0}")
+    private int batchParallelism;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    private ForkJoinPool batchPool;
+
+    private PipelineStage<Effort> classifyStage;
+    private PipelineStage<Effort> persistStage;
+    private PipelineStage<Effort> recognizeStage;
+
+    /**
+     * Wire the stages: classify+score (CPU) -> persist -> recognize -> award badges
+     * Every stage queues efforts in priority lanes (EffortPriority) so bug fixes and feature
+     * work overtake chat bursts; aging keeps the low lane moving. Per-employee side effects
+     * (aggregates, badges) run on employee lanes: one serial stripe per employeeId hash, so
+     * one employee's efforts never update them concurrently.
+     */
+    @PostConstruct
+    public void startStages() {
+        Duration offerTimeout = Duration.ofMillis(offerTimeoutMillis);
+        Duration shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+        Duration aging = Duration.ofMillis(agingMillis);
+        recognizeStage = new PipelineStage<>("recognize", recognizeWorkers, recognizeCapacity,
+            offerTimeout, shutdownTimeout, this::recognize, meterRegistry,
+            EffortPriority.LANES, EffortPriority::of, aging).start();
+        persistStage = new PipelineStage<>("persist", persistWorkers, persistCapacity,
+            offerTimeout, shutdownTimeout, this::persist, meterRegistry,
+            EffortPriority.LANES, EffortPriority::of, aging).start();
+        classifyStage = new PipelineStage<>("classify", classifyWorkers, classifyCapacity,
+            offerTimeout, shutdownTimeout, this::classifyAndScore, meterRegistry,
+            EffortPriority.LANES, EffortPriority::of, aging).start();
+        batchPool = new ForkJoinPool(batchParallelism > 0
+            ? batchParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Stop upstream stages first so each downstream stage drains what it was handed
+     */
+    @PreDestroy
+    public void stopStages() {
+        batchPool.close();
+        classifyStage.close();
+        persistStage.close();
+        recognizeStage.close();
+    }
 
     /**
      * Process new effort through complete pipeline
      * - Classify effort type
      * - Score impact
+     * - Save and aggregate
      * - Generate recognition
      * - Award badges
+     * Each step is a stage with its own bounded queue and workers; this only enters the
+     * effort into the first stage. EffortIntakeService.processEffortAsync admits it here.
      */
-    @Async
     public void processNewEffort(Effort effort) {
-        try {
-            log.info("Starting effort processing pipeline for effort: {}", effort.getId());
+        log.info("Starting effort processing pipeline for effort: {}", effort.getId());
+        if (effort.getStatus() == null) {
+            effort.setStatus(EffortStatus.RECEIVED);
+        }
+        EffortPriority.of(effort);
+        metrics.begin(effort);
+        classifyStage.submit(effort);
+    }
 
-            // Step 1: Classify effort
-            String effortType = classifierService.classifyEffort(effort);
+    /**
+     * Stage 1 (CPU only): extract payload features once, classify and score, then hand to persist
+     */
+    private void classifyAndScore(Effort effort) {
+        try {
+            metrics.time("extract", () -> EffortFeatures.of(effort));
+            String effortType = metrics.time(CLASSIFY, () -> classifierService.classifyEffort(effort));
             effort.setEffortType(effortType);
             log.debug("Classified effort {} as: {}", effort.getId(), effortType);
 
-            // Step 2: Score impact
-            Integer impactScore = scoringService.scoreImpact(effort);
+            Integer impactScore = metrics.time("score", () -> scoringService.scoreImpact(effort));
             effort.setImpactScore(impactScore);
+            effort.setStatus(EffortStatus.SCORED);
             log.debug("Scored effort {} with impact: {}", effort.getId(), impactScore);
+            metrics.processed(effort);
 
-            // Step 3: Save updated effort
-            effort = effortRepository.save(effort);
+            persistStage.submit(effort);
+        } catch (Exception e) {
+            fail(effort, CLASSIFY, e);
+        }
+    }
+
+    /**
+     * Stage 2: queue the analysis and the outbox of pending side effects as a batched
+     * partial update of the saved effort; once written, add it to its event-time day/week
+     * aggregates on the employee's lane and hand it on
+     * The hand-off waits for the lane task rather than running inside it: a full
+     * recognize stage runs the effort on the submitting thread, and recognize queues on
+     * the employee's lane, which a lane worker must never wait on.
+     */
+    private void persist(Effort effort) {
+        OutboxRelayService.stage(effort);
+        writeBehind.update(Effort.class, effort.getId(), analysisUpdate(effort)).whenComplete((written, error) -> {
+            if (error != null) {
+                fail(effort, PERSIST, error);
+                return;
+            }
+            try {
+                onEmployeeLane(effort, PERSIST, () -> windowAggregator.record(effort)).join();
+            } catch (CompletionException e) {
+                return; // already failed
+            }
+            if (OutboxRelayService.isPending(effort, OutboxRelayService.RECOGNITION)) {
+                recognizeStage.submit(effort);
+            } else {
+                complete(effort);
+            }
+        });
+    }
 
-            // Step 4: Generate recognition if impact is significant
-            if (impactScore >= 5) {
-                Recognition recognition = generationService.generateRecognition(effort);
+    /**
+     * Stage 3: generate a recognition for a significant effort (once per effort)
+     */
+    private void recognize(Effort effort) {
+        try {
+            Recognition recognition = metrics.time(RECOGNIZE, () -> outbox.applyRecognition(effort));
+            if (recognition != null) {
                 log.info("Generated recognition {} for effort {}", recognition.getId(), effort.getId());
+                metrics.lag(effort, PipelineMetrics.RECOGNIZED);
+            }
+            if (OutboxRelayService.isPending(effort, OutboxRelayService.BADGE)) {
+                onEmployeeLane(effort, AWARD, () -> awardBadges(effort));
+            } else {
+                complete(effort);
+            }
+        } catch (Exception e) {
+            fail(effort, RECOGNIZE, e);
+        }
+    }
+
+    /**
+     * Stage 4 (employee lane): award badges for a high-impact effort
+     */
+    private void awardBadges(Effort effort) {
+        try {
+            metrics.time(AWARD, () -> outbox.applyBadge(effort));
+            log.info("Awarded badge for effort: {}", effort.getId());
+            complete(effort);
+        } catch (Exception e) {
+            fail(effort, AWARD, e);
+        }
+    }
 
-                // Step 5: Award badges if impact is high
-                if (impactScore >= 7) {
-                    badgeService.awardBadgeForEffort(effort, effortType, impactScore);
-                    log.info("Awarded badge for effort: {}", effort.getId());
+    /**
+     * Queue work behind the employee's earlier side effects
+     * The effort fails at the stage if the lanes reject the work or the work throws; the
+     * returned future completes once the work has run, exceptionally if it failed.
+     */
+    private CompletableFuture<Void> onEmployeeLane(Effort effort, String stage, Runnable work) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            employeeLanes.execute(effort.getEmployeeId(), () -> {
+                try {
+                    work.run();
+                    done.complete(null);
+                } catch (Exception e) {
+                    fail(effort, stage, e);
+                    done.completeExceptionally(e);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(effort, stage, e);
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    private void complete(Effort effort) {
+        log.info("Completed effort processing pipeline for effort: {}", effort.getId());
+        metrics.finish(effort, true);
+        completions.complete(effort);
+    }
+
+    private void fail(Effort effort, String stage, Throwable error) {
+        deadLetters.record(effort, stage, error);
+        metrics.finish(effort, false);
+        markFailed(effort);
+    }
+
+    /**
+     * Store the effort as failed and wake anyone awaiting it
+     * Not joined: this runs on write completion callbacks, which must not wait on the batcher.
+     */
+    public void markFailed(Effort effort) {
+        effort.setStatus(EffortStatus.FAILED);
+        effort.setUpdatedAt(new Date());
+        if (effort.getId() != null) {
+            writeBehind.update(Effort.class, effort.getId(),
+                    new Update().set("status", EffortStatus.FAILED).set("updatedAt", effort.getUpdatedAt()))
+                .whenComplete((written, error) -> {
+                    if (error != null) {
+                        log.warn("Could not store failed status of effort {}", effort.getId(), error);
+                    }
+                });
+        }
+        completions.complete(effort);
+    }
+
+    /**
+     * Re-run a dead-lettered effort synchronously from the stage that failed
+     * Classify, persist and analyze failures never reached the aggregates, so the effort
+     * is reprocessed in full; later failures only replay the effort's outbox. Aggregates
+     * and badges wait their turn on the employee's lane. Throws if the effort fails again.
+     */
+    public void reprocess(Effort effort, String stage) {
+        if (RECOGNIZE.equals(stage) || AWARD.equals(stage)) {
+            outbox.apply(effort);
+            String status = OutboxRelayService.earnsRecognition(effort) ? EffortStatus.RECOGNIZED : EffortStatus.SCORED;
+            if (!status.equals(effort.getStatus())) {
+                effort.setStatus(status);
+                writeBehind.update(Effort.class, effort.getId(), new Update().set("status", status)).join();
             }
+            completions.complete(effort);
+            return;
+        }
+        effort.setEffortType(classifierService.classifyEffort(effort));
+        effort.setImpactScore(scoringService.scoreImpact(effort));
+        effort.setStatus(EffortStatus.SCORED);
+        OutboxRelayService.stage(effort);
+        writeBehind.update(Effort.class, effort.getId(), analysisUpdate(effort)).join();
+        employeeLanes.executeAndWait(effort.getEmployeeId(), () -> windowAggregator.record(effort));
+        outbox.apply(effort);
+        completions.complete(effort);
+    }
+
+    /**
+     * $set only what analysis changes on a saved effort, leaving the payload untouched
+     */
+    public static Update analysisUpdate(Effort effort) {
+        effort.setUpdatedAt(new Date());
+        Update update = new Update()
+            .set("effortType", effort.getEffortType())
+            .set("impactScore", effort.getImpactScore())
+            .set("updatedAt", effort.getUpdatedAt());
+        if (effort.getStatus() != null) {
+            update.set("status", effort.getStatus());
+        }
+        if (effort.getPriority() != null) {
+            update.set("priority", effort.getPriority());
+        }
+        if (effort.getPendingEffects() != null) {
+            update.set("pendingEffects", effort.getPendingEffects()).set("pendingSince", effort.getPendingSince());
+        }
+        return update;
+    }
+
+    /**
+     * Batch process multiple efforts (backfills)
+     */
+    public BatchProcessingResultDTO processBatchEfforts(List<Effort> efforts) {
+        return processBatchEfforts(efforts, progress -> { });
+    }
+
+    /**
+     * Batch process efforts in chunks, reporting progress after each chunk
+     * Classification, scoring and message generation run on the batch fork-join pool,
+     * batchParallelism at a time; the next chunk is analyzed while the current one is
+     * saved in bulk. A failed effort is recorded in the result and the run continues.
+     * Aggregates and badges for the saved efforts go to the employee lanes.
+     */
+    public BatchProcessingResultDTO processBatchEfforts(List<Effort> efforts,
+                                                      Consumer<BatchProcessingResultDTO> onProgress) {
+        long start = System.nanoTime();
+        BatchProcessingResultDTO result = new BatchProcessingResultDTO();
+        result.setTotal(efforts.size());
+        log.info("Batch processing {} efforts (parallelism {}, chunk size {})",
+            efforts.size(), batchPool.getParallelism(), batchChunkSize);
+
+        List<ForkJoinTask<Analyzed>> analyzing = analyzeChunk(efforts, 0);
+        for (int from = 0; from < efforts.size(); from += batchChunkSize) {
+            List<Analyzed> chunk = analyzing.stream().map(ForkJoinTask::join).toList();
+            analyzing = analyzeChunk(efforts, from + batchChunkSize);
+            persistChunk(chunk, result);
 
-            log.info("Completed effort processing pipeline for effort: {}", effort.getId());
+            result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Batch progress: {}/{} processed, {} failed",
+                result.getProcessed() + result.getFailed(), result.getTotal(), result.getFailed());
+            onProgress.accept(result);
+        }
+        return result;
+    }
 
+    private List<ForkJoinTask<Analyzed>> analyzeChunk(List<Effort> efforts, int from) {
+        return efforts.subList(Math.min(from, efforts.size()), Math.min(from + batchChunkSize, efforts.size()))
+            .stream()
+            .map(effort -> batchPool.submit(() -> analyze(effort)))
+            .toList();
+    }
+
+    /**
+     * CPU-only work for one effort; a failure is captured rather than thrown
+     */
+    private Analyzed analyze(Effort effort) {
+        try {
+            metrics.time("extract", () -> EffortFeatures.of(effort));
+            effort.setEffortType(metrics.time(CLASSIFY, () -> classifierService.classifyEffort(effort)));
+            effort.setImpactScore(metrics.time("score", () -> scoringService.scoreImpact(effort)));
+            effort.setStatus(EffortStatus.SCORED);
+            metrics.processed(effort);
+            OutboxRelayService.stage(effort);
+            Recognition recognition = OutboxRelayService.isPending(effort, OutboxRelayService.RECOGNITION)
+                ? metrics.time("generate", () -> generationService.buildRecognition(effort)) : null;
+            return new Analyzed(effort, recognition, null);
         } catch (Exception e) {
-            log.error("Error processing effort: {}", effort.getId(), e);
+            return new Analyzed(effort, null, e);
         }
     }
 
     /**
-     * Batch process multiple efforts
+     * Save a chunk's efforts with their outboxes, then insert the recognitions of those
+     * saved through the batcher and clear that effect; aggregates and badges go to the
+     * employee lanes
      */
-    public void processBatchEfforts(List<Effort> efforts) {
-        efforts.forEach(this::processNewEffort);
+    private void persistChunk(List<Analyzed> chunk, BatchProcessingResultDTO result) {
+        List<CompletableFuture<Effort>> effortSaves = new ArrayList<>();
+        for (Analyzed analyzed : chunk) {
+            effortSaves.add(analyzed.error() == null ? writeBehind.save(analyzed.effort())
+                : CompletableFuture.failedFuture(analyzed.error()));
+        }
+
+        List<Analyzed> saved = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Analyzed analyzed = chunk.get(i);
+            try {
+                effortSaves.get(i).join();
+                saved.add(analyzed);
+            } catch (CompletionException e) {
+                fail(result, analyzed, analyzed.error() != null ? CLASSIFY : PERSIST, e.getCause());
+            }
+        }
+
+        List<CompletableFuture<Recognition>> recognitionSaves = saved.stream()
+            .map(analyzed -> analyzed.recognition() != null ? writeBehind.insert(analyzed.recognition())
+                : CompletableFuture.<Recognition>completedFuture(null))
+            .toList();
+        List<Effort> recognized = new ArrayList<>();
+        List<Effort> processed = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Analyzed analyzed = saved.get(i);
+            try {
+                // null for an existing recognition: a duplicate insert is already applied
+                if (recognitionSaves.get(i).join() != null) {
+                    result.setRecognitions(result.getRecognitions() + 1);
+                    metrics.lag(analyzed.effort(), PipelineMetrics.RECOGNIZED);
+                }
+            } catch (CompletionException e) {
+                // The effort is saved with its outbox; the relay retries the recognition
+                fail(result, analyzed, PERSIST, e.getCause());
+                continue;
+            }
+            if (analyzed.recognition() != null) {
+                recognized.add(analyzed.effort());
+            }
+            processed.add(analyzed.effort());
+        }
+        try {
+            outbox.markApplied(recognized, OutboxRelayService.RECOGNITION);
+        } catch (Exception e) {
+            // Harmless: the relay replays these and finds the recognitions already stored
+            log.warn("Could not clear recognition outbox for {} efforts", recognized.size(), e);
+        }
+
+        for (Effort effort : processed) {
+            result.setProcessed(result.getProcessed() + 1);
+            // Failing here leaves the aggregates unrecorded, so the retry reprocesses in full
+            onEmployeeLane(effort, PERSIST, () -> {
+                windowAggregator.record(effort);
+                if (OutboxRelayService.isPending(effort, OutboxRelayService.BADGE)) {
+                    awardBadges(effort);
+                } else {
+                    completions.complete(effort);
+                }
+            });
+        }
+    }
+
+    private void fail(BatchProcessingResultDTO result, Analyzed analyzed, String stage, Throwable error) {
+        result.setFailed(result.getFailed() + 1);
+        result.getFailures().add(new BatchProcessingResultDTO.ItemFailure(
+            analyzed.effort().getId(), stage, error.getMessage()));
+        deadLetters.record(analyzed.effort(), stage, error);
+        markFailed(analyzed.effort());
+    }
+
+    private record Analyzed(Effort effort, Recognition recognition, Exception error) {
     }
 
     /**
@@ -0,0 +1,201 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Employee;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index from external identities (email, GitHub username, Slack id) to employee id
+ *
+ * Loaded from the employees collection at startup with only the identity fields
+ * projected, kept current from Mongo save/delete events, and fully reloaded on a
+ * schedule to pick up writes made outside this application. Lookups are plain
+ * hash map reads; each employee id string is held once and shared by all maps.
+ */
+@Slf4j
+@Service
+public class EmployeeIdentityIndex extends AbstractMongoEventListener<Employee> {
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot(16);
+    private Snapshot building;
+
+    public EmployeeIdentityIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Employee id for an email address, or null if unknown
+     */
+    public String findByEmail(String email) {
+        return email == null ? null : snapshot.byEmail.get(email.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Employee id for a GitHub (or Bitbucket) username, or null if unknown
+     */
+    public String findByGithubUsername(String username) {
+        return username == null ? null : snapshot.byGithub.get(username.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Employee id for a Slack user id, or null if unknown
+     */
+    public String findBySlackId(String slackId) {
+        return slackId == null ? null : snapshot.bySlack.get(slackId);
+    }
+
+    public int size() {
+        return snapshot.byId.size();
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not load employee identity index; unresolved identities until next reload", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the employees collection and swap it in
+     * Saves and deletes observed while the rebuild streams take precedence over loaded rows.
+     */
+    @Scheduled(
+        fixedDelayString = "${app.identity.reload-interval-ms:900000}",
+        initialDelayString = "${app.identity.reload-interval-ms:900000}")
+    public void reload() {
+        Query identityFields = new Query();
+        identityFields.fields().include("_id", "email", "githubUsername", "slackId");
+
+        Snapshot next = new Snapshot((int) Math.min(Integer.MAX_VALUE, mongoTemplate.count(new Query(), Employee.class)));
+        synchronized (this) {
+            building = next;
+        }
+        try (Stream<Employee> employees = mongoTemplate.stream(identityFields, Employee.class)) {
+            employees.forEach(e -> next.put(e.getId(), e.getEmail(), e.getGithubUsername(), e.getSlackId(), true));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = null;
+            }
+            throw e;
+        }
+        // Swap and stop mirroring together, so no event lands only in the replaced snapshot
+        synchronized (this) {
+            snapshot = next;
+            building = null;
+        }
+        log.info("Loaded {} employees into identity index", next.byId.size());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Employee> event) {
+        Employee e = event.getSource();
+        if (e.getId() == null) {
+            return;
+        }
+        synchronized (this) {
+            snapshot.put(e.getId(), e.getEmail(), e.getGithubUsername(), e.getSlackId(), false);
+            if (building != null) {
+                building.put(e.getId(), e.getEmail(), e.getGithubUsername(), e.getSlackId(), false);
+            }
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Employee> event) {
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (!(id instanceof String) && !(id instanceof ObjectId)) {
+            // Bulk or criteria deletes are picked up by the next scheduled reload
+            return;
+        }
+        synchronized (this) {
+            snapshot.remove(id.toString(), false);
+            if (building != null) {
+                building.remove(id.toString(), false);
+            }
+        }
+    }
+
+    private record Identity(String email, String githubUsername, String slackId) {
+    }
+
+    /**
+     * One generation of the index; readers never lock, writers lock the snapshot
+     */
+    private static final class Snapshot {
+
+        private final ConcurrentHashMap<String, Identity> byId;
+        private final ConcurrentHashMap<String, String> byEmail;
+        private final ConcurrentHashMap<String, String> byGithub;
+        private final ConcurrentHashMap<String, String> bySlack;
+
+        // Ids changed by events during a reload; rows streamed afterwards are stale for these
+        private final Set<String> touched = ConcurrentHashMap.newKeySet();
+
+        Snapshot(int expected) {
+            int capacity = Math.max(16, expected);
+            byId = new ConcurrentHashMap<>(capacity);
+            byEmail = new ConcurrentHashMap<>(capacity);
+            byGithub = new ConcurrentHashMap<>(capacity);
+            bySlack = new ConcurrentHashMap<>(capacity);
+        }
+
+        synchronized void put(String id, String email, String githubUsername, String slackId, boolean fromLoad) {
+            if (fromLoad && touched.contains(id)) {
+                return;
+            }
+            remove(id, fromLoad);
+            Identity identity = new Identity(
+                email != null ? email.toLowerCase(Locale.ROOT) : null,
+                githubUsername != null ? githubUsername.toLowerCase(Locale.ROOT) : null,
+                slackId);
+            byId.put(id, identity);
+            if (identity.email() != null) {
+                byEmail.put(identity.email(), id);
+            }
+            if (identity.githubUsername() != null) {
+                byGithub.put(identity.githubUsername(), id);
+            }
+            if (identity.slackId() != null) {
+                bySlack.put(identity.slackId(), id);
+            }
+        }
+
+        synchronized void remove(String id, boolean fromLoad) {
+            if (!fromLoad) {
+                touched.add(id);
+            }
+            Identity previous = byId.remove(id);
+            if (previous == null) {
+                return;
+            }
+            if (previous.email() != null) {
+                byEmail.remove(previous.email(), id);
+            }
+            if (previous.githubUsername() != null) {
+                byGithub.remove(previous.githubUsername(), id);
+            }
+            if (previous.slackId() != null) {
+                bySlack.remove(previous.slackId(), id);
+            }
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.kudosly.service;
 
 import com.kudosly.model.Effort;
+import com.kudosly.model.EffortFeatures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Service for scoring the impact of efforts on a 1-10 scale
@@ -35,10 +35,11 @@ public class ImpactScoringService {
             int baseScore = EFFORT_TYPE_BASE_SCORES.getOrDefault(effortType, 5);
 
             // Apply modifiers based on payload analysis
+            EffortFeatures features = EffortFeatures.of(effort);
             int modifiedScore = baseScore;
-            modifiedScore += analyzeComplexity(effort.getPayload());
-            modifiedScore += analyzeScope(effort.getPayload());
-            modifiedScore += analyzeQualitySignals(effort.getPayload());
+            modifiedScore += analyzeComplexity(features);
+            modifiedScore += analyzeScope(features);
+            modifiedScore += analyzeQualitySignals(features);
 
             // Ensure score is within 1-10 range
             int finalScore = Math.max(1, Math.min(10, modifiedScore));
@@ -54,11 +55,11 @@ public class ImpactScoringService {
     /**
      * Analyze complexity indicators from payload
      */
-    private int analyzeComplexity(Map<String, Object> payload) {
+    private int analyzeComplexity(EffortFeatures features) {
         int complexity = 0;
 
         // Check for high complexity indicators
-        String payloadStr = payload.toString().toLowerCase();
+        String payloadStr = features.payloadText();
         
         if (payloadStr.contains("refactor") || payloadStr.contains("architecture")) {
             complexity += 2;
@@ -73,19 +74,12 @@ public class ImpactScoringService {
             complexity += 2;
         }
 
-        // Check lines of code or file count for GitHub
-        if (payload.containsKey("pull_request")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-            Integer additions = (Integer) pr.get("additions");
-            Integer deletions = (Integer) pr.get("deletions");
-            
-            if (additions != null && additions > 500) {
-                complexity += 1;
-            }
-            if (deletions != null && deletions > 200) {
-                complexity += 1;
-            }
+        // Check lines of code for GitHub
+        if (features.additions() != null && features.additions() > 500) {
+            complexity += 1;
+        }
+        if (features.deletions() != null && features.deletions() > 200) {
+            complexity += 1;
         }
 
         return Math.min(complexity, 3); // Cap at +3
@@ -94,10 +88,10 @@ public class ImpactScoringService {
     /**
      * Analyze scope/breadth of impact
      */
-    private int analyzeScope(Map<String, Object> payload) {
+    private int analyzeScope(EffortFeatures features) {
         int scope = 0;
 
-        String payloadStr = payload.toString().toLowerCase();
+        String payloadStr = features.payloadText();
 
         // Check for scope indicators
         if (payloadStr.contains("api") || payloadStr.contains("endpoint")) {
@@ -114,14 +108,8 @@ public class ImpactScoringService {
         }
 
         // Check for multiple files changed in GitHub
-        if (payload.containsKey("pull_request")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-            Integer changedFiles = (Integer) pr.get("changed_files");
-            
-            if (changedFiles != null && changedFiles > 5) {
-                scope += 1;
-            }
+        if (features.changedFiles() != null && features.changedFiles() > 5) {
+            scope += 1;
         }
 
         return Math.min(scope, 2); // Cap at +2
@@ -130,10 +118,10 @@ public class ImpactScoringService {
     /**
      * Analyze quality signals
      */
-    private int analyzeQualitySignals(Map<String, Object> payload) {
+    private int analyzeQualitySignals(EffortFeatures features) {
         int quality = 0;
 
-        String payloadStr = payload.toString().toLowerCase();
+        String payloadStr = features.payloadText();
 
         // Positive signals
         if (payloadStr.contains("test") || payloadStr.contains("testing")) {
@@ -150,18 +138,11 @@ public class ImpactScoringService {
         }
 
         // GitHub PR review metrics
-        if (payload.containsKey("pull_request")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-            Integer reviewComments = (Integer) pr.get("review_comments");
-            Boolean merged = (Boolean) pr.get("merged");
-            
-            if (reviewComments != null && reviewComments > 3) {
-                quality += 1;
-            }
-            if (merged != null && merged) {
-                quality += 1;
-            }
+        if (features.reviewComments() != null && features.reviewComments() > 3) {
+            quality += 1;
+        }
+        if (features.merged()) {
+            quality += 1;
         }
 
         return Math.min(quality, 2); // Cap at +2
@@ -174,9 +155,10 @@ public class ImpactScoringService {
         try {
             String effortType = effort.getEffortType();
             int baseScore = EFFORT_TYPE_BASE_SCORES.getOrDefault(effortType, 5);
-            int complexity = analyzeComplexity(effort.getPayload());
-            int scope = analyzeScope(effort.getPayload());
-            int quality = analyzeQualitySignals(effort.getPayload());
+            EffortFeatures features = EffortFeatures.of(effort);
+            int complexity = analyzeComplexity(features);
+            int scope = analyzeScope(features);
+            int quality = analyzeQualitySignals(features);
             
             int totalScore = Math.max(1, Math.min(10, baseScore + complexity + scope + quality));
 
@@ -0,0 +1,104 @@
+package com.kudosly.service;
+
+import com.kudosly.config.SchedulingConfig;
+import com.kudosly.ingest.IngestLog;
+import com.kudosly.ingest.IngestRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Drains the ingest log into the normalize -> save -> process pipeline and commits offsets
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestLogConsumerService {
+
+    private final IngestLog ingestLog;
+    private final EffortIntakeService effortIntakeService;
+
+    @Value("${app.ingest.log.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.ingest.log.max-batches-per-poll:16}")
+    private int maxBatchesPerPoll;
+
+    /**
+     * Poll the log and process up to max-batches-per-poll batches appended since the last commit
+     * Runs on its own scheduler thread; the cap only bounds one tick, the next resumes after poll-interval-ms.
+     * While the admission queue is full, records stay uncommitted in the log until a later tick.
+     */
+    @Scheduled(fixedDelayString = "${app.ingest.log.poll-interval-ms:50}", scheduler = SchedulingConfig.INGEST_SCHEDULER)
+    public void drain() {
+        List<IngestRecord> records;
+        for (int batches = 0; batches < maxBatchesPerPoll && !(records = ingestLog.poll(batchSize)).isEmpty(); batches++) {
+            long lastProcessed = -1;
+            boolean retryLater = false;
+            for (IngestRecord record : records) {
+                if (effortIntakeService.isAdmissionSaturated()) {
+                    log.debug("Admission queue is full; pausing the ingest log at offset {}", record.offset());
+                    retryLater = true;
+                    break;
+                }
+                if (!process(record)) {
+                    retryLater = true;
+                    break;
+                }
+                lastProcessed = record.offset();
+            }
+            commit(lastProcessed);
+            if (retryLater) {
+                // Mongo is unavailable or admission is full: keep the record and retry it on the next tick
+                ingestLog.rewind();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Process one record; returns false only when the failure is transient and the record must be retried
+     */
+    private boolean process(IngestRecord record) {
+        try {
+            effortIntakeService.processWebhook(record.body(), record.source(), record.headers().get(IngestRecord.DELIVERY_ID));
+            return true;
+        } catch (IOException e) {
+            log.warn("Skipping unparseable ingest log record {} from source: {}", record.offset(), record.source(), e);
+            return true;
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("Transient failure processing ingest log record {}, will retry", record.offset(), e);
+                return false;
+            }
+            log.error("Dropping ingest log record {} from source: {}", record.offset(), record.source(), e);
+            return true;
+        }
+    }
+
+    private boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void commit(long offset) {
+        if (offset < 0) {
+            return;
+        }
+        try {
+            ingestLog.commit(offset);
+        } catch (IOException e) {
+            log.error("Failed to commit ingest log offset {}", offset, e);
+        }
+    }
+}
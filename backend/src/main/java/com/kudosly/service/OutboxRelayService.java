@@ -0,0 +1,214 @@
+package com.kudosly.service;
+
+import com.kudosly.config.SchedulingConfig;
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.model.EmployeeBadge;
+import com.kudosly.model.Recognition;
+import com.kudosly.pipeline.StripedExecutor;
+import com.kudosly.pipeline.WriteBehindBatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Applies the recognition and badge side effects recorded in an effort's outbox
+ *
+ * The persist stage saves a scored effort together with its pendingEffects in one
+ * document write, so a crash cannot keep the score and lose the side effects. Each
+ * effect is applied idempotently (one recognition per effortId, one employee badge per
+ * employee and badge, both enforced by unique indexes) and then pulled from the outbox.
+ * The pipeline applies effects as soon as the effort is saved; relayPending replays
+ * efforts whose outbox is still non-empty after relay-after-ms, e.g. after a restart.
+ * An effort the relay cannot apply is dead-lettered and taken out of the relay (its
+ * pendingSince unset), so the dead-letter backoff and attempt limit govern its retries
+ * and it cannot hold a place among the oldest outboxes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxRelayService {
+
+    public static final String RECOGNITION = "recognition";
+    public static final String BADGE = "badge";
+
+    private final MongoTemplate mongoTemplate;
+    private final RecognitionGeneratorService generationService;
+    private final BadgeService badgeService;
+    private final WriteBehindBatcher writeBehind;
+    private final StripedExecutor employeeLanes;
+    private final DeadLetterService deadLetters;
+
+    @Value("${app.outbox.relay-after-ms:60000}")
+    private long relayAfterMillis;
+
+    @Value("${app.outbox.relay-batch-size:500}")
+    private int relayBatchSize;
+
+    /**
+     * Create the unique indexes that make replayed effects no-ops, and the relay's index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(Recognition.class)
+                .ensureIndex(new Index().on("effortId", Sort.Direction.ASC).unique());
+            mongoTemplate.indexOps(EmployeeBadge.class).ensureIndex(new Index()
+                .on("employeeId", Sort.Direction.ASC).on("badgeId", Sort.Direction.ASC).unique());
+            mongoTemplate.indexOps(Effort.class)
+                .ensureIndex(new Index().on("pendingSince", Sort.Direction.ASC).sparse());
+        } catch (Exception e) {
+            log.warn("Could not create outbox indexes; replayed side effects may create duplicates", e);
+        }
+    }
+
+    /**
+     * Record the side effects an effort's impact calls for, to be written with its next save
+     * Recognition from impact 5, a badge check from impact 7.
+     */
+    public static void stage(Effort effort) {
+        int impact = effort.getImpactScore() != null ? effort.getImpactScore() : 0;
+        List<String> effects = new ArrayList<>();
+        if (earnsRecognition(effort)) {
+            effects.add(RECOGNITION);
+        }
+        if (impact >= 7) {
+            effects.add(BADGE);
+        }
+        effort.setPendingEffects(effects.isEmpty() ? null : effects);
+        effort.setPendingSince(effects.isEmpty() ? null : new Date());
+    }
+
+    public static boolean earnsRecognition(Effort effort) {
+        return effort.getImpactScore() != null && effort.getImpactScore() >= 5;
+    }
+
+    public static boolean isPending(Effort effort, String effect) {
+        return effort.getPendingEffects() != null && effort.getPendingEffects().contains(effect);
+    }
+
+    /**
+     * Apply every effect still in the effort's outbox, the badge check on the employee's lane
+     * For callers off the lanes (relay, DLQ retry); the pipeline calls applyBadge on the lane itself.
+     */
+    public void apply(Effort effort) {
+        if (isPending(effort, RECOGNITION)) {
+            applyRecognition(effort);
+        }
+        if (isPending(effort, BADGE)) {
+            employeeLanes.executeAndWait(effort.getEmployeeId(), () -> applyBadge(effort));
+        }
+    }
+
+    /**
+     * Insert the effort's recognition unless it already has one, then clear the effect
+     * Returns the new recognition, or null if one existed.
+     */
+    public Recognition applyRecognition(Effort effort) {
+        Recognition recognition = writeBehind.insert(generationService.buildRecognition(effort)).join();
+        if (recognition == null) {
+            log.info("Effort {} already has a recognition", effort.getId());
+        }
+        markApplied(List.of(effort), RECOGNITION);
+        return recognition;
+    }
+
+    /**
+     * Award the badge the effort earns, if any, then clear the effect
+     */
+    public void applyBadge(Effort effort) {
+        badgeService.awardBadgeForEffort(effort, effort.getEffortType(), effort.getImpactScore());
+        markApplied(List.of(effort), BADGE);
+    }
+
+    /**
+     * Pull an applied effect from the efforts' outboxes, unsetting outboxes left empty
+     * An applied recognition also moves the efforts to recognized. One batched partial
+     * update per effort, all flushed together; the in-memory copies (staged by this
+     * process, or just read by the relay) decide whether an outbox is now empty.
+     */
+    public void markApplied(Collection<Effort> efforts, String effect) {
+        List<CompletableFuture<Void>> updates = new ArrayList<>(efforts.size());
+        for (Effort effort : efforts) {
+            // Keep the in-memory copy in step so a later save does not re-add the effect
+            Update update = new Update();
+            if (effort.getPendingEffects() != null) {
+                effort.getPendingEffects().remove(effect);
+            }
+            if (effort.getPendingEffects() == null || effort.getPendingEffects().isEmpty()) {
+                effort.setPendingEffects(null);
+                effort.setPendingSince(null);
+                update.unset("pendingEffects").unset("pendingSince");
+            } else {
+                update.pull("pendingEffects", effect);
+            }
+            if (RECOGNITION.equals(effect)) {
+                effort.setStatus(EffortStatus.RECOGNIZED);
+                update.set("status", EffortStatus.RECOGNIZED);
+            }
+            updates.add(writeBehind.update(Effort.class, effort.getId(), update));
+        }
+        CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Replay one batch of outboxes the pipeline has not cleared within relay-after-ms, oldest first
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:30000}",
+        initialDelayString = "${app.outbox.relay-interval-ms:30000}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void relayPending() {
+        Date cutoff = new Date(System.currentTimeMillis() - relayAfterMillis);
+        Query query = new Query(Criteria.where("pendingSince").lt(cutoff))
+            .with(Sort.by(Sort.Direction.ASC, "pendingSince"))
+            .limit(relayBatchSize);
+        List<Effort> efforts = mongoTemplate.find(query, Effort.class);
+        if (efforts.isEmpty()) {
+            return;
+        }
+
+        int applied = 0;
+        for (Effort effort : efforts) {
+            try {
+                apply(effort);
+                applied++;
+            } catch (Exception e) {
+                log.warn("Outbox relay failed for effort {}; handing it to the dead-letter queue", effort.getId(), e);
+                deadLetter(effort, e);
+            }
+        }
+        log.info("Outbox relay applied {} of {} pending efforts", applied, efforts.size());
+    }
+
+    /**
+     * Record the failed effect's stage for retry with backoff and stop relaying the effort
+     * The outbox itself is kept: the dead-letter retry replays it.
+     */
+    private void deadLetter(Effort effort, Exception error) {
+        String stage = isPending(effort, RECOGNITION) ? EffortProcessingService.RECOGNIZE : EffortProcessingService.AWARD;
+        deadLetters.record(effort, stage, error);
+        effort.setPendingSince(null);
+        effort.setStatus(EffortStatus.FAILED);
+        try {
+            writeBehind.update(Effort.class, effort.getId(),
+                new Update().unset("pendingSince").set("status", EffortStatus.FAILED)).join();
+        } catch (Exception e) {
+            log.warn("Could not take effort {} out of the outbox relay; it will be relayed again", effort.getId(), e);
+        }
+    }
+}
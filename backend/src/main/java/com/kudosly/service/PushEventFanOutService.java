@@ -0,0 +1,172 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Splits GitHub push webhooks into one effort per commit
+ *
+ * A push can carry dozens of commits; each becomes its own effort keyed by commit SHA.
+ * SHAs already stored are filtered out with one query, the rest are classified as a
+ * batch and written with a single unordered bulk insert. The unique sparse index on
+ * commitSha catches SHAs that race in from a concurrent push, so force-pushes and
+ * rebases that resend old commits add no new efforts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PushEventFanOutService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final EmployeeIdentityIndex identityIndex;
+    private final EffortClassifierService classifierService;
+
+    /**
+     * Create the commit SHA index if it is missing
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            mongoTemplate.indexOps(Effort.class)
+                .ensureIndex(new Index().on("commitSha", Sort.Direction.ASC).unique().sparse());
+        } catch (Exception e) {
+            log.warn("Could not create commitSha index; duplicate commits are only filtered by lookup", e);
+        }
+    }
+
+    /**
+     * Whether a GitHub payload is a push (has commits and no pull request)
+     */
+    public static boolean isPush(Map<String, Object> payload) {
+        return payload.get("commits") instanceof List<?> && !payload.containsKey("pull_request");
+    }
+
+    /**
+     * Fan a push out into per-commit efforts and insert the ones not seen before
+     * Returns the inserted efforts in push order; empty if every commit was already stored.
+     */
+    public List<Effort> fanOut(Map<String, Object> payload) {
+        Map<String, Effort> bySha = new LinkedHashMap<>();
+        for (Object commit : (List<?>) payload.get("commits")) {
+            if (commit instanceof Map<?, ?> c) {
+                Effort effort = toEffort(c, payload);
+                if (effort != null) {
+                    bySha.putIfAbsent(effort.getCommitSha(), effort);
+                }
+            }
+        }
+        if (bySha.isEmpty()) {
+            return List.of();
+        }
+
+        Query seen = new Query(Criteria.where("commitSha").in(bySha.keySet()));
+        seen.fields().include("commitSha");
+        for (Effort existing : mongoTemplate.find(seen, Effort.class)) {
+            bySha.remove(existing.getCommitSha());
+        }
+        if (bySha.isEmpty()) {
+            log.debug("All commits of push to {} already stored", payload.get("ref"));
+            return List.of();
+        }
+
+        List<Effort> efforts = new ArrayList<>(bySha.values());
+        classifierService.classifyAll(efforts);
+        return insertAll(efforts);
+    }
+
+    /**
+     * Unordered bulk insert; efforts rejected as duplicate SHAs are dropped from the result
+     */
+    private List<Effort> insertAll(List<Effort> efforts) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class).insert(efforts).execute();
+            log.info("Inserted {} commit efforts", efforts.size());
+            return efforts;
+        } catch (BulkOperationException e) {
+            Set<Integer> rejected = new HashSet<>();
+            e.getErrors().forEach(error -> {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    log.error("Failed to insert commit effort: {}", error.getMessage());
+                }
+                rejected.add(error.getIndex());
+            });
+            List<Effort> inserted = new ArrayList<>(efforts.size() - rejected.size());
+            for (int i = 0; i < efforts.size(); i++) {
+                if (!rejected.contains(i)) {
+                    inserted.add(efforts.get(i));
+                }
+            }
+            log.info("Inserted {} commit efforts, {} rejected", inserted.size(), rejected.size());
+            return inserted;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Effort toEffort(Map<?, ?> commit, Map<String, Object> push) {
+        String sha = (String) commit.get("id");
+        if (sha == null) {
+            return null;
+        }
+        String message = Objects.toString(commit.get("message"), "");
+        Map<String, Object> author = commit.get("author") instanceof Map<?, ?> a ? (Map<String, Object>) a : Map.of();
+
+        String employeeId = identityIndex.findByGithubUsername((String) author.get("username"));
+        if (employeeId == null) {
+            employeeId = identityIndex.findByEmail((String) author.get("email"));
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("commit", commit);
+        payload.put("ref", push.get("ref"));
+        payload.put("repository", push.get("repository"));
+
+        Effort effort = new Effort();
+        // Ids are assigned up front so the batch can be handed on without re-reading it
+        effort.setId(new ObjectId().toHexString());
+        effort.setSource("github");
+        effort.setEmployeeId(employeeId);
+        effort.setCommitSha(sha);
+        effort.setTitle(message.lines().findFirst().orElse(""));
+        effort.setExternalId(repositoryName(push) + "@" + sha);
+        effort.setPayload(payload);
+        effort.setStatus(EffortStatus.RECEIVED);
+        effort.setCreatedAt(new Date());
+        effort.setTimestamp(commitTime(commit.get("timestamp")));
+        return effort;
+    }
+
+    private static String repositoryName(Map<String, Object> push) {
+        return push.get("repository") instanceof Map<?, ?> repo ? String.valueOf(repo.get("full_name")) : null;
+    }
+
+    private static Date commitTime(Object timestamp) {
+        // GitHub sends the committer's offset, e.g. 2024-05-01T10:00:00+02:00
+        if (timestamp instanceof String iso) {
+            try {
+                return Date.from(OffsetDateTime.parse(iso).toInstant());
+            } catch (DateTimeParseException e) {
+                log.debug("Unparseable commit timestamp {}", iso);
+            }
+        }
+        return new Date();
+    }
+}
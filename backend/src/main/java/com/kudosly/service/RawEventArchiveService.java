@@ -0,0 +1,94 @@
+package com.kudosly.service;
+
+import com.kudosly.model.RawEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold archive of raw webhook bodies in the raw_events collection, keyed by effort id
+ * Efforts keep only their extracted fields; the original body is fetched on demand.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RawEventArchiveService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Archive the raw body for an effort; an existing archive for the effort is kept
+     */
+    public void archive(String effortId, String source, byte[] body) {
+        try {
+            mongoTemplate.insert(toRawEvent(effortId, source, body));
+        } catch (DuplicateKeyException e) {
+            log.debug("Raw event for effort {} already archived", effortId);
+        } catch (Exception e) {
+            // The effort itself is already saved; losing the archive copy is not fatal
+            log.warn("Failed to archive raw event for effort {}", effortId, e);
+        }
+    }
+
+    /**
+     * Archive raw bodies for several efforts with one unordered bulk insert
+     */
+    public void archiveAll(List<String> effortIds, String source, List<byte[]> bodies) {
+        if (effortIds.isEmpty()) {
+            return;
+        }
+        List<RawEvent> events = new ArrayList<>(effortIds.size());
+        for (int i = 0; i < effortIds.size(); i++) {
+            events.add(toRawEvent(effortIds.get(i), source, bodies.get(i)));
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RawEvent.class).insert(events).execute();
+        } catch (Exception e) {
+            log.warn("Failed to archive {} raw events from source: {}", events.size(), source, e);
+        }
+    }
+
+    /**
+     * Decompressed raw body for an effort, if one was archived
+     */
+    public Optional<byte[]> fetch(String effortId) {
+        return Optional.ofNullable(mongoTemplate.findById(effortId, RawEvent.class))
+            .map(event -> gunzip(event.getBody()));
+    }
+
+    private static RawEvent toRawEvent(String effortId, String source, byte[] body) {
+        return new RawEvent(effortId, source, gzip(body), body.length, new Date());
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
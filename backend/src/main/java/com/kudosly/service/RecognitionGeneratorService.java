@@ -1,6 +1,7 @@
 package com.kudosly.service;
 
 import com.kudosly.model.Effort;
+import com.kudosly.model.EffortFeatures;
 import com.kudosly.model.Recognition;
 import com.kudosly.repository.RecognitionRepository;
 import lombok.RequiredArgsConstructor;
@@ -115,6 +116,15 @@ public class RecognitionGeneratorService {
      * Generate recognition from analyzed effort
      */
     public Recognition generateRecognition(Effort effort) {
+        Recognition saved = recognitionRepository.save(buildRecognition(effort));
+        log.info("Successfully generated recognition: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Build the recognition for an analyzed effort without saving it
+     */
+    public Recognition buildRecognition(Effort effort) {
         log.info("Generating recognition for effort: {}", effort.getId());
         
         try {
@@ -136,10 +146,7 @@ public class RecognitionGeneratorService {
             String badge = assignBadge(effortType);
             recognition.setBadge(badge);
             
-            Recognition saved = recognitionRepository.save(recognition);
-            log.info("Successfully generated recognition: {}", saved.getId());
-            
-            return saved;
+            return recognition;
         } catch (Exception e) {
             log.error("Error generating recognition for effort: {}", effort.getId(), e);
             throw new RuntimeException("Failed to generate recognition", e);
@@ -162,7 +169,7 @@ public class RecognitionGeneratorService {
             String baseMessage = selectRandomTemplate(templates);
             
             // Extract effort description
-            String effortDescription = extractEffortDescription(effort.getPayload());
+            String effortDescription = EffortFeatures.of(effort).description();
             baseMessage = baseMessage.replace("{effort}", effortDescription);
             
             // Add impact phrase for significant work
@@ -179,52 +186,6 @@ public class RecognitionGeneratorService {
         }
     }
 
-    /**
-     * Extract effort description from payload
-     */
-    private String extractEffortDescription(Map<String, Object> payload) {
-        try {
-            // Try common payload fields in order of preference
-            if (payload.containsKey("title")) {
-                Object title = payload.get("title");
-                if (title != null) return title.toString();
-            }
-            if (payload.containsKey("summary")) {
-                Object summary = payload.get("summary");
-                if (summary != null) return summary.toString();
-            }
-            
-            // Jira issue
-            if (payload.containsKey("issue")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> issue = (Map<String, Object>) payload.get("issue");
-                Object summary = issue.get("summary");
-                if (summary != null) return summary.toString();
-            }
-            
-            // GitHub PR
-            if (payload.containsKey("pull_request")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
-                Object title = pr.get("title");
-                if (title != null) return title.toString();
-            }
-            
-            // Git commit
-            if (payload.containsKey("commit")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> commit = (Map<String, Object>) payload.get("commit");
-                Object message = commit.get("message");
-                if (message != null) return message.toString().split("\n")[0];
-            }
-
-            return "your contribution";
-        } catch (Exception e) {
-            log.debug("Error extracting effort description", e);
-            return "your contribution";
-        }
-    }
-
     /**
      * Get impact category from score
      */
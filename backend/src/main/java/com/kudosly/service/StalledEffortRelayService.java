@@ -0,0 +1,118 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.pipeline.PipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Re-admits efforts stored as received that never made it through the pipeline
+ *
+ * Intake commits an effort's ingest log offset once the effort is saved as received; the
+ * admission and stage queues that carry it on are in memory, so a crash (or a shutdown
+ * past its timeout) strands whatever they held, as well as open sessions. Efforts still
+ * received stalled-after-ms after their last write, and not in flight on this instance,
+ * are claimed by bumping updatedAt (so one instance wins, and a claimed effort is not
+ * picked again for another stalled-after-ms) and queued for processing again.
+ * stalled-after-ms must exceed the sessionization inactivity gap. A run stops relaying
+ * while the admission queue is full.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StalledEffortRelayService {
+
+    private final MongoTemplate mongoTemplate;
+    private final EffortIntakeService effortIntakeService;
+    private final PipelineMetrics metrics;
+
+    @Value("${app.recovery.stalled-after-ms:900000}")
+    private long stalledAfterMillis;
+
+    @Value("${app.recovery.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Create the index the relay queries by
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(Effort.class).ensureIndex(new Index()
+                .on("status", Sort.Direction.ASC).on("updatedAt", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not create stalled effort index; the relay will scan efforts", e);
+        }
+    }
+
+    /**
+     * Re-admit received efforts untouched for stalled-after-ms, oldest first
+     */
+    @Scheduled(fixedDelayString = "${app.recovery.interval-ms:60000}",
+        initialDelayString = "${app.recovery.interval-ms:60000}")
+    public void relayStalled() {
+        Date cutoff = new Date(System.currentTimeMillis() - stalledAfterMillis);
+        Query query = new Query(stalledBefore(cutoff))
+            .with(Sort.by(Sort.Direction.ASC, "updatedAt", "createdAt"))
+            .limit(batchSize);
+        List<Effort> efforts = mongoTemplate.find(query, Effort.class);
+        if (efforts.isEmpty()) {
+            return;
+        }
+
+        int relayed = 0;
+        for (Effort effort : efforts) {
+            if (effortIntakeService.isAdmissionSaturated()) {
+                // The rest stay received and unclaimed for the next run
+                break;
+            }
+            if (metrics.isInFlight(effort.getId())) {
+                continue;
+            }
+            try {
+                if (claim(effort, cutoff)) {
+                    effortIntakeService.processEffortAsync(effort);
+                    relayed++;
+                }
+            } catch (Exception e) {
+                log.warn("Could not relay stalled effort {}; will retry", effort.getId(), e);
+            }
+        }
+        log.info("Relayed {} of {} stalled received efforts", relayed, efforts.size());
+    }
+
+    /**
+     * Bump updatedAt if the effort is still received and stalled; false if another instance got there first
+     */
+    private boolean claim(Effort effort, Date cutoff) {
+        Date now = new Date();
+        Query query = new Query(new Criteria().andOperator(Criteria.where("_id").is(effort.getId()), stalledBefore(cutoff)));
+        boolean claimed = mongoTemplate.updateFirst(query, new Update().set("updatedAt", now), Effort.class)
+            .getModifiedCount() == 1;
+        if (claimed) {
+            effort.setUpdatedAt(now);
+        }
+        return claimed;
+    }
+
+    private static Criteria stalledBefore(Date cutoff) {
+        return Criteria.where("status").is(EffortStatus.RECEIVED).orOperator(
+            Criteria.where("updatedAt").lt(cutoff),
+            Criteria.where("updatedAt").is(null).and("createdAt").lt(cutoff));
+    }
+}
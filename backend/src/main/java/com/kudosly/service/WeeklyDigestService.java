@@ -49,7 +49,32 @@ public class WeeklyDigestService {
     public WeeklyDigest generateDigest(String employeeId, Date weekStart, Date weekEnd) {
         log.info("Generating weekly digest for employee: {} for week: {} - {}", 
                  employeeId, weekStart, weekEnd);
-        
+        return weeklyDigestRepository.save(buildDigest(employeeId, weekStart, weekEnd));
+    }
+
+    /**
+     * Rebuild existing digests overlapping [start, end) after late efforts landed there
+     * Only the affected employee's digests for that range are touched.
+     */
+    public void correctDigests(String employeeId, Date start, Date end) {
+        List<WeeklyDigest> affected = weeklyDigestRepository
+            .findByEmployeeIdAndWeekStartBeforeAndWeekEndAfter(employeeId, end, start);
+        for (WeeklyDigest stale : affected) {
+            WeeklyDigest corrected = buildDigest(employeeId, stale.getWeekStart(), stale.getWeekEnd());
+            corrected.setId(stale.getId());
+            corrected.setNarrative(stale.getNarrative());
+            corrected.setIsPublished(stale.getIsPublished());
+            corrected.setCreatedAt(stale.getCreatedAt());
+            corrected.setUpdatedAt(new Date());
+            weeklyDigestRepository.save(corrected);
+            log.info("Corrected digest {} for employee {} after late efforts", stale.getId(), employeeId);
+        }
+    }
+
+    /**
+     * Compute a digest from the efforts and recognitions whose event time falls in the week
+     */
+    private WeeklyDigest buildDigest(String employeeId, Date weekStart, Date weekEnd) {
         // Fetch efforts for the week
         List<Effort> weekEfforts = effortRepository
             .findByEmployeeIdAndTimestampBetween(employeeId, weekStart, weekEnd);
@@ -87,7 +112,7 @@ public class WeeklyDigestService {
         List<String> learningWins = extractLearningWins(weekEfforts);
         digest.setLearningWins(learningWins);
         
-        return weeklyDigestRepository.save(digest);
+        return digest;
     }
 
     /**
@@ -0,0 +1,270 @@
+package com.kudosly.connector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.model.Effort;
+import com.kudosly.model.ParkedSyncItem;
+import com.kudosly.model.SyncCursor;
+import com.kudosly.repository.SyncCursorRepository;
+import com.kudosly.service.EffortIntakeService;
+import com.kudosly.service.EmployeeIdentityIndex;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Pull Sync Service Tests")
+class PullSyncServiceTest {
+
+    @Mock
+    private SyncCursorRepository cursorRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private EffortIntakeService effortIntakeService;
+
+    @Mock
+    private EmployeeIdentityIndex identityIndex;
+
+    private final Map<String, SyncCursor> cursors = new HashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, String> responses = new HashMap<>();
+    private HttpServer server;
+    private LmsConnector connector;
+    private PullSyncService syncService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/completions", this::respond);
+        server.start();
+
+        connector = new LmsConnector(identityIndex, new ObjectMapper(),
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/completions", "secret", 2, 5);
+        syncService = new PullSyncService(List.of(connector), cursorRepository, mongoTemplate, effortIntakeService, 2, 100, 30);
+
+        when(identityIndex.findByEmail("ada@example.com")).thenReturn("emp-1");
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(cursorRepository.findById("lms")).thenAnswer(invocation -> Optional.ofNullable(copy(cursors.get("lms"))));
+        when(cursorRepository.save(any(SyncCursor.class))).thenAnswer(invocation -> {
+            SyncCursor saved = invocation.getArgument(0);
+            cursors.put(saved.getId(), copy(saved));
+            return saved;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        syncService.close();
+    }
+
+    @Test
+    @DisplayName("Should page through the delta and fetch only changes since the stored cursor next run")
+    void testIncrementalSync() {
+        // Arrange
+        responses.put("limit=2", page("c-1", "c-2", "p2", null));
+        responses.put("limit=2&pageToken=p2", page("c-3", null, null, "w-1"));
+        responses.put("limit=2&since=w-1", "{\"items\":[],\"cursor\":\"w-1\"}");
+
+        // Act
+        long first = syncService.sync(connector);
+        long second = syncService.sync(connector);
+
+        // Assert
+        assertEquals(3, first);
+        assertEquals(0, second);
+        assertEquals(List.of("limit=2", "limit=2&pageToken=p2", "limit=2&since=w-1"), requests);
+        assertEquals("w-1", cursors.get("lms").getCursor());
+        assertNull(cursors.get("lms").getPageToken());
+        assertEquals(3L, cursors.get("lms").getItemsSynced());
+
+        ArgumentCaptor<Effort> queued = ArgumentCaptor.forClass(Effort.class);
+        verify(effortIntakeService, times(3)).processEffortAsync(queued.capture());
+        Effort effort = queued.getAllValues().get(0);
+        assertEquals("lms", effort.getSource());
+        assertEquals("lms:c-1", effort.getSyncKey());
+        assertEquals("emp-1", effort.getEmployeeId());
+        assertEquals("learning", effort.getEffortType());
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor and resume from the checkpointed page after a failure")
+    void testResumeAfterFailure() {
+        // Arrange
+        cursors.put("lms", new SyncCursor("lms", "w-0", null, null, null, 10L, 0L));
+        responses.put("limit=2&since=w-0", page("c-1", "c-2", "p2", null));
+
+        // Act
+        long stored = syncService.sync(connector);
+
+        // Assert
+        assertEquals(2, stored);
+        assertEquals("w-0", cursors.get("lms").getCursor());
+        assertEquals("p2", cursors.get("lms").getPageToken());
+        assertEquals(12L, cursors.get("lms").getItemsSynced());
+
+        // Arrange
+        responses.put("limit=2&since=w-0&pageToken=p2", page("c-3", null, null, "w-1"));
+
+        // Act
+        syncService.sync(connector);
+
+        // Assert
+        assertEquals("limit=2&since=w-0&pageToken=p2", requests.get(requests.size() - 1));
+        assertEquals("w-1", cursors.get("lms").getCursor());
+        assertNull(cursors.get("lms").getPageToken());
+    }
+
+    @Test
+    @DisplayName("Should pause at the next page while admission is saturated and resume from it next run")
+    void testPauseWhileAdmissionSaturated() {
+        // Arrange
+        when(effortIntakeService.isAdmissionSaturated()).thenReturn(false, true);
+        responses.put("limit=2", page("c-1", "c-2", "p2", null));
+        responses.put("limit=2&pageToken=p2", page("c-3", null, null, "w-1"));
+
+        // Act
+        long stored = syncService.sync(connector);
+
+        // Assert
+        assertEquals(2, stored);
+        assertNull(cursors.get("lms").getCursor());
+        assertEquals("p2", cursors.get("lms").getPageToken());
+        assertNull(cursors.get("lms").getLastSuccessAt());
+
+        // Arrange
+        when(effortIntakeService.isAdmissionSaturated()).thenReturn(false);
+
+        // Act
+        syncService.sync(connector);
+
+        // Assert
+        assertEquals("w-1", cursors.get("lms").getCursor());
+        assertNull(cursors.get("lms").getPageToken());
+        verify(effortIntakeService, times(3)).processEffortAsync(any(Effort.class));
+    }
+
+    @Test
+    @DisplayName("Should park an item whose employee is unknown and store it once the employee is added")
+    void testParkUnresolvedItem() {
+        // Arrange
+        List<ParkedSyncItem> parked = new CopyOnWriteArrayList<>();
+        when(mongoTemplate.save(any(ParkedSyncItem.class))).thenAnswer(invocation -> {
+            parked.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(mongoTemplate.find(any(Query.class), eq(ParkedSyncItem.class))).thenAnswer(invocation -> List.copyOf(parked));
+        when(identityIndex.findByEmail("ada@example.com")).thenReturn(null);
+        responses.put("limit=2", page("c-1", null, null, "w-1"));
+        responses.put("limit=2&since=w-1", "{\"items\":[],\"cursor\":\"w-1\"}");
+
+        // Act
+        long first = syncService.sync(connector);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals("w-1", cursors.get("lms").getCursor());
+        assertEquals(1, parked.size());
+        assertEquals("lms:c-1", parked.get(0).getId());
+        verify(effortIntakeService, never()).processEffortAsync(any(Effort.class));
+
+        // Arrange
+        when(identityIndex.findByEmail("ada@example.com")).thenReturn("emp-1");
+
+        // Act
+        long second = syncService.sync(connector);
+
+        // Assert
+        assertEquals(1, second);
+        ArgumentCaptor<Effort> queued = ArgumentCaptor.forClass(Effort.class);
+        verify(effortIntakeService).processEffortAsync(queued.capture());
+        assertEquals("lms:c-1", queued.getValue().getSyncKey());
+        assertEquals("emp-1", queued.getValue().getEmployeeId());
+        verify(mongoTemplate).remove(any(Query.class), eq(ParkedSyncItem.class));
+    }
+
+    @Test
+    @DisplayName("Should rotate parked items still unresolved behind the ones not tried yet")
+    void testRotateUnresolvedParkedItems() {
+        // Arrange
+        Map<String, Object> completion = Map.of("id", "c-1", "status", "completed", "learnerEmail", "ada@example.com",
+            "courseTitle", "Kubernetes basics", "completedAt", "2024-05-01T10:00:00Z");
+        ParkedSyncItem item = new ParkedSyncItem("lms:c-1", "lms", completion, new Date(0), new Date(0));
+        when(mongoTemplate.find(any(Query.class), eq(ParkedSyncItem.class))).thenReturn(List.of(item));
+        when(identityIndex.findByEmail("ada@example.com")).thenReturn(null);
+        responses.put("limit=2", "{\"items\":[],\"cursor\":\"w-1\"}");
+
+        // Act
+        syncService.sync(connector);
+
+        // Assert
+        ArgumentCaptor<Query> batch = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(batch.capture(), eq(ParkedSyncItem.class));
+        assertEquals(1, batch.getValue().getSortObject().get("retriedAt"));
+        ArgumentCaptor<Update> bumped = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), bumped.capture(), eq(ParkedSyncItem.class));
+        assertTrue(bumped.getValue().modifies("retriedAt"));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(ParkedSyncItem.class));
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        requests.add(query);
+        String body = "Bearer secret".equals(exchange.getRequestHeaders().getFirst("Authorization"))
+            ? responses.get(query) : null;
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(body == null ? 503 : 200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String page(String firstId, String secondId, String nextPageToken, String cursor) {
+        StringBuilder items = new StringBuilder(completion(firstId));
+        if (secondId != null) {
+            items.append(',').append(completion(secondId));
+        }
+        return "{\"items\":[" + items + "]"
+            + (nextPageToken != null ? ",\"nextPageToken\":\"" + nextPageToken + "\"" : "")
+            + (cursor != null ? ",\"cursor\":\"" + cursor + "\"" : "") + "}";
+    }
+
+    private static String completion(String id) {
+        return "{\"id\":\"" + id + "\",\"status\":\"completed\",\"learnerEmail\":\"ada@example.com\","
+            + "\"courseTitle\":\"Kubernetes basics\",\"completedAt\":\"2024-05-01T10:00:00Z\"}";
+    }
+
+    private static SyncCursor copy(SyncCursor cursor) {
+        return cursor == null ? null : new SyncCursor(cursor.getId(), cursor.getCursor(), cursor.getPageToken(),
+            cursor.getLastRunAt(), cursor.getLastSuccessAt(), cursor.getItemsSynced(), cursor.getItemsSkipped());
+    }
+}
@@ -0,0 +1,109 @@
+package com.kudosly.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ingest Log Tests")
+class IngestLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read appended records in order with their source and headers")
+    void testAppendAndPoll() throws Exception {
+        // Arrange
+        IngestLog log = new IngestLog(directory.toString(), 4096, false);
+
+        // Act
+        long first = log.append("github", Map.of("X-GitHub-Delivery", "abc"), bytes("{\"action\":\"opened\"}"));
+        long second = log.append("jira", Map.of(), bytes("{\"issue\":{}}"));
+        List<IngestRecord> records = log.poll(10);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(2, records.size());
+        assertEquals("github", records.get(0).source());
+        assertEquals("abc", records.get(0).headers().get("X-GitHub-Delivery"));
+        assertEquals("{\"action\":\"opened\"}", new String(records.get(0).body(), StandardCharsets.UTF_8));
+        assertEquals("jira", records.get(1).source());
+        assertTrue(log.poll(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replay uncommitted records after a restart")
+    void testReplayAfterRestart() throws Exception {
+        // Arrange
+        IngestLog log = new IngestLog(directory.toString(), 4096, false);
+        for (int i = 0; i < 5; i++) {
+            log.append("test", Map.of(), bytes("{\"n\":" + i + "}"));
+        }
+        List<IngestRecord> firstRead = log.poll(2);
+        log.commit(firstRead.get(1).offset());
+        log.close();
+
+        // Act
+        IngestLog reopened = new IngestLog(directory.toString(), 4096, false);
+        List<IngestRecord> replayed = reopened.poll(10);
+
+        // Assert
+        assertEquals(3, replayed.size());
+        assertEquals(2, replayed.get(0).offset());
+        assertEquals(5, reopened.endOffset());
+        assertEquals(3, reopened.lag());
+    }
+
+    @Test
+    @DisplayName("Should roll segments and delete them once committed")
+    void testSegmentRollAndTruncate() throws Exception {
+        // Arrange
+        IngestLog log = new IngestLog(directory.toString(), 256, false);
+        byte[] body = new byte[100];
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            log.append("test", Map.of(), body);
+        }
+        int segmentsBeforeCommit = log.segmentCount();
+        List<IngestRecord> records = log.poll(100);
+        log.commit(records.get(records.size() - 1).offset());
+
+        // Assert
+        assertEquals(10, records.size());
+        assertTrue(segmentsBeforeCommit > 1);
+        assertEquals(1, log.segmentCount());
+        assertEquals(0, log.lag());
+    }
+
+    @Test
+    @DisplayName("Should re-deliver records after rewinding to the committed offset")
+    void testRewind() throws Exception {
+        // Arrange
+        IngestLog log = new IngestLog(directory.toString(), 4096, false);
+        log.append("test", Map.of(), bytes("{}"));
+        log.append("test", Map.of(), bytes("{}"));
+        log.commit(log.poll(1).get(0).offset());
+        log.poll(10);
+
+        // Act
+        log.rewind();
+        List<IngestRecord> records = log.poll(10);
+
+        // Assert
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).offset());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package com.kudosly.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Payload Field Extractor Tests")
+class PayloadFieldExtractorTest {
+
+    private static final String GITHUB_PAYLOAD = """
+        {
+          "action": "closed",
+          "repository": {"id": 1, "full_name": "org/repo", "owner": {"login": "org"}},
+          "pull_request": {
+            "title": "Add caching layer",
+            "user": {"login": "developer123", "id": 42},
+            "merged": true,
+            "additions": 350,
+            "labels": [{"name": "perf"}],
+            "head": {"sha": "abc"}
+          },
+          "sender": {"login": "developer123"}
+        }
+        """;
+
+    @Test
+    @DisplayName("Should extract only declared paths into a nested map")
+    void testExtractDeclaredPaths() throws IOException {
+        // Arrange
+        PayloadFieldExtractor extractor = PayloadFieldExtractor.compile(List.of(
+            "action", "pull_request.user.login", "pull_request.merged", "pull_request.additions"));
+
+        // Act
+        Map<String, Object> payload = extractor.extract(bytes(GITHUB_PAYLOAD));
+
+        // Assert
+        assertEquals("closed", payload.get("action"));
+        assertFalse(payload.containsKey("repository"));
+        assertFalse(payload.containsKey("sender"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
+        assertEquals(Boolean.TRUE, pr.get("merged"));
+        assertEquals(350, pr.get("additions"));
+        assertFalse(pr.containsKey("title"));
+        assertFalse(pr.containsKey("labels"));
+        assertEquals(Map.of("login", "developer123"), pr.get("user"));
+    }
+
+    @Test
+    @DisplayName("Should capture a whole subtree when a path ends at a container")
+    void testCaptureSubtree() throws IOException {
+        // Arrange
+        PayloadFieldExtractor extractor = PayloadFieldExtractor.compile(List.of("pull_request.labels"));
+
+        // Act
+        Map<String, Object> payload = extractor.extract(bytes(GITHUB_PAYLOAD));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Object> pr = (Map<String, Object>) payload.get("pull_request");
+        assertEquals(List.of(Map.of("name", "perf")), pr.get("labels"));
+    }
+
+    @Test
+    @DisplayName("Should omit paths that are missing or have an unexpected shape")
+    void testMissingAndMismatchedPaths() throws IOException {
+        // Arrange
+        PayloadFieldExtractor extractor = PayloadFieldExtractor.compile(List.of(
+            "issue.assignee.emailAddress", "action.name"));
+
+        // Act
+        Map<String, Object> payload = extractor.extract(bytes(GITHUB_PAYLOAD));
+
+        // Assert
+        assertTrue(payload.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep an object on a declared path even when none of its declared fields are present")
+    void testKeepIntermediateObjectWithoutFields() throws IOException {
+        // Arrange
+        PayloadFieldExtractor extractor = PayloadFieldExtractor.compile(List.of("issue.assignee.emailAddress"));
+
+        // Act
+        Map<String, Object> payload = extractor.extract(bytes(
+            "{\"issue\":{\"assignee\":{\"accountId\":\"5b10a\",\"displayName\":\"Ada\"}}}"));
+
+        // Assert
+        assertEquals(Map.of("issue", Map.of("assignee", Map.of())), payload);
+    }
+
+    @Test
+    @DisplayName("Should reject documents that are not JSON objects")
+    void testRejectNonObject() {
+        PayloadFieldExtractor extractor = PayloadFieldExtractor.compile(List.of("action"));
+
+        assertThrows(IOException.class, () -> extractor.extract(bytes("[1, 2, 3]")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.kudosly.ingest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Webhook Signature Verifier Tests")
+class WebhookSignatureVerifierTest {
+
+    private static final byte[] BODY = "{\"action\":\"opened\",\"pull_request\":{}}".getBytes(StandardCharsets.UTF_8);
+
+    private WebhookSignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new WebhookSignatureVerifier("jira-secret", "github-secret", "slack-secret", 300);
+    }
+
+    @Test
+    @DisplayName("Should accept a GitHub sha256= signature over the raw body")
+    void testGithubSignature() throws Exception {
+        String signature = "sha256=" + HexFormat.of().formatHex(hmac("github-secret", BODY));
+
+        assertTrue(verifier.verify("github", BODY, signature, null));
+        assertTrue(verifier.verify("github", BODY, signature.toUpperCase().replace("SHA256=", "sha256="), null));
+    }
+
+    @Test
+    @DisplayName("Should reject a signature made with a different secret or body")
+    void testRejectTamperedSignature() throws Exception {
+        String wrongSecret = "sha256=" + HexFormat.of().formatHex(hmac("other-secret", BODY));
+        String wrongBody = "sha256=" + HexFormat.of().formatHex(hmac("github-secret", "{}".getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(verifier.verify("github", BODY, wrongSecret, null));
+        assertFalse(verifier.verify("github", BODY, wrongBody, null));
+        assertFalse(verifier.verify("github", BODY, "sha256=zz", null));
+        assertFalse(verifier.verify("github", BODY, null, null));
+    }
+
+    @Test
+    @DisplayName("Should verify Slack v0 signatures over the timestamped base string")
+    void testSlackSignature() throws Exception {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        byte[] base = ("v0:" + timestamp + ":" + new String(BODY, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        String signature = "v0=" + HexFormat.of().formatHex(hmac("slack-secret", base));
+
+        assertTrue(verifier.verify("slack", BODY, signature, timestamp));
+        assertFalse(verifier.verify("slack", BODY, signature, String.valueOf(Long.parseLong(timestamp) - 1)));
+    }
+
+    @Test
+    @DisplayName("Should reject Slack requests outside the allowed clock skew")
+    void testSlackStaleTimestamp() throws Exception {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000 - 3600);
+        byte[] base = ("v0:" + timestamp + ":" + new String(BODY, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        String signature = "v0=" + HexFormat.of().formatHex(hmac("slack-secret", base));
+
+        assertFalse(verifier.verify("slack", BODY, signature, timestamp));
+    }
+
+    @Test
+    @DisplayName("Should accept Base64 digests and reuse pooled Macs across calls")
+    void testBase64AndRepeatedCalls() throws Exception {
+        String signature = Base64.getEncoder().encodeToString(hmac("jira-secret", BODY));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(verifier.verify("jira", BODY, signature, null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip verification for sources without a secret")
+    void testUnconfiguredSource() {
+        assertFalse(verifier.isConfigured("bitbucket"));
+        assertTrue(verifier.verify("bitbucket", BODY, "anything", null));
+    }
+
+    private static byte[] hmac(String secret, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(data);
+    }
+}
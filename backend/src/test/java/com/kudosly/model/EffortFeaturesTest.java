@@ -0,0 +1,74 @@
+package com.kudosly.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Effort Features Tests")
+class EffortFeaturesTest {
+
+    @Test
+    @DisplayName("Should extract text, tokens, PR metrics and description in one pass")
+    void testExtractGithubPullRequest() {
+        // Arrange
+        Map<String, Object> pr = new HashMap<>();
+        pr.put("title", "Fix Login-crash on Safari");
+        pr.put("body", "Peer review welcome");
+        pr.put("additions", 620L);
+        pr.put("changed_files", 7);
+        pr.put("merged", true);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("pull_request", pr);
+        payload.put("commits", List.of(Map.of("message", "Patch the crash")));
+
+        // Act
+        EffortFeatures features = EffortFeatures.extract(payload);
+
+        // Assert
+        assertTrue(features.text().contains("fix login-crash on safari"));
+        assertTrue(features.mentions("crash"));
+        assertTrue(features.mentions("patch"));
+        assertFalse(features.mentions("login-crash"));
+        assertEquals(payload.toString().toLowerCase(), features.payloadText());
+        assertEquals(620, features.additions());
+        assertNull(features.deletions());
+        assertEquals(7, features.changedFiles());
+        assertTrue(features.merged());
+        assertEquals("Fix Login-crash on Safari", features.description());
+    }
+
+    @Test
+    @DisplayName("Should reuse the features until the payload is replaced")
+    void testFeaturesCachedUntilPayloadChanges() {
+        // Arrange
+        Effort effort = new Effort();
+        effort.setPayload(Map.of("title", "Onboard the new hire"));
+
+        // Act
+        EffortFeatures first = EffortFeatures.of(effort);
+        EffortFeatures again = EffortFeatures.of(effort);
+        effort.setPayload(Map.of("commit", Map.of("message", "Add retry\n\nwith backoff")));
+        EffortFeatures replaced = EffortFeatures.of(effort);
+
+        // Assert
+        assertSame(first, again);
+        assertNotSame(first, replaced);
+        assertEquals("Add retry", replaced.description());
+    }
+
+    @Test
+    @DisplayName("Should fall back to empty features without a payload")
+    void testNullPayload() {
+        // Act
+        EffortFeatures features = EffortFeatures.of(new Effort());
+
+        // Assert
+        assertTrue(features.tokens().isEmpty());
+        assertEquals(EffortFeatures.DEFAULT_DESCRIPTION, features.description());
+    }
+}
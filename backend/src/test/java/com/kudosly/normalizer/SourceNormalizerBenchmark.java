@@ -0,0 +1,108 @@
+package com.kudosly.normalizer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.ingest.PayloadFieldExtractor;
+import com.kudosly.model.Effort;
+import com.kudosly.model.Employee;
+import com.kudosly.service.EmployeeIdentityIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-source throughput of field extraction plus normalization, one result row per source
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.kudosly.normalizer.SourceNormalizerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceNormalizerBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private static final Map<String, String> SAMPLES = Map.of(
+        "jira", """
+            {"webhookEvent":"jira:issue_updated","issue":{"key":"KUD-42","summary":"Fix login timeout",
+             "description":"Sessions expire early","issuetype":{"name":"Bug","iconUrl":"https://x"},
+             "assignee":{"emailAddress":"ada@example.com","displayName":"Ada","avatarUrls":{"48x48":"https://x"}},
+             "fields":{"labels":["auth","backend"],"priority":{"name":"High"}}},
+             "changelog":{"items":[{"field":"status","fromString":"Open","toString":"Done"}]}}""",
+        "github", """
+            {"action":"closed","number":7,"pull_request":{"number":7,"title":"Add retry","body":"Retries uploads",
+             "user":{"login":"ada-l","id":1,"avatar_url":"https://x"},"merged":true,"additions":120,"deletions":30,
+             "changed_files":4,"review_comments":3,"head":{"ref":"retry","sha":"abc"},"base":{"ref":"main"}},
+             "repository":{"id":9,"full_name":"kudosly/app","owner":{"login":"kudosly"}},"sender":{"login":"ada-l"}}""",
+        "bitbucket", """
+            {"pullrequest":{"id":3,"title":"Tidy config","description":"Remove dead keys",
+             "author":{"user":{"username":"ada-l","display_name":"Ada"}},"source":{"branch":{"name":"tidy"}}},
+             "repository":{"full_name":"kudosly/app"},"actor":{"username":"ada-l"}}""",
+        "slack", """
+            {"token":"x","team_id":"T1","event_id":"Ev123","event":{"type":"message","user":"U001",
+             "text":"Thanks for the quick fix!","ts":"1700000000.000100","channel":"C1",
+             "blocks":[{"type":"rich_text","elements":[]}]},"authorizations":[{"user_id":"U001"}]}""",
+        "test", """
+            {"employeeId":"emp-1","effortType":"bug-fix","title":"Manual test","description":"Benchmark payload"}""");
+
+    @Param({"jira", "github", "bitbucket", "slack", "test"})
+    public String source;
+
+    private byte[] body;
+    private PayloadFieldExtractor extractor;
+    private SourceNormalizer normalizer;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        EmployeeIdentityIndex identityIndex = new EmployeeIdentityIndex(null);
+        Employee ada = new Employee();
+        ada.setId("emp-1");
+        ada.setEmail("ada@example.com");
+        ada.setGithubUsername("ada-l");
+        ada.setSlackId("U001");
+        identityIndex.onAfterSave(new AfterSaveEvent<>(ada, null, "employees"));
+
+        SourceNormalizerRegistry registry = new SourceNormalizerRegistry(List.of(
+            new JiraNormalizer(identityIndex), new GithubNormalizer(identityIndex),
+            new BitbucketNormalizer(identityIndex), new SlackNormalizer(identityIndex), new TestNormalizer()));
+
+        body = SAMPLES.get(source).getBytes(StandardCharsets.UTF_8);
+        extractor = registry.extractorFor(source);
+        normalizer = registry.normalizerFor(source);
+        payload = read(body);
+    }
+
+    @Benchmark
+    public Effort normalize() {
+        return normalizer.normalize(payload);
+    }
+
+    @Benchmark
+    public Effort extractAndNormalize() throws Exception {
+        return normalizer.normalize(read(body));
+    }
+
+    // Mirrors EffortIntakeService.extractPayload: sources without declared paths are bound in full
+    private Map<String, Object> read(byte[] json) throws Exception {
+        return extractor != null ? extractor.extract(json) : MAPPER.readValue(json, PAYLOAD_TYPE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SourceNormalizerBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.kudosly.normalizer;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.Employee;
+import com.kudosly.service.EmployeeIdentityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Source Normalizer Registry Tests")
+class SourceNormalizerRegistryTest {
+
+    private SourceNormalizerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeIdentityIndex identityIndex = new EmployeeIdentityIndex(null);
+        Employee ada = new Employee();
+        ada.setId("emp-1");
+        ada.setEmail("ada@example.com");
+        ada.setGithubUsername("ada-l");
+        ada.setSlackId("U001");
+        identityIndex.onAfterSave(new AfterSaveEvent<>(ada, null, "employees"));
+
+        registry = new SourceNormalizerRegistry(List.of(
+            new JiraNormalizer(identityIndex), new GithubNormalizer(identityIndex),
+            new BitbucketNormalizer(identityIndex), new SlackNormalizer(identityIndex), new TestNormalizer()));
+    }
+
+    @Test
+    @DisplayName("Should extract declared GitHub fields and normalize a merged PR")
+    void testGithubExtractAndNormalize() throws Exception {
+        // Arrange
+        byte[] body = ("{\"action\":\"closed\",\"repository\":{\"id\":1},"
+            + "\"pull_request\":{\"title\":\"Add retry\",\"merged\":true,\"updated_at\":\"2024-05-01T10:00:00Z\","
+            + "\"user\":{\"login\":\"Ada-L\",\"id\":5}}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        Map<String, Object> payload = registry.extractorFor("GitHub").extract(body);
+        Effort effort = registry.normalizerFor("github").normalize(payload);
+
+        // Assert
+        assertFalse(payload.containsKey("repository"));
+        assertEquals("emp-1", effort.getEmployeeId());
+        assertEquals("feature-work", effort.getEffortType());
+        assertEquals("github", effort.getSource());
+        assertEquals(Instant.parse("2024-05-01T10:00:00Z"), effort.getTimestamp().toInstant());
+        assertTrue(effort.getCreatedAt().after(effort.getTimestamp()));
+    }
+
+    @Test
+    @DisplayName("Should map Jira issue types and resolve the assignee by email")
+    void testJiraNormalize() {
+        // Arrange
+        Map<String, Object> payload = Map.of("timestamp", 1714557600000L, "issue", Map.of(
+            "issuetype", Map.of("name", "Bug"),
+            "assignee", Map.of("emailAddress", "ada@example.com")));
+
+        // Act
+        Effort effort = registry.normalizerFor("jira").normalize(payload);
+
+        // Assert
+        assertEquals("emp-1", effort.getEmployeeId());
+        assertEquals("bug-fix", effort.getEffortType());
+        assertEquals(Instant.ofEpochMilli(1714557600000L), effort.getTimestamp().toInstant());
+    }
+
+    @Test
+    @DisplayName("Should still produce a Jira effort when the assignee's email is hidden")
+    void testJiraAssigneeWithoutEmail() throws Exception {
+        // Arrange
+        byte[] body = ("{\"issue\":{\"key\":\"KUD-7\",\"issuetype\":{\"name\":\"Bug\"},"
+            + "\"assignee\":{\"accountId\":\"5b10a\",\"displayName\":\"Ada\"}}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        Map<String, Object> payload = registry.extractorFor("jira").extract(body);
+        Effort effort = registry.normalizerFor("jira").normalize(payload);
+
+        // Assert
+        assertNotNull(effort);
+        assertNull(effort.getEmployeeId());
+        assertEquals("KUD-7", effort.getExternalId());
+        assertEquals("bug-fix", effort.getEffortType());
+    }
+
+    @Test
+    @DisplayName("Should key PR updates by PR and Slack messages by thread")
+    void testSessionKeys() {
+        SourceNormalizer github = registry.normalizerFor("github");
+        Map<String, Object> pr = Map.of("number", 7);
+
+        assertEquals("github:kudosly/app#7", github.sessionKey(
+            Map.of("action", "synchronize", "pull_request", pr, "repository", Map.of("full_name", "kudosly/app"))));
+        assertNull(github.sessionKey(Map.of("action", "closed", "pull_request", pr)));
+
+        SourceNormalizer slack = registry.normalizerFor("slack");
+        assertEquals("slack:C1:100.1", slack.sessionKey(Map.of("event", Map.of("channel", "C1", "ts", "100.1"))));
+        assertEquals("slack:C1:100.1", slack.sessionKey(
+            Map.of("event", Map.of("channel", "C1", "ts", "105.2", "thread_ts", "100.1"))));
+        assertNull(registry.normalizerFor("jira").sessionKey(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should return null for payloads missing required fields")
+    void testMissingFields() {
+        assertNull(registry.normalizerFor("jira").normalize(Map.of("issue", Map.of())));
+        assertNull(registry.normalizerFor("github").normalize(Map.of("pull_request", "not-an-object")));
+        assertNull(registry.normalizerFor("bitbucket").normalize(Map.of()));
+        assertNull(registry.normalizerFor("slack").normalize(Map.of("type", "url_verification")));
+    }
+
+    @Test
+    @DisplayName("Should bind test payloads in full and reject duplicate sources")
+    void testFullBindingAndDuplicates() {
+        assertNull(registry.extractorFor("test"));
+        assertNull(registry.normalizerFor("teams"));
+        assertEquals("user-001", registry.normalizerFor("test").normalize(Map.of()).getEmployeeId());
+
+        assertThrows(IllegalStateException.class,
+            () -> new SourceNormalizerRegistry(List.of(new TestNormalizer(), new TestNormalizer())));
+    }
+}
@@ -0,0 +1,110 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bounded Virtual Thread Executor Tests")
+class BoundedVirtualThreadExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedVirtualThreadExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new BoundedVirtualThreadExecutor("test", 2, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should run tasks on virtual threads without exceeding the concurrency cap")
+    void testConcurrencyCap() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger virtual = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                if (Thread.currentThread().isVirtual()) {
+                    virtual.incrementAndGet();
+                }
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        waitFor(() -> executor.activeTasks() == 2 && executor.queuedTasks() == 8);
+
+        // Assert
+        assertEquals(8.0, meterRegistry.get("kudosly.pipeline.queued").tag("executor", "test").gauge().value());
+        assertEquals(2.0, meterRegistry.get("kudosly.pipeline.active").tag("executor", "test").gauge().value());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(10, virtual.get());
+    }
+
+    @Test
+    @DisplayName("Should record wait and latency for each task")
+    void testTimers() throws Exception {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(3);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            executor.execute(done::countDown);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitFor(() -> executor.activeTasks() == 0);
+
+        // Assert
+        waitFor(() -> meterRegistry.get("kudosly.pipeline.task.latency").timer().count() == 3);
+        assertEquals(3, meterRegistry.get("kudosly.pipeline.task.wait").timer().count());
+        assertEquals(0, executor.queuedTasks());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid cap and tasks after close")
+    void testRejections() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new BoundedVirtualThreadExecutor("bad", 0, Duration.ZERO, meterRegistry));
+
+        executor.close();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(0, executor.queuedTasks());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for condition");
+            Thread.sleep(5);
+        }
+    }
+}
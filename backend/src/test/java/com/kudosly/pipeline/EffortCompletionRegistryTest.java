@@ -0,0 +1,87 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.service.OutboxRelayService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Effort Completion Registry Tests")
+class EffortCompletionRegistryTest {
+
+    private MeterRegistry meterRegistry;
+    private EffortCompletionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new EffortCompletionRegistry(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should wake every waiter for an effort and release them")
+    void testCompleteWakesAllWaiters() throws Exception {
+        // Arrange
+        List<CompletableFuture<Effort>> waiters = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            waiters.add(registry.await("effort-1", Duration.ofSeconds(30)));
+        }
+        CompletableFuture<Effort> other = registry.await("effort-2", Duration.ofSeconds(30));
+        assertEquals(1001.0, meterRegistry.get("kudosly.efforts.awaiting").gauge().value());
+
+        // Act
+        registry.complete(effort("effort-1", EffortStatus.RECOGNIZED));
+
+        // Assert
+        for (CompletableFuture<Effort> waiter : waiters) {
+            assertEquals("effort-1", waiter.get(1, TimeUnit.SECONDS).getId());
+        }
+        assertFalse(other.isDone());
+        assertEquals(1, registry.waiters());
+    }
+
+    @Test
+    @DisplayName("Should complete with null on timeout")
+    void testTimeout() throws Exception {
+        // Act
+        CompletableFuture<Effort> timedOut = registry.await("effort-1", Duration.ofMillis(50));
+
+        // Assert
+        assertNull(timedOut.get(1, TimeUnit.SECONDS));
+        assertEquals(0, registry.waiters());
+    }
+
+    @Test
+    @DisplayName("Should treat recognized, failed, and scored efforts with no recognition pending as settled")
+    void testIsSettled() {
+        // Arrange
+        Effort pending = effort("effort-1", EffortStatus.SCORED);
+        pending.setPendingEffects(new ArrayList<>(List.of(OutboxRelayService.RECOGNITION)));
+
+        // Act & Assert
+        assertTrue(EffortCompletionRegistry.isSettled(effort("effort-2", EffortStatus.RECOGNIZED)));
+        assertTrue(EffortCompletionRegistry.isSettled(effort("effort-3", EffortStatus.SCORED)));
+        assertTrue(EffortCompletionRegistry.isSettled(effort("effort-6", EffortStatus.FAILED)));
+        assertFalse(EffortCompletionRegistry.isSettled(pending));
+        assertFalse(EffortCompletionRegistry.isSettled(effort("effort-4", EffortStatus.RECEIVED)));
+        assertFalse(EffortCompletionRegistry.isSettled(effort("effort-5", null)));
+    }
+
+    private static Effort effort(String id, String status) {
+        Effort effort = new Effort();
+        effort.setId(id);
+        effort.setStatus(status);
+        return effort;
+    }
+}
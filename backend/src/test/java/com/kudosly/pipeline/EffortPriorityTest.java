@@ -0,0 +1,43 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Effort Priority Tests")
+class EffortPriorityTest {
+
+    @Test
+    @DisplayName("Should pre-score bug fixes and feature work high and chat low")
+    void testPreScore() {
+        assertEquals(EffortPriority.HIGH, EffortPriority.preScore(effort("jira", "bug-fix")));
+        assertEquals(EffortPriority.HIGH, EffortPriority.preScore(effort("github", "feature-work")));
+        assertEquals(EffortPriority.NORMAL, EffortPriority.preScore(effort("lms", "learning")));
+        assertEquals(EffortPriority.NORMAL, EffortPriority.preScore(effort("github", null)));
+        assertEquals(EffortPriority.LOW, EffortPriority.preScore(effort("github", "collaboration")));
+        assertEquals(EffortPriority.LOW, EffortPriority.preScore(effort("Slack", "feature-work")));
+    }
+
+    @Test
+    @DisplayName("Should keep the intake priority after classification changes the effort type")
+    void testPriorityStableAfterClassification() {
+        // Arrange
+        Effort effort = effort("slack", "collaboration");
+        assertEquals("low", EffortPriority.lane(effort));
+
+        // Act
+        effort.setEffortType("bug-fix");
+
+        // Assert
+        assertEquals(EffortPriority.LOW, EffortPriority.of(effort));
+    }
+
+    private static Effort effort(String source, String effortType) {
+        Effort effort = new Effort();
+        effort.setSource(source);
+        effort.setEffortType(effortType);
+        return effort;
+    }
+}
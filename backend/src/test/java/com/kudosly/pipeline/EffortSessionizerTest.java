@@ -0,0 +1,158 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.service.EffortProcessingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Effort Sessionizer Tests")
+class EffortSessionizerTest {
+
+    @Mock
+    private WriteBehindBatcher writeBehind;
+
+    @Mock
+    private EffortProcessingService effortProcessingService;
+
+    @Mock
+    private FairAdmissionScheduler admissionScheduler;
+
+    private EffortSessionizer sessionizer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(writeBehind.save(any(Effort.class)))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        when(writeBehind.update(eq(Effort.class), any(), any(Update.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(admissionScheduler).submit(any(), any(), any(Runnable.class));
+        sessionizer = new EffortSessionizer(writeBehind, effortProcessingService, admissionScheduler,
+            new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(sessionizer, "inactivityGapMillis", 60_000L);
+        ReflectionTestUtils.setField(sessionizer, "maxSessionMillis", 600_000L);
+        ReflectionTestUtils.setField(sessionizer, "maxSessionEvents", 100);
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst into one effort, storing each event as it arrives")
+    void testCoalesceBurst() {
+        // Act
+        Effort first = sessionizer.offer(effort("emp-1", 1), "github:app#7");
+        Effort second = sessionizer.offer(effort("emp-1", 2), "github:app#7");
+        Effort third = sessionizer.offer(effort("emp-1", 3), "github:app#7");
+        sessionizer.flushAll();
+
+        // Assert
+        assertSame(first, second);
+        assertSame(first, third);
+        ArgumentCaptor<Effort> processed = ArgumentCaptor.forClass(Effort.class);
+        verify(effortProcessingService).processNewEffort(processed.capture());
+        assertEquals(first.getId(), processed.getValue().getId());
+        assertEquals(3, processed.getValue().getEventCount());
+        assertEquals(3, processed.getValue().getPayload().get("seq"));
+        verify(writeBehind, times(1)).save(any(Effort.class));
+        verify(writeBehind, times(2)).update(eq(Effort.class), eq(first.getId()), any(Update.class));
+        assertEquals(0, sessionizer.openSessions());
+    }
+
+    @Test
+    @DisplayName("Should keep sessions separate per employee and key")
+    void testSeparateSessions() {
+        // Act
+        sessionizer.offer(effort("emp-1", 1), "slack:C1:100.1");
+        sessionizer.offer(effort("emp-2", 1), "slack:C1:100.1");
+        sessionizer.offer(effort("emp-1", 1), "slack:C1:200.1");
+
+        // Assert
+        assertEquals(3, sessionizer.openSessions());
+    }
+
+    @Test
+    @DisplayName("Should only close sessions idle past the inactivity gap")
+    void testFlushIdleRespectsGap() {
+        // Arrange
+        sessionizer.offer(effort("emp-1", 1), "github:app#7");
+
+        // Act
+        sessionizer.flushIdle();
+
+        // Assert
+        assertEquals(1, sessionizer.openSessions());
+        verifyNoInteractions(effortProcessingService);
+
+        // Act
+        ReflectionTestUtils.setField(sessionizer, "inactivityGapMillis", -1L);
+        sessionizer.flushIdle();
+
+        // Assert
+        assertEquals(0, sessionizer.openSessions());
+        verify(effortProcessingService).processNewEffort(any(Effort.class));
+    }
+
+    @Test
+    @DisplayName("Should close a busy session at the maximum event count or age, however active")
+    void testMaxSessionCloses() {
+        // Arrange
+        ReflectionTestUtils.setField(sessionizer, "maxSessionEvents", 3);
+
+        // Act
+        Effort first = sessionizer.offer(effort("emp-1", 1), "github:app#7");
+        sessionizer.offer(effort("emp-1", 2), "github:app#7");
+        sessionizer.offer(effort("emp-1", 3), "github:app#7");
+        Effort next = sessionizer.offer(effort("emp-1", 4), "github:app#7");
+
+        // Assert
+        ArgumentCaptor<Effort> processed = ArgumentCaptor.forClass(Effort.class);
+        verify(effortProcessingService).processNewEffort(processed.capture());
+        assertEquals(first.getId(), processed.getValue().getId());
+        assertEquals(3, processed.getValue().getEventCount());
+        assertNotEquals(first.getId(), next.getId());
+        assertEquals(1, sessionizer.openSessions());
+
+        // Act
+        ReflectionTestUtils.setField(sessionizer, "maxSessionMillis", -1L);
+        sessionizer.flushIdle();
+
+        // Assert
+        assertEquals(0, sessionizer.openSessions());
+        verify(effortProcessingService, times(2)).processNewEffort(any(Effort.class));
+    }
+
+    @Test
+    @DisplayName("Should drop a session whose first event failed to save so the next event opens a new one")
+    void testFailedOpenIsNotKept() {
+        // Arrange
+        when(writeBehind.save(any(Effort.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write rejected")));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> sessionizer.offer(effort("emp-1", 1), "github:app#7"));
+        assertEquals(0, sessionizer.openSessions());
+    }
+
+    private static Effort effort(String employeeId, int seq) {
+        Effort effort = new Effort();
+        effort.setEmployeeId(employeeId);
+        effort.setSource("github");
+        effort.setPayload(Map.of("seq", seq));
+        return effort;
+    }
+}
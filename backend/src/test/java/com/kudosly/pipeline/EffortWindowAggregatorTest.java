@@ -0,0 +1,181 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortAggregate;
+import com.kudosly.service.WeeklyDigestService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Effort Window Aggregator Tests")
+class EffortWindowAggregatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private WeeklyDigestService digestService;
+
+    private MeterRegistry meterRegistry;
+    private EffortWindowAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new EffortWindowAggregator(mongoTemplate, digestService, meterRegistry, "UTC", 3_600_000L, 56);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EffortAggregate.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+    }
+
+    @Test
+    @DisplayName("Should combine efforts for the same buckets into one upsert each")
+    void testOnTimeEffortsCombined() {
+        // Arrange
+        Instant now = Instant.now();
+
+        // Act
+        aggregator.record(effort("emp-1", now.minusSeconds(60), "bug-fix", 6));
+        aggregator.record(effort("emp-1", now, "bug-fix", 8));
+        aggregator.flush();
+
+        // Assert
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).upsert(queries.capture(), updates.capture());
+        verify(bulkOperations).execute();
+
+        String day = LocalDate.ofInstant(now, ZoneOffset.UTC).toString();
+        int dayIndex = queries.getAllValues().get(0).getQueryObject().get("_id").toString().contains("|day|") ? 0 : 1;
+        assertEquals("emp-1|day|" + day, queries.getAllValues().get(dayIndex).getQueryObject().get("_id"));
+        Document inc = (Document) updates.getAllValues().get(dayIndex).getUpdateObject().get("$inc");
+        assertEquals(2L, inc.get("effortCount"));
+        assertEquals(14L, inc.get("impactTotal"));
+        assertEquals(2L, inc.get("countsByType.bug-fix"));
+        assertEquals(0L, inc.get("lateCorrections"));
+        assertEquals(2.0, timeliness("on_time"));
+        assertEquals(0, aggregator.pendingBuckets());
+        verifyNoInteractions(digestService);
+    }
+
+    @Test
+    @DisplayName("Should apply a late effort to its own buckets and correct only its digests")
+    void testLateEffortCorrectsDigest() {
+        // Arrange
+        Instant now = Instant.now();
+        Instant lateTime = now.minus(Duration.ofDays(10));
+        aggregator.record(effort("emp-1", now, "feature-work", 7));
+        aggregator.flush();
+
+        // Act
+        aggregator.record(effort("emp-2", lateTime, "mentoring", 5));
+        aggregator.flush();
+
+        // Assert
+        assertEquals(1.0, timeliness("late"));
+        Date dayStart = Date.from(LocalDate.ofInstant(lateTime, ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date dayEnd = Date.from(dayStart.toInstant().plus(Duration.ofDays(1)));
+        verify(digestService).correctDigests("emp-2", dayStart, dayEnd);
+        verifyNoMoreInteractions(digestService);
+    }
+
+    @Test
+    @DisplayName("Should retry only the upserts a partially failed flush rejected")
+    void testPartialFlushRetriesRejectedOnly() {
+        // Arrange
+        aggregator.record(effort("emp-1", Instant.now(), "bug-fix", 6));
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        when(bulkOperations.execute())
+            .thenThrow(new BulkOperationException("bulk failed", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 1, List.of(), List.of()),
+                List.of(duplicate), null, new ServerAddress(), Set.of())))
+            .thenReturn(null);
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(bulkOperations, times(2)).upsert(queries.capture(), any(Update.class));
+        Object rejectedId = queries.getAllValues().get(1).getQueryObject().get("_id");
+        assertEquals(1, aggregator.pendingBuckets());
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(bulkOperations, times(3)).upsert(queries.capture(), any(Update.class));
+        assertEquals(rejectedId, queries.getValue().getQueryObject().get("_id"));
+        assertEquals(0, aggregator.pendingBuckets());
+    }
+
+    @Test
+    @DisplayName("Should drop, not retry, a flush whose outcome is unknown")
+    void testUnknownFailureNotRetried() {
+        // Arrange
+        aggregator.record(effort("emp-1", Instant.now(), "bug-fix", 6));
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("connection reset"));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        assertEquals(0, aggregator.pendingBuckets());
+    }
+
+    @Test
+    @DisplayName("Should drop efforts older than the maximum lateness")
+    void testTooLateDropped() {
+        // Act
+        aggregator.record(effort("emp-1", Instant.now().minus(Duration.ofDays(90)), "learning", 5));
+        aggregator.flush();
+
+        // Assert
+        assertEquals(1.0, timeliness("dropped"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private double timeliness(String value) {
+        return meterRegistry.get("kudosly.windows.efforts").tag("timeliness", value).counter().count();
+    }
+
+    private static Effort effort(String employeeId, Instant eventTime, String type, int impact) {
+        Effort effort = new Effort();
+        effort.setEmployeeId(employeeId);
+        effort.setTimestamp(Date.from(eventTime));
+        effort.setEffortType(type);
+        effort.setImpactScore(impact);
+        return effort;
+    }
+}
@@ -0,0 +1,153 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fair Admission Scheduler Tests")
+class FairAdmissionSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FairAdmissionScheduler scheduler;
+    private final List<String> order = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should interleave a backlog with newer work by source weight")
+    void testWeightedFairOrdering() throws Exception {
+        // Arrange
+        scheduler = new FairAdmissionScheduler(Runnable::run, meterRegistry, 1, "jira:3,slack:1", "", 0, 0, 10, 1000);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 6; i++) {
+            scheduler.submit("slack", "emp-" + i, record("slack", done));
+        }
+        scheduler.submit("jira", "emp-9", record("jira", done));
+        scheduler.submit("jira", "emp-9", record("jira", done));
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("jira", "jira"), order.subList(0, 2));
+    }
+
+    @Test
+    @DisplayName("Should defer over-limit events for a source instead of dropping them")
+    void testSourceRateDefers() throws Exception {
+        // Arrange
+        scheduler = new FairAdmissionScheduler(Runnable::run, meterRegistry, 4, "", "slack:10", 0, 0, 10, 1000);
+        CountDownLatch done = new CountDownLatch(14);
+        scheduler.start();
+
+        // Act
+        for (int i = 0; i < 14; i++) {
+            scheduler.submit("slack", "emp-" + i, record("slack", done));
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(14, order.size());
+        assertTrue(meterRegistry.get("kudosly.admission.throttled")
+            .tags("source", "slack", "limit", "source").counter().count() >= 1);
+        assertEquals(14, meterRegistry.get("kudosly.admission.admitted").tag("source", "slack").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should let other employees pass a throttled employee within the same source")
+    void testEmployeeLimit() throws Exception {
+        // Arrange
+        scheduler = new FairAdmissionScheduler(Runnable::run, meterRegistry, 1, "", "", 0, 5, 1, 1000);
+        CountDownLatch done = new CountDownLatch(4);
+        scheduler.submit("github", "emp-a", record("a", done));
+        scheduler.submit("github", "emp-a", record("a", done));
+        scheduler.submit("github", "emp-a", record("a", done));
+        scheduler.submit("github", "emp-b", record("b", done));
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b"), order.subList(0, 2));
+        assertTrue(meterRegistry.get("kudosly.admission.throttled")
+            .tags("source", "github", "limit", "employee").counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should not hold a source behind a throttled employee's backlog, however long")
+    void testEmployeeBacklogDoesNotBlockSource() throws Exception {
+        // Arrange
+        scheduler = new FairAdmissionScheduler(Runnable::run, meterRegistry, 1, "", "", 0, 1, 1, 1000);
+        CountDownLatch others = new CountDownLatch(2);
+        for (int i = 0; i < 50; i++) {
+            scheduler.submit("github", "emp-a", record("a", new CountDownLatch(1)));
+        }
+        scheduler.submit("github", "emp-b", record("b", others));
+        scheduler.submit("github", "emp-c", record("c", others));
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        assertTrue(others.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "c"), order.subList(0, 3));
+        assertEquals(49, scheduler.queuedTasks("github"), 1);
+    }
+
+    @Test
+    @DisplayName("Should report saturation at max-queued and clear it once the queue drains")
+    void testSaturation() throws Exception {
+        // Arrange
+        scheduler = new FairAdmissionScheduler(Runnable::run, meterRegistry, 1, "", "", 0, 0, 10, 3);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit("jira", "emp-" + i, record("jira", done));
+        }
+
+        // Act
+        boolean saturated = scheduler.isSaturated();
+        scheduler.start();
+
+        // Assert
+        assertTrue(saturated);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.isSaturated());
+        assertEquals(1, meterRegistry.get("kudosly.admission.saturated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed source settings")
+    void testParseSourceValues() {
+        assertEquals(4.0, FairAdmissionScheduler.parseSourceValues(" Jira:4 , slack:1").get("jira"));
+        assertTrue(FairAdmissionScheduler.parseSourceValues("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> FairAdmissionScheduler.parseSourceValues("jira=4"));
+    }
+
+    private Runnable record(String label, CountDownLatch done) {
+        return () -> {
+            order.add(label);
+            done.countDown();
+        };
+    }
+}
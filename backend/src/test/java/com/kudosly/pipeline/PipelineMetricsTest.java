@@ -0,0 +1,84 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pipeline Metrics Tests")
+class PipelineMetricsTest {
+
+    private MeterRegistry meterRegistry;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new PipelineMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should time a step even when it throws")
+    void testStepTimedOnFailure() {
+        // Act
+        assertEquals("bug-fix", metrics.time("classify", () -> "bug-fix"));
+        assertThrows(IllegalStateException.class, () -> metrics.time("score", () -> {
+            throw new IllegalStateException("scorer down");
+        }));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("kudosly.pipeline.step").tag("step", "classify").timer().count());
+        assertEquals(1, meterRegistry.get("kudosly.pipeline.step").tag("step", "score").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should track in-flight efforts and record lag from the source event time")
+    void testInFlightAndLag() {
+        // Arrange
+        Effort done = effort("effort-1", Instant.now().minus(Duration.ofMinutes(10)));
+        Effort failed = effort("effort-2", Instant.now());
+        metrics.begin(done);
+        metrics.begin(failed);
+        assertEquals(2.0, meterRegistry.get("kudosly.efforts.in_flight").gauge().value());
+
+        // Act
+        metrics.lag(done, PipelineMetrics.RECOGNIZED);
+        metrics.finish(done, true);
+        metrics.finish(failed, false);
+        metrics.finish(done, true);
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("kudosly.efforts.in_flight").gauge().value());
+        Timer recognized = meterRegistry.get("kudosly.efforts.lag").tags("source", "github", "milestone", "recognized").timer();
+        assertTrue(recognized.totalTime(TimeUnit.MINUTES) >= 10);
+        assertEquals(1, meterRegistry.get("kudosly.efforts.lag").tag("milestone", "completed").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should bucket impact scores")
+    void testImpactBuckets() {
+        assertEquals("none", PipelineMetrics.impactBucket(null));
+        assertEquals("0-4", PipelineMetrics.impactBucket(4));
+        assertEquals("5-6", PipelineMetrics.impactBucket(6));
+        assertEquals("7-8", PipelineMetrics.impactBucket(7));
+        assertEquals("9-10", PipelineMetrics.impactBucket(10));
+    }
+
+    private static Effort effort(String id, Instant eventTime) {
+        Effort effort = new Effort();
+        effort.setId(id);
+        effort.setSource("GitHub");
+        effort.setTimestamp(Date.from(eventTime));
+        return effort;
+    }
+}
@@ -0,0 +1,90 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pipeline Stage Tests")
+class PipelineStageTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should hand every item to a worker and record service time")
+    void testProcessesItems() throws Exception {
+        // Arrange
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(20);
+        PipelineStage<Integer> stage = new PipelineStage<Integer>("score", 3, 50, Duration.ofMillis(100),
+            Duration.ofSeconds(5), item -> {
+                handled.add(item);
+                done.countDown();
+            }, meterRegistry).start();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            stage.submit(i);
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        stage.close();
+        assertEquals(20, handled.size());
+        assertEquals(20, meterRegistry.get("kudosly.stage.service.time").tag("stage", "score").timer().count());
+        assertEquals(0.0, meterRegistry.get("kudosly.stage.rejected").tag("stage", "score").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should run an item on the submitter when the queue stays full")
+    void testFullQueueRunsOnSubmitter() throws Exception {
+        // Arrange
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Thread> threads = new ConcurrentHashMap<>();
+        PipelineStage<String> stage = new PipelineStage<String>("persist", 1, 1, Duration.ofMillis(20),
+            Duration.ofSeconds(5), item -> {
+                threads.put(item, Thread.currentThread());
+                if ("slow".equals(item)) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, meterRegistry).start();
+        stage.submit("slow");
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        stage.submit("queued");
+
+        // Act
+        stage.submit("overflow");
+
+        // Assert
+        assertSame(Thread.currentThread(), threads.get("overflow"));
+        assertEquals(1, stage.queueDepth());
+        assertEquals(1.0, meterRegistry.get("kudosly.stage.rejected").tag("stage", "persist").counter().count());
+        assertEquals(1.0, meterRegistry.get("kudosly.stage.queue.depth").tag("stage", "persist").gauge().value());
+
+        release.countDown();
+        stage.close();
+        assertNotSame(Thread.currentThread(), threads.get("queued"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.kudosly.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Priority Lanes Tests")
+class PriorityLanesTest {
+
+    private static final long AGING = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    @DisplayName("Should serve higher lanes first and keep FIFO order within a lane")
+    void testHigherLaneFirst() throws Exception {
+        // Arrange
+        PriorityLanes<String> lanes = new PriorityLanes<>(3, 10, AGING);
+        long now = System.nanoTime();
+        lanes.offer("chat-1", 2, now, 0, TimeUnit.MILLISECONDS);
+        lanes.offer("chat-2", 2, now, 0, TimeUnit.MILLISECONDS);
+        lanes.offer("review", 1, now, 0, TimeUnit.MILLISECONDS);
+        lanes.offer("bug-fix", 0, now, 0, TimeUnit.MILLISECONDS);
+
+        // Act & Assert
+        assertEquals("bug-fix", lanes.poll(0, TimeUnit.MILLISECONDS).value());
+        assertEquals("review", lanes.poll(0, TimeUnit.MILLISECONDS).value());
+        assertEquals("chat-1", lanes.poll(0, TimeUnit.MILLISECONDS).value());
+        assertEquals("chat-2", lanes.poll(0, TimeUnit.MILLISECONDS).value());
+        assertNull(lanes.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, lanes.promoted());
+    }
+
+    @Test
+    @DisplayName("Should promote a low-lane item once it has aged past the high lane's head")
+    void testAgingPreventsStarvation() throws Exception {
+        // Arrange
+        PriorityLanes<String> lanes = new PriorityLanes<>(3, 10, AGING);
+        long now = System.nanoTime();
+        lanes.offer("old-chat", 2, now - 5 * AGING, 0, TimeUnit.MILLISECONDS);
+        lanes.offer("fresh-bug-fix", 0, now, 0, TimeUnit.MILLISECONDS);
+
+        // Act
+        PriorityLanes.Entry<String> first = lanes.poll(0, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertEquals("old-chat", first.value());
+        assertEquals(1, lanes.promoted());
+        assertEquals("fresh-bug-fix", lanes.poll(0, TimeUnit.MILLISECONDS).value());
+    }
+
+    @Test
+    @DisplayName("Should bound each lane separately so a full low lane never blocks the high lane")
+    void testPerLaneCapacity() throws Exception {
+        // Arrange
+        PriorityLanes<String> lanes = new PriorityLanes<>(3, 1, AGING);
+        long now = System.nanoTime();
+        assertTrue(lanes.offer("chat-1", 2, now, 0, TimeUnit.MILLISECONDS));
+
+        // Act
+        boolean overflow = lanes.offer("chat-2", 2, now, 10, TimeUnit.MILLISECONDS);
+        boolean high = lanes.offer("bug-fix", 0, now, 0, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertFalse(overflow);
+        assertTrue(high);
+        assertEquals(2, lanes.size());
+        assertEquals(1, lanes.size(2));
+    }
+}
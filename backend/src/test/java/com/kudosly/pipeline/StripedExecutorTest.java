@@ -0,0 +1,155 @@
+package com.kudosly.pipeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Striped Executor Tests")
+class StripedExecutorTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should run one key's tasks in order and never concurrently")
+    void testPerKeyOrderAndExclusivity() throws Exception {
+        // Arrange
+        StripedExecutor executor = new StripedExecutor("employee", 4, 100, Duration.ofSeconds(5),
+            1.0, Duration.ofMinutes(1), 1000, meterRegistry).start();
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(200);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            for (String employee : List.of("emp-1", "emp-2", "emp-3", "emp-4")) {
+                int sequence = i;
+                executor.execute(employee, () -> {
+                    if (running.computeIfAbsent(employee, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    seen.computeIfAbsent(employee, k -> new CopyOnWriteArrayList<>()).add(sequence);
+                    Thread.yield();
+                    running.get(employee).decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.close();
+        assertEquals(0, overlaps.get());
+        for (List<Integer> sequence : seen.values()) {
+            assertEquals(50, sequence.size());
+            for (int i = 0; i < sequence.size(); i++) {
+                assertEquals(i, sequence.get(i));
+            }
+        }
+        double executed = meterRegistry.get("kudosly.striped.executed").counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+        assertEquals(200.0, executed);
+    }
+
+    @Test
+    @DisplayName("Should run a waited-on task on its key's stripe and rethrow its failure")
+    void testExecuteAndWait() {
+        // Arrange
+        StripedExecutor executor = new StripedExecutor("employee", 4, 100, Duration.ofSeconds(5),
+            1.0, Duration.ofMinutes(1), 1000, meterRegistry).start();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        // Act
+        executor.executeAndWait("emp-1", () -> threads.add(Thread.currentThread().getName()));
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> executor.executeAndWait("emp-1", () -> {
+                throw new IllegalStateException("badge store down");
+            }));
+
+        // Assert
+        assertEquals(List.of("striped-employee-" + executor.stripeFor("emp-1")), threads);
+        assertEquals("badge store down", failure.getMessage());
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should report stripe imbalance and flag a hot key when its window closes")
+    void testImbalanceAndHotKey() throws Exception {
+        // Arrange
+        StripedExecutor executor = new StripedExecutor("employee", 4, 100, Duration.ofSeconds(5),
+            0.5, Duration.ofMillis(50), 10, meterRegistry).start();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute("hot", () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // Act
+        for (int i = 0; i < 19; i++) {
+            executor.execute("hot", () -> { });
+        }
+        executor.execute("cold", () -> { });
+        double imbalance = executor.imbalance();
+        Thread.sleep(60);
+        executor.execute("cold", () -> { });
+
+        // Assert
+        assertTrue(imbalance > 1.0, "imbalance: " + imbalance);
+        assertEquals(1.0, meterRegistry.get("kudosly.striped.hot.keys").counter().count());
+        assertTrue(executor.hottestShare() > 0.9);
+        release.countDown();
+        executor.close();
+        assertEquals(0, executor.queuedTasks());
+    }
+
+    @Test
+    @DisplayName("Should reject rather than block when a stripe worker submits to a full stripe")
+    void testWorkerNeverBlocksOnFullStripe() throws Exception {
+        // Arrange
+        StripedExecutor executor = new StripedExecutor("employee", 1, 1, Duration.ofSeconds(5),
+            1.0, Duration.ofMinutes(1), 1000, meterRegistry).start();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+
+        // Act
+        executor.execute("emp-1", () -> {
+            executor.execute("emp-1", done::countDown);
+            try {
+                executor.execute("emp-1", () -> { });
+            } catch (RejectedExecutionException e) {
+                errors.add(e);
+            }
+            done.countDown();
+        });
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.close();
+        assertEquals(1, errors.size());
+    }
+}
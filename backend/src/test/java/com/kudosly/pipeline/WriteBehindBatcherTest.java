@@ -0,0 +1,230 @@
+package com.kudosly.pipeline;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.Recognition;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Write-Behind Batcher Tests")
+class WriteBehindBatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations effortBulk;
+
+    @Mock
+    private BulkOperations recognitionBulk;
+
+    private MeterRegistry meterRegistry;
+    private WriteBehindBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mongoTemplate.getConverter())
+            .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoTemplate.getCollectionName(Effort.class)).thenReturn("efforts");
+        when(mongoTemplate.getCollectionName(Recognition.class)).thenReturn("recognitions");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class)).thenReturn(effortBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recognition.class)).thenReturn(recognitionBulk);
+        when(effortBulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class))).thenReturn(effortBulk);
+        when(recognitionBulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class)))
+            .thenReturn(recognitionBulk);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush a full batch as one bulk per collection and coalesce repeat saves")
+    void testFullBatchFlushedPerCollection() throws Exception {
+        // Arrange
+        batcher = start(2, 60_000);
+        Effort effort = new Effort();
+        Recognition recognition = new Recognition();
+
+        // Act
+        CompletableFuture<Effort> first = batcher.save(effort);
+        CompletableFuture<Effort> second = batcher.save(effort);
+        CompletableFuture<Recognition> third = batcher.save(recognition);
+
+        // Assert
+        assertSame(effort, first.get(5, TimeUnit.SECONDS));
+        assertSame(effort, second.get(5, TimeUnit.SECONDS));
+        assertSame(recognition, third.get(5, TimeUnit.SECONDS));
+        assertNotNull(effort.getId());
+        assertNotNull(recognition.getId());
+        verify(effortBulk, times(1)).replaceOne(any(Query.class), same(effort), any(FindAndReplaceOptions.class));
+        verify(effortBulk).execute();
+        verify(recognitionBulk).execute();
+        assertEquals(1.0, meterRegistry.get("kudosly.writebehind.coalesced").counter().count());
+        assertEquals(1, meterRegistry.get("kudosly.writebehind.batch.size").tag("collection", "efforts")
+            .summary().count());
+    }
+
+    @Test
+    @DisplayName("Should flush after the delay and fail only the futures of rejected documents")
+    void testDelayFlushFailsOnlyRejected() throws Exception {
+        // Arrange
+        batcher = start(100, 200);
+        BulkWriteError rejected = new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1);
+        when(effortBulk.execute()).thenThrow(new BulkOperationException("bulk failed", new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(0, 0, 0, 1, List.of(), List.of()),
+            List.of(rejected), null, new ServerAddress(), Set.of())));
+
+        // Act
+        CompletableFuture<Effort> accepted = batcher.save(new Effort());
+        CompletableFuture<Effort> failed = batcher.save(new Effort());
+
+        // Assert
+        assertNotNull(accepted.get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        verify(effortBulk, times(2)).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        assertEquals(1.0, meterRegistry.get("kudosly.writebehind.failed").tag("collection", "efforts")
+            .counter().count());
+        assertEquals(0, batcher.pending());
+    }
+
+    @Test
+    @DisplayName("Should merge partial updates of one document and write them after its save")
+    void testPartialUpdatesMergedAfterSaves() throws Exception {
+        // Arrange
+        batcher = start(100, 200);
+        when(effortBulk.updateOne(any(Query.class), any(Update.class))).thenReturn(effortBulk);
+        Effort effort = new Effort();
+        batcher.save(effort);
+
+        // Act
+        CompletableFuture<Void> scored = batcher.update(Effort.class, effort.getId(),
+            new Update().set("effortType", "bug-fix").set("likes", 2).inc("shares", 1));
+        CompletableFuture<Void> liked = batcher.update(Effort.class, effort.getId(),
+            new Update().inc("likes", 1).inc("shares", 2).set("effortType", "feature"));
+
+        // Assert
+        scored.get(5, TimeUnit.SECONDS);
+        liked.get(5, TimeUnit.SECONDS);
+        ArgumentCaptor<Update> written = ArgumentCaptor.forClass(Update.class);
+        InOrder order = inOrder(effortBulk);
+        order.verify(effortBulk).replaceOne(any(Query.class), same(effort), any(FindAndReplaceOptions.class));
+        order.verify(effortBulk).execute();
+        order.verify(effortBulk).updateOne(any(Query.class), written.capture());
+        order.verify(effortBulk).execute();
+        Document update = written.getValue().getUpdateObject();
+        assertEquals(new Document("effortType", "feature").append("likes", 3), update.get("$set"));
+        assertEquals(new Document("shares", 3), update.get("$inc"));
+        assertEquals(1.0, meterRegistry.get("kudosly.writebehind.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should write updates that cannot merge exactly as separate writes in order")
+    void testUnmergeableUpdatesWrittenInOrder() throws Exception {
+        // Arrange
+        batcher = start(100, 200);
+        when(effortBulk.updateOne(any(Query.class), any(Update.class))).thenReturn(effortBulk);
+        String id = new ObjectId().toHexString();
+
+        // Act
+        CompletableFuture<Void> staged = batcher.update(Effort.class, id,
+            new Update().set("pendingEffects", List.of("badge")).set("status", "scored"));
+        CompletableFuture<Void> applied = batcher.update(Effort.class, id,
+            new Update().pull("pendingEffects", "badge").set("status", "recognized"));
+        CompletableFuture<Void> cleared = batcher.update(Effort.class, id, new Update().unset("pendingSince"));
+
+        // Assert
+        CompletableFuture.allOf(staged, applied, cleared).get(5, TimeUnit.SECONDS);
+        ArgumentCaptor<Update> written = ArgumentCaptor.forClass(Update.class);
+        verify(effortBulk, times(3)).updateOne(any(Query.class), written.capture());
+        verify(effortBulk, times(3)).execute();
+        List<Update> updates = written.getAllValues();
+        assertTrue(updates.get(0).getUpdateObject().containsKey("$set"));
+        assertTrue(updates.get(1).getUpdateObject().containsKey("$pull"));
+        assertTrue(updates.get(2).getUpdateObject().containsKey("$unset"));
+        assertEquals(0.0, meterRegistry.get("kudosly.writebehind.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should only merge $set/$inc updates on identical or disjoint paths")
+    void testCanMerge() {
+        // Arrange
+        Update set = new Update().set("payload", new Document("title", "a")).set("likes", 1);
+
+        // Act & Assert
+        assertTrue(WriteBehindBatcher.canMerge(set, new Update().inc("likes", 1).set("shares", 2)));
+        assertTrue(WriteBehindBatcher.canMerge(set, new Update().set("payload", new Document())));
+        assertFalse(WriteBehindBatcher.canMerge(set, new Update().set("payload.title", "b")));
+        assertFalse(WriteBehindBatcher.canMerge(new Update().inc("a.b", 1), new Update().set("a", 0)));
+        assertFalse(WriteBehindBatcher.canMerge(set, new Update().inc("payload", 1)));
+        assertFalse(WriteBehindBatcher.canMerge(set, new Update().unset("likes")));
+        assertFalse(WriteBehindBatcher.canMerge(new Update().push("tags", "x"), new Update().set("likes", 1)));
+    }
+
+    @Test
+    @DisplayName("Should complete an insert rejected as a duplicate with null")
+    void testDuplicateInsertCompletesWithNull() throws Exception {
+        // Arrange
+        batcher = start(2, 60_000);
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        when(effortBulk.insert(any(Object.class))).thenReturn(effortBulk);
+        when(effortBulk.execute()).thenThrow(new BulkOperationException("dup", new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+            List.of(duplicate), null, new ServerAddress(), Set.of())));
+
+        // Act
+        CompletableFuture<Effort> replayed = batcher.insert(new Effort());
+        CompletableFuture<Effort> fresh = batcher.insert(new Effort());
+
+        // Assert
+        assertNull(replayed.get(5, TimeUnit.SECONDS));
+        assertNotNull(fresh.get(5, TimeUnit.SECONDS));
+        verify(effortBulk, never()).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        assertThrows(Exception.class, () -> meterRegistry.get("kudosly.writebehind.failed").counter());
+    }
+
+    private WriteBehindBatcher start(int maxBatchSize, long maxDelayMillis) {
+        WriteBehindBatcher started = new WriteBehindBatcher(mongoTemplate, meterRegistry, maxBatchSize,
+            maxDelayMillis, 1000);
+        started.start();
+        return started;
+    }
+}
@@ -0,0 +1,169 @@
+package com.kudosly.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudosly.dto.BatchIngestResultDTO;
+import com.kudosly.model.Effort;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Batch Ingest Service Tests")
+class BatchIngestServiceTest {
+
+    @Mock
+    private EffortIntakeService effortIntakeService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private RawEventArchiveService rawEventArchive;
+
+    private BatchIngestService batchIngestService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        batchIngestService = new BatchIngestService(effortIntakeService, mongoTemplate, rawEventArchive);
+        ReflectionTestUtils.setField(batchIngestService, "chunkSize", 2);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class)).thenReturn(bulkOperations);
+        when(effortIntakeService.extractPayload(any(byte[].class), eq("test")))
+            .thenAnswer(invocation -> objectMapper.readValue((byte[]) invocation.getArgument(0), Map.class));
+        when(effortIntakeService.normalizePayload(anyMap(), eq("test"))).thenAnswer(invocation -> {
+            Map<String, Object> payload = invocation.getArgument(0);
+            if (!payload.containsKey("employeeId")) {
+                return null;
+            }
+            Effort effort = new Effort();
+            effort.setEmployeeId((String) payload.get("employeeId"));
+            effort.setSource("test");
+            effort.setPayload(payload);
+            return effort;
+        });
+    }
+
+    @Test
+    @DisplayName("Should ingest gzip-compressed NDJSON in chunks with per-line results")
+    void testGzipNdjsonIngest() throws Exception {
+        // Arrange
+        String ndjson = """
+            {"employeeId":"emp-1","title":"Fix bug"}
+            {"employeeId":"emp-2","title":"Add feature"}
+
+            not json
+            {"title":"no employee"}
+            {"employeeId":"emp-3","title":"Review"}
+            """;
+
+        // Act
+        BatchIngestResultDTO result = batchIngestService.ingestNdjson(new ByteArrayInputStream(gzip(ndjson)), "test");
+
+        // Assert
+        assertEquals(5, result.getTotalLines());
+        assertEquals(3, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals("created", result.getResults().get(0).getStatus());
+        assertNotNull(result.getResults().get(0).getEffortId());
+        assertEquals(4, result.getResults().get(2).getLine());
+        assertTrue(result.getResults().get(2).getError().startsWith("Invalid JSON"));
+        assertEquals("failed", result.getResults().get(3).getStatus());
+        verify(bulkOperations, times(2)).execute();
+        verify(effortIntakeService, times(3)).processEffortAsync(any(Effort.class));
+        verify(rawEventArchive, times(2)).archiveAll(anyList(), eq("test"), anyList());
+    }
+
+    @Test
+    @DisplayName("Should report only the failed documents of a partially failed bulk insert")
+    void testPartialBulkFailure() throws Exception {
+        // Arrange
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        MongoBulkWriteException cause = new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+            List.of(error), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk failed", cause));
+
+        String ndjson = "{\"employeeId\":\"emp-1\"}\n{\"employeeId\":\"emp-2\"}\n";
+
+        // Act
+        BatchIngestResultDTO result = batchIngestService.ingestNdjson(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "test");
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals("created", result.getResults().get(0).getStatus());
+        assertEquals("failed", result.getResults().get(1).getStatus());
+        assertEquals("duplicate key", result.getResults().get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Should fan GitHub push lines out into per-commit efforts")
+    void testPushLineFanOut() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(effortIntakeService.extractPayload(any(byte[].class), eq("github")))
+            .thenAnswer(invocation -> objectMapper.readValue((byte[]) invocation.getArgument(0), Map.class));
+        Effort first = new Effort();
+        first.setId("effort-1");
+        Effort second = new Effort();
+        second.setId("effort-2");
+        when(effortIntakeService.ingestPush(argThat(p -> p != null && "refs/heads/main".equals(p.get("ref"))), any(byte[].class)))
+            .thenReturn(List.of(first, second));
+        when(effortIntakeService.ingestPush(argThat(p -> p != null && "refs/heads/old".equals(p.get("ref"))), any(byte[].class)))
+            .thenReturn(List.of());
+
+        String ndjson = """
+            {"ref":"refs/heads/main","commits":[{"id":"a1"},{"id":"b2"}]}
+            {"ref":"refs/heads/old","commits":[{"id":"a1"}]}
+            """;
+
+        // Act
+        BatchIngestResultDTO result = batchIngestService.ingestNdjson(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "github");
+
+        // Assert
+        assertEquals(2, result.getTotalLines());
+        assertEquals(1, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals("created", result.getResults().get(0).getStatus());
+        assertEquals(List.of("effort-1", "effort-2"), result.getResults().get(0).getEffortIds());
+        assertEquals("skipped", result.getResults().get(1).getStatus());
+        verify(effortIntakeService, never()).normalizePayload(anyMap(), eq("github"));
+        verify(bulkOperations, never()).execute();
+    }
+
+    private static byte[] gzip(String value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
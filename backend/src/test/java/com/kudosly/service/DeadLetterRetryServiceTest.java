@@ -0,0 +1,80 @@
+package com.kudosly.service;
+
+import com.kudosly.model.DeadLetter;
+import com.kudosly.model.Effort;
+import com.kudosly.repository.EffortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Dead Letter Retry Service Tests")
+class DeadLetterRetryServiceTest {
+
+    @Mock
+    private DeadLetterService deadLetters;
+
+    @Mock
+    private EffortRepository effortRepository;
+
+    @Mock
+    private EffortProcessingService processingService;
+
+    private DeadLetterRetryService retryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        retryService = new DeadLetterRetryService(deadLetters, effortRepository, processingService);
+        ReflectionTestUtils.setField(retryService, "batchSize", 10);
+    }
+
+    @Test
+    @DisplayName("Should resolve recovered entries in one call and re-record failures")
+    void testRetryDueResolvesAndReschedules() {
+        // Arrange
+        Effort healed = effort("effort-1");
+        Effort stillFailing = effort("effort-2");
+        when(deadLetters.claimDue(10)).thenReturn(List.of(
+            letter("effort-1", EffortProcessingService.PERSIST),
+            letter("effort-2", EffortProcessingService.RECOGNIZE),
+            letter("effort-gone", EffortProcessingService.CLASSIFY)));
+        when(effortRepository.findById("effort-1")).thenReturn(Optional.of(healed));
+        when(effortRepository.findById("effort-2")).thenReturn(Optional.of(stillFailing));
+        when(effortRepository.findById("effort-gone")).thenReturn(Optional.empty());
+        RuntimeException outage = new IllegalStateException("ai service unavailable");
+        doThrow(outage).when(processingService).reprocess(stillFailing, EffortProcessingService.RECOGNIZE);
+
+        // Act
+        retryService.retryDue();
+
+        // Assert
+        verify(processingService).reprocess(healed, EffortProcessingService.PERSIST);
+        verify(deadLetters).resolve(List.of("effort-1|persist", "effort-gone|classify"));
+        verify(deadLetters).record(stillFailing, EffortProcessingService.RECOGNIZE, outage);
+        verify(deadLetters, times(1)).claimDue(anyInt());
+    }
+
+    private static Effort effort(String id) {
+        Effort effort = new Effort();
+        effort.setId(id);
+        return effort;
+    }
+
+    private static DeadLetter letter(String effortId, String stage) {
+        DeadLetter letter = new DeadLetter();
+        letter.setId(DeadLetterService.idFor(effortId, stage));
+        letter.setEffortId(effortId);
+        letter.setStage(stage);
+        letter.setAttempts(1);
+        return letter;
+    }
+}
@@ -0,0 +1,119 @@
+package com.kudosly.service;
+
+import com.kudosly.model.DeadLetter;
+import com.kudosly.model.Effort;
+import com.kudosly.repository.DeadLetterRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Dead Letter Service Tests")
+class DeadLetterServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DeadLetterRepository deadLetterRepository;
+
+    private DeadLetterService deadLetterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        deadLetterService = new DeadLetterService(mongoTemplate, deadLetterRepository);
+        ReflectionTestUtils.setField(deadLetterService, "baseDelayMillis", 1000L);
+        ReflectionTestUtils.setField(deadLetterService, "maxDelayMillis", 60_000L);
+        ReflectionTestUtils.setField(deadLetterService, "maxAttempts", 5);
+        ReflectionTestUtils.setField(deadLetterService, "leaseMillis", 300_000L);
+    }
+
+    @Test
+    @DisplayName("Should double the backoff per attempt up to the cap, with jitter")
+    void testBackoffGrowsAndCaps() {
+        for (int i = 0; i < 50; i++) {
+            long first = deadLetterService.backoffMillis(1);
+            long fourth = deadLetterService.backoffMillis(4);
+            long capped = deadLetterService.backoffMillis(40);
+
+            assertTrue(first >= 500 && first <= 1000, "first: " + first);
+            assertTrue(fourth >= 4000 && fourth <= 8000, "fourth: " + fourth);
+            assertTrue(capped >= 30_000 && capped <= 60_000, "capped: " + capped);
+        }
+    }
+
+    @Test
+    @DisplayName("Should record the failing stage and unwrapped exception and schedule a retry")
+    void testRecordSchedulesRetry() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+            eq(DeadLetter.class))).thenReturn(letter(2));
+        long before = System.currentTimeMillis();
+
+        // Act
+        deadLetterService.record(effort(), EffortProcessingService.PERSIST,
+            new CompletionException(new IllegalStateException("mongo down")));
+
+        // Assert
+        ArgumentCaptor<Update> recorded = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(argThat(q -> "effort-1|persist".equals(q.getQueryObject().get("_id"))),
+            recorded.capture(), any(FindAndModifyOptions.class), eq(DeadLetter.class));
+        Document set = (Document) recorded.getValue().getUpdateObject().get("$set");
+        assertEquals(IllegalStateException.class.getName(), set.get("errorType"));
+        assertEquals("mongo down", set.get("errorMessage"));
+
+        ArgumentCaptor<Update> scheduled = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), scheduled.capture(), eq(DeadLetter.class));
+        Document schedule = (Document) scheduled.getValue().getUpdateObject().get("$set");
+        assertEquals(DeadLetterService.PENDING, schedule.get("status"));
+        long delay = ((Date) schedule.get("nextAttemptAt")).getTime() - before;
+        assertTrue(delay >= 1000 && delay <= 2100, "delay: " + delay);
+    }
+
+    @Test
+    @DisplayName("Should mark an entry exhausted after the maximum attempts")
+    void testRecordExhausts() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+            eq(DeadLetter.class))).thenReturn(letter(5));
+
+        // Act
+        deadLetterService.record(effort(), EffortProcessingService.CLASSIFY, new RuntimeException("bad payload"));
+
+        // Assert
+        ArgumentCaptor<Update> scheduled = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), scheduled.capture(), eq(DeadLetter.class));
+        Document update = scheduled.getValue().getUpdateObject();
+        assertEquals(DeadLetterService.EXHAUSTED, ((Document) update.get("$set")).get("status"));
+        assertTrue(((Document) update.get("$unset")).containsKey("nextAttemptAt"));
+    }
+
+    private static Effort effort() {
+        Effort effort = new Effort();
+        effort.setId("effort-1");
+        return effort;
+    }
+
+    private static DeadLetter letter(int attempts) {
+        DeadLetter letter = new DeadLetter();
+        letter.setId("effort-1|persist");
+        letter.setAttempts(attempts);
+        return letter;
+    }
+}
@@ -0,0 +1,107 @@
+package com.kudosly.service;
+
+import com.kudosly.model.WebhookDelivery;
+import com.kudosly.repository.WebhookDeliveryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Delivery Idempotency Service Tests")
+class DeliveryIdempotencyServiceTest {
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MeterRegistry meterRegistry;
+    private DeliveryIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new DeliveryIdempotencyService(deliveryRepository, mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 72L);
+        ReflectionTestUtils.setField(idempotencyService, "expectedDeliveries", 10_000L);
+        ReflectionTestUtils.setField(idempotencyService, "falsePositiveRate", 0.01);
+        idempotencyService.init();
+        ReflectionTestUtils.setField(idempotencyService, "warmedUp", true);
+    }
+
+    @Test
+    @DisplayName("Should answer unseen deliveries from the filter without querying Mongo")
+    void testUnseenDeliverySkipsStore() {
+        // Act
+        boolean duplicate = idempotencyService.isDuplicate("github", "delivery-1");
+
+        // Assert
+        assertFalse(duplicate);
+        verifyNoInteractions(deliveryRepository);
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    @DisplayName("Should confirm recorded deliveries against the store")
+    void testRecordedDeliveryIsDuplicate() {
+        // Arrange
+        idempotencyService.recordDelivery("github", "delivery-1");
+        when(deliveryRepository.existsById("github:delivery-1")).thenReturn(true);
+
+        // Act
+        boolean duplicate = idempotencyService.isDuplicate("GitHub", "delivery-1");
+
+        // Assert
+        assertTrue(duplicate);
+        verify(deliveryRepository).insert(any(WebhookDelivery.class));
+        assertEquals(1.0, counter("hit"));
+    }
+
+    @Test
+    @DisplayName("Should count a filter hit missing from the store as a false positive")
+    void testFalsePositive() {
+        // Arrange
+        when(deliveryRepository.insert(any(WebhookDelivery.class))).thenThrow(new DuplicateKeyException("dup"));
+        idempotencyService.recordDelivery("jira", "abc");
+        when(deliveryRepository.existsById("jira:abc")).thenReturn(false);
+
+        // Act
+        boolean duplicate = idempotencyService.isDuplicate("jira", "abc");
+
+        // Assert
+        assertFalse(duplicate);
+        assertEquals(1.0, counter("false_positive"));
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    @DisplayName("Should check the store for every delivery until the filter is warmed up")
+    void testColdFilterChecksStore() {
+        // Arrange
+        ReflectionTestUtils.setField(idempotencyService, "warmedUp", false);
+        when(deliveryRepository.existsById("github:delivery-1")).thenReturn(true);
+
+        // Act
+        boolean duplicate = idempotencyService.isDuplicate("github", "delivery-1");
+
+        // Assert
+        assertTrue(duplicate);
+        assertEquals(1.0, counter("hit"));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("kudosly.webhook.idempotency").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,185 @@
+package com.kudosly.service;
+
+import com.kudosly.dto.BatchProcessingResultDTO;
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.model.Recognition;
+import com.kudosly.pipeline.EffortCompletionRegistry;
+import com.kudosly.pipeline.EffortWindowAggregator;
+import com.kudosly.pipeline.PipelineMetrics;
+import com.kudosly.pipeline.StripedExecutor;
+import com.kudosly.pipeline.WriteBehindBatcher;
+import com.kudosly.repository.EffortRepository;
+import com.kudosly.repository.RecognitionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Effort Processing Service Tests")
+class EffortProcessingServiceTest {
+
+    @Mock
+    private EffortRepository effortRepository;
+
+    @Mock
+    private RecognitionRepository recognitionRepository;
+
+    @Mock
+    private EffortClassifierService classifierService;
+
+    @Mock
+    private ImpactScoringService scoringService;
+
+    @Mock
+    private RecognitionGeneratorService generationService;
+
+    @Mock
+    private OutboxRelayService outbox;
+
+    @Mock
+    private EffortWindowAggregator windowAggregator;
+
+    @Mock
+    private WriteBehindBatcher writeBehind;
+
+    @Mock
+    private DeadLetterService deadLetters;
+
+    private MeterRegistry meterRegistry;
+    private StripedExecutor employeeLanes;
+    private EffortProcessingService processingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        employeeLanes = new StripedExecutor("employee", 2, 10, Duration.ofSeconds(5),
+            0.25, Duration.ofSeconds(10), 100, meterRegistry).start();
+        processingService = new EffortProcessingService(effortRepository, recognitionRepository, classifierService,
+            scoringService, generationService, outbox, windowAggregator, writeBehind, deadLetters,
+            new EffortCompletionRegistry(meterRegistry), new PipelineMetrics(meterRegistry), meterRegistry,
+            employeeLanes);
+        for (String stage : List.of("classify", "persist", "recognize")) {
+            ReflectionTestUtils.setField(processingService, stage + "Workers", 1);
+            ReflectionTestUtils.setField(processingService, stage + "Capacity", 10);
+        }
+        ReflectionTestUtils.setField(processingService, "offerTimeoutMillis", 100L);
+        ReflectionTestUtils.setField(processingService, "shutdownTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(processingService, "batchParallelism", 4);
+        ReflectionTestUtils.setField(processingService, "batchChunkSize", 3);
+        processingService.startStages();
+
+        when(writeBehind.save(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        when(writeBehind.insert(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        when(writeBehind.update(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(classifierService.classifyEffort(any())).thenReturn("bug-fix");
+        when(generationService.buildRecognition(any())).thenAnswer(invocation -> new Recognition());
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingService.stopStages();
+        employeeLanes.close();
+    }
+
+    @Test
+    @DisplayName("Should process every chunk and report progress after each")
+    void testBatchProcessesAllChunks() {
+        // Arrange
+        when(scoringService.scoreImpact(any())).thenReturn(6);
+        List<Integer> progress = new ArrayList<>();
+
+        // Act
+        BatchProcessingResultDTO result = processingService.processBatchEfforts(efforts(7),
+            report -> progress.add(report.getProcessed()));
+
+        // Assert
+        assertEquals(7, result.getTotal());
+        assertEquals(7, result.getProcessed());
+        assertEquals(0, result.getFailed());
+        assertEquals(7, result.getRecognitions());
+        assertEquals(List.of(3, 6, 7), progress);
+        verify(writeBehind, times(7)).save(any(Effort.class));
+        verify(writeBehind, times(7)).insert(any(Recognition.class));
+        verify(outbox, times(3)).markApplied(anyList(), eq(OutboxRelayService.RECOGNITION));
+        verify(windowAggregator, timeout(5000).times(7)).record(any(Effort.class));
+        assertEquals(7.0, meterRegistry.get("kudosly.efforts.processed")
+            .tags("source", "test", "effortType", "bug-fix", "impact", "5-6").counter().count());
+        assertEquals(7, meterRegistry.get("kudosly.pipeline.step").tag("step", "classify").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should record per-effort failures without aborting the run")
+    void testBatchFailuresReported() {
+        // Arrange
+        List<Effort> efforts = efforts(5);
+        when(scoringService.scoreImpact(any())).thenReturn(3);
+        when(scoringService.scoreImpact(efforts.get(1))).thenThrow(new IllegalStateException("bad payload"));
+        when(writeBehind.save(efforts.get(3)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write rejected")));
+
+        // Act
+        BatchProcessingResultDTO result = processingService.processBatchEfforts(efforts);
+
+        // Assert
+        assertEquals(3, result.getProcessed());
+        assertEquals(2, result.getFailed());
+        assertEquals(0, result.getRecognitions());
+        assertEquals("effort-1", result.getFailures().get(0).getEffortId());
+        assertEquals("classify", result.getFailures().get(0).getStage());
+        assertEquals("effort-3", result.getFailures().get(1).getEffortId());
+        assertEquals("persist", result.getFailures().get(1).getStage());
+        verify(generationService, never()).buildRecognition(any());
+        verify(deadLetters).record(eq(efforts.get(1)), eq(EffortProcessingService.CLASSIFY), any());
+        verify(deadLetters).record(eq(efforts.get(3)), eq(EffortProcessingService.PERSIST), any());
+        assertNull(efforts.get(0).getPendingEffects());
+        assertEquals(EffortStatus.FAILED, efforts.get(1).getStatus());
+        assertEquals(EffortStatus.SCORED, efforts.get(0).getStatus());
+        verify(writeBehind).update(eq(Effort.class), eq("effort-1"), any());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an effort whose employee lane work throws")
+    void testLaneFailureDeadLetters() {
+        // Arrange
+        Effort effort = efforts(1).get(0);
+        when(scoringService.scoreImpact(any())).thenReturn(3);
+        doThrow(new IllegalStateException("aggregate store down")).when(windowAggregator).record(effort);
+
+        // Act
+        processingService.processNewEffort(effort);
+
+        // Assert
+        verify(deadLetters, timeout(5000)).record(eq(effort), eq(EffortProcessingService.PERSIST), any());
+        // The analysis update, then the failed status
+        verify(writeBehind, timeout(5000).times(2)).update(eq(Effort.class), eq("effort-0"), any());
+        assertEquals(EffortStatus.FAILED, effort.getStatus());
+    }
+
+    private static List<Effort> efforts(int count) {
+        List<Effort> efforts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Effort effort = new Effort();
+            effort.setId("effort-" + i);
+            effort.setEmployeeId("emp-" + i);
+            effort.setSource("test");
+            efforts.add(effort);
+        }
+        return efforts;
+    }
+}
@@ -0,0 +1,103 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Employee;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Employee Identity Index Tests")
+class EmployeeIdentityIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private EmployeeIdentityIndex identityIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        identityIndex = new EmployeeIdentityIndex(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should resolve email, GitHub and Slack identities after loading")
+    void testLoadAndResolve() {
+        // Arrange
+        when(mongoTemplate.count(any(Query.class), eq(Employee.class))).thenReturn(2L);
+        when(mongoTemplate.stream(any(Query.class), eq(Employee.class))).thenReturn(Stream.of(
+            employee("emp-1", "Ada@Example.com", "ada-l", "U001"),
+            employee("emp-2", "bob@example.com", null, "U002")));
+
+        // Act
+        identityIndex.reload();
+
+        // Assert
+        assertEquals(2, identityIndex.size());
+        assertEquals("emp-1", identityIndex.findByEmail("ada@example.com"));
+        assertEquals("emp-1", identityIndex.findByGithubUsername("Ada-L"));
+        assertEquals("emp-2", identityIndex.findBySlackId("U002"));
+        assertNull(identityIndex.findByGithubUsername("unknown"));
+        assertNull(identityIndex.findBySlackId(null));
+    }
+
+    @Test
+    @DisplayName("Should apply saves and deletes incrementally")
+    void testIncrementalUpdates() {
+        // Arrange
+        identityIndex.onAfterSave(new AfterSaveEvent<>(employee("emp-1", "old@example.com", "ada", "U001"), null, "employees"));
+
+        // Act
+        identityIndex.onAfterSave(new AfterSaveEvent<>(employee("emp-1", "new@example.com", "ada", "U001"), null, "employees"));
+
+        // Assert
+        assertNull(identityIndex.findByEmail("old@example.com"));
+        assertEquals("emp-1", identityIndex.findByEmail("new@example.com"));
+
+        // Act
+        identityIndex.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", "emp-1"), Employee.class, "employees"));
+
+        // Assert
+        assertNull(identityIndex.findByGithubUsername("ada"));
+        assertEquals(0, identityIndex.size());
+    }
+
+    @Test
+    @DisplayName("Should prefer a save seen during a reload over the streamed row")
+    void testSaveDuringReloadWins() {
+        // Arrange
+        when(mongoTemplate.count(any(Query.class), eq(Employee.class))).thenReturn(1L);
+        when(mongoTemplate.stream(any(Query.class), eq(Employee.class))).thenAnswer(invocation -> {
+            identityIndex.onAfterSave(new AfterSaveEvent<>(employee("emp-1", "new@example.com", null, null), null, "employees"));
+            return Stream.of(employee("emp-1", "stale@example.com", null, null));
+        });
+
+        // Act
+        identityIndex.reload();
+
+        // Assert
+        assertEquals("emp-1", identityIndex.findByEmail("new@example.com"));
+        assertNull(identityIndex.findByEmail("stale@example.com"));
+    }
+
+    private static Employee employee(String id, String email, String githubUsername, String slackId) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setEmail(email);
+        employee.setGithubUsername(githubUsername);
+        employee.setSlackId(slackId);
+        return employee;
+    }
+}
@@ -0,0 +1,161 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Effort;
+import com.kudosly.model.EffortStatus;
+import com.kudosly.model.Recognition;
+import com.kudosly.pipeline.StripedExecutor;
+import com.kudosly.pipeline.WriteBehindBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Outbox Relay Service Tests")
+class OutboxRelayServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecognitionGeneratorService generationService;
+
+    @Mock
+    private BadgeService badgeService;
+
+    @Mock
+    private WriteBehindBatcher writeBehind;
+
+    @Mock
+    private DeadLetterService deadLetters;
+
+    private StripedExecutor employeeLanes;
+    private OutboxRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        employeeLanes = new StripedExecutor("employee", 2, 10, Duration.ofSeconds(5),
+            0.25, Duration.ofSeconds(10), 100, new SimpleMeterRegistry()).start();
+        relayService = new OutboxRelayService(mongoTemplate, generationService, badgeService, writeBehind, employeeLanes,
+            deadLetters);
+        ReflectionTestUtils.setField(relayService, "relayAfterMillis", 60_000L);
+        ReflectionTestUtils.setField(relayService, "relayBatchSize", 100);
+        when(generationService.buildRecognition(any())).thenReturn(new Recognition());
+        when(writeBehind.update(any(), any(), any(Update.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeLanes.close();
+    }
+
+    @Test
+    @DisplayName("Should stage recognition and badge effects by impact")
+    void testStageEffects() {
+        // Arrange
+        Effort minor = effort("effort-1", 4);
+        Effort major = effort("effort-2", 8);
+
+        // Act
+        OutboxRelayService.stage(minor);
+        OutboxRelayService.stage(major);
+
+        // Assert
+        assertNull(minor.getPendingEffects());
+        assertNull(minor.getPendingSince());
+        assertEquals(List.of(OutboxRelayService.RECOGNITION, OutboxRelayService.BADGE), major.getPendingEffects());
+        assertNotNull(major.getPendingSince());
+    }
+
+    @Test
+    @DisplayName("Should replay a stale outbox and treat an existing recognition as applied")
+    void testRelayReplaysIdempotently() {
+        // Arrange
+        Effort effort = effort("effort-1", 8);
+        OutboxRelayService.stage(effort);
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of(effort));
+        when(writeBehind.insert(any(Recognition.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        relayService.relayPending();
+
+        // Assert
+        verify(writeBehind).insert(any(Recognition.class));
+        verify(badgeService).awardBadgeForEffort(effort, "bug-fix", 8);
+        verify(writeBehind, times(2)).update(eq(Effort.class), eq("effort-1"), any(Update.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Effort.class));
+        assertEquals(EffortStatus.RECOGNIZED, effort.getStatus());
+        assertNull(effort.getPendingEffects());
+        assertNull(effort.getPendingSince());
+    }
+
+    @Test
+    @DisplayName("Should keep the remaining effects when one fails")
+    void testFailedEffectStaysPending() {
+        // Arrange
+        Effort effort = effort("effort-1", 8);
+        OutboxRelayService.stage(effort);
+        when(writeBehind.insert(any(Recognition.class))).thenReturn(CompletableFuture.completedFuture(new Recognition()));
+        doThrow(new IllegalStateException("badge store down")).when(badgeService)
+            .awardBadgeForEffort(any(), any(), any());
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> relayService.apply(effort));
+
+        // Assert
+        assertEquals(new ArrayList<>(List.of(OutboxRelayService.BADGE)), effort.getPendingEffects());
+        assertTrue(effort.getPendingSince().before(new Date(System.currentTimeMillis() + 1)));
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an effort the relay cannot apply and stop relaying it")
+    void testRelayFailureDeadLettered() {
+        // Arrange
+        Effort effort = effort("effort-1", 8);
+        OutboxRelayService.stage(effort);
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of(effort));
+        when(writeBehind.insert(any(Recognition.class))).thenReturn(CompletableFuture.completedFuture(new Recognition()));
+        IllegalStateException failure = new IllegalStateException("badge store down");
+        doThrow(failure).when(badgeService).awardBadgeForEffort(any(), any(), any());
+
+        // Act
+        relayService.relayPending();
+
+        // Assert
+        verify(deadLetters).record(effort, EffortProcessingService.AWARD, failure);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(writeBehind, times(2)).update(eq(Effort.class), eq("effort-1"), updates.capture());
+        assertTrue(updates.getValue().getUpdateObject().get("$unset", Document.class).containsKey("pendingSince"));
+        assertEquals(List.of(OutboxRelayService.BADGE), effort.getPendingEffects());
+        assertNull(effort.getPendingSince());
+        assertEquals(EffortStatus.FAILED, effort.getStatus());
+    }
+
+    private static Effort effort(String id, int impact) {
+        Effort effort = new Effort();
+        effort.setId(id);
+        effort.setEmployeeId("emp-1");
+        effort.setEffortType("bug-fix");
+        effort.setImpactScore(impact);
+        return effort;
+    }
+}
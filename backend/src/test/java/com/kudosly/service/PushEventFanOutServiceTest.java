@@ -0,0 +1,114 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Effort;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Push Event Fan-Out Service Tests")
+class PushEventFanOutServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EmployeeIdentityIndex identityIndex;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private PushEventFanOutService fanOutService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        fanOutService = new PushEventFanOutService(mongoTemplate, identityIndex, new EffortClassifierService());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Effort.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(identityIndex.findByGithubUsername("ada-l")).thenReturn("emp-1");
+        when(identityIndex.findByEmail("bob@example.com")).thenReturn("emp-2");
+    }
+
+    @Test
+    @DisplayName("Should split a push into classified per-commit efforts, skipping stored SHAs")
+    void testFanOutSkipsSeenCommits() {
+        // Arrange
+        Effort seen = new Effort();
+        seen.setCommitSha("sha-2");
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of(seen));
+
+        // Act
+        List<Effort> efforts = fanOutService.fanOut(push(
+            commit("sha-1", "Fix crash on login\n\nNull check", "ada-l", null),
+            commit("sha-2", "Old commit", "ada-l", null),
+            commit("sha-3", "Implement export feature", null, "bob@example.com")));
+
+        // Assert
+        assertEquals(2, efforts.size());
+        Effort first = efforts.get(0);
+        assertEquals("sha-1", first.getCommitSha());
+        assertEquals("emp-1", first.getEmployeeId());
+        assertEquals("bug-fix", first.getEffortType());
+        assertEquals("Fix crash on login", first.getTitle());
+        assertEquals("kudosly/app@sha-1", first.getExternalId());
+        assertNotNull(first.getId());
+        assertEquals("emp-2", efforts.get(1).getEmployeeId());
+        assertEquals("feature-work", efforts.get(1).getEffortType());
+        verify(bulkOperations).insert(efforts);
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    @DisplayName("Should drop commits rejected by the unique SHA index")
+    void testDuplicateKeyRejectionsDropped() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of());
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("dup", new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+            List.of(duplicate), null, new ServerAddress(), Set.of())));
+
+        // Act
+        List<Effort> efforts = fanOutService.fanOut(push(
+            commit("sha-1", "Racing commit", "ada-l", null),
+            commit("sha-2", "New commit", "ada-l", null)));
+
+        // Assert
+        assertEquals(1, efforts.size());
+        assertEquals("sha-2", efforts.get(0).getCommitSha());
+    }
+
+    private static Map<String, Object> push(Object... commits) {
+        return Map.of(
+            "ref", "refs/heads/main",
+            "repository", Map.of("full_name", "kudosly/app"),
+            "commits", List.of(commits));
+    }
+
+    private static Map<String, Object> commit(String sha, String message, String username, String email) {
+        Map<String, Object> author = new HashMap<>();
+        author.put("username", username);
+        author.put("email", email);
+        return Map.of("id", sha, "message", message, "timestamp", "2024-05-01T10:00:00+02:00", "author", author);
+    }
+}
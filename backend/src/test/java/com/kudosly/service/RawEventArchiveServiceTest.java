@@ -0,0 +1,68 @@
+package com.kudosly.service;
+
+import com.kudosly.model.RawEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Raw Event Archive Service Tests")
+class RawEventArchiveServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RawEventArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        archiveService = new RawEventArchiveService(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should store a compressed body and return the original on fetch")
+    void testArchiveAndFetch() {
+        // Arrange
+        byte[] body = ("{\"pull_request\":{\"body\":\"" + "lorem ipsum ".repeat(200) + "\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+        ArgumentCaptor<RawEvent> stored = ArgumentCaptor.forClass(RawEvent.class);
+
+        // Act
+        archiveService.archive("effort-1", "github", body);
+        verify(mongoTemplate).insert(stored.capture());
+        when(mongoTemplate.findById("effort-1", RawEvent.class)).thenReturn(stored.getValue());
+        Optional<byte[]> fetched = archiveService.fetch("effort-1");
+
+        // Assert
+        assertEquals("effort-1", stored.getValue().getId());
+        assertEquals(body.length, stored.getValue().getRawSize());
+        assertTrue(stored.getValue().getBody().length < body.length / 4);
+        assertArrayEquals(body, fetched.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should keep an existing archive and tolerate store failures")
+    void testArchiveFailuresAreNotFatal() {
+        // Arrange
+        when(mongoTemplate.insert(any(RawEvent.class)))
+            .thenThrow(new DuplicateKeyException("dup"))
+            .thenThrow(new IllegalStateException("down"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> archiveService.archive("effort-1", "jira", new byte[] {'{', '}'}));
+        assertDoesNotThrow(() -> archiveService.archive("effort-2", "jira", new byte[] {'{', '}'}));
+        assertTrue(archiveService.fetch("missing").isEmpty());
+    }
+}
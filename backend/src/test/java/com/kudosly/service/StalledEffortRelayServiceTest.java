@@ -0,0 +1,89 @@
+package com.kudosly.service;
+
+import com.kudosly.model.Effort;
+import com.kudosly.pipeline.PipelineMetrics;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stalled Effort Relay Service Tests")
+class StalledEffortRelayServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EffortIntakeService effortIntakeService;
+
+    private PipelineMetrics metrics;
+    private StalledEffortRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        relayService = new StalledEffortRelayService(mongoTemplate, effortIntakeService, metrics);
+        ReflectionTestUtils.setField(relayService, "stalledAfterMillis", 900_000L);
+        ReflectionTestUtils.setField(relayService, "batchSize", 100);
+    }
+
+    @Test
+    @DisplayName("Should re-admit stalled efforts it claims, skipping those in flight or claimed elsewhere")
+    void testRelayStalled() {
+        // Arrange
+        Effort stalled = effort("effort-1");
+        Effort inFlight = effort("effort-2");
+        Effort claimedElsewhere = effort("effort-3");
+        metrics.begin(inFlight);
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of(stalled, inFlight, claimedElsewhere));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Effort.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Act
+        relayService.relayStalled();
+
+        // Assert
+        verify(effortIntakeService).processEffortAsync(stalled);
+        verify(effortIntakeService, never()).processEffortAsync(inFlight);
+        verify(effortIntakeService, never()).processEffortAsync(claimedElsewhere);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(Effort.class));
+        assertNotNull(stalled.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("Should leave stalled efforts unclaimed while admission is saturated")
+    void testRelayPausedWhileSaturated() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Effort.class))).thenReturn(List.of(effort("effort-1")));
+        when(effortIntakeService.isAdmissionSaturated()).thenReturn(true);
+
+        // Act
+        relayService.relayStalled();
+
+        // Assert
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Effort.class));
+        verify(effortIntakeService, never()).processEffortAsync(any(Effort.class));
+    }
+
+    private static Effort effort(String id) {
+        Effort effort = new Effort();
+        effort.setId(id);
+        effort.setSource("github");
+        return effort;
+    }
+}
@@ -112,6 +112,10 @@ db.createCollection("recognitions", {
 
 db.createCollection("badges");
 db.createCollection("weekly_digests");
+db.createCollection("raw_events"); // gzip webhook bodies keyed by effort id
+db.createCollection("sync_cursors"); // per-connector pull sync position
+db.createCollection("effort_aggregates"); // event-time day/week totals per employee
+db.createCollection("dead_letters"); // failed effort stages awaiting retry
 
 // Create indexes for better query performance
 db.employees.createIndex({ "email": 1 }, { unique: true });
@@ -120,12 +124,22 @@ db.employees.createIndex({ "team": 1 });
 db.efforts.createIndex({ "employeeId": 1, "timestamp": -1 });
 db.efforts.createIndex({ "source": 1 });
 db.efforts.createIndex({ "timestamp": -1 });
+db.efforts.createIndex({ "commitSha": 1 }, { unique: true, sparse: true });
+db.efforts.createIndex({ "syncKey": 1 }, { unique: true, sparse: true });
+db.efforts.createIndex({ "pendingSince": 1 }, { sparse: true }); // outbox relay
+db.efforts.createIndex({ "status": 1, "updatedAt": 1 }); // stalled effort relay
+
+db.effort_aggregates.createIndex({ "employeeId": 1, "granularity": 1, "bucketStart": -1 });
 
 db.recognitions.createIndex({ "employeeId": 1, "timestamp": -1 });
-db.recognitions.createIndex({ "effortId": 1 });
+db.recognitions.createIndex({ "effortId": 1 }, { unique: true });
+
+db.employee_badges.createIndex({ "employeeId": 1, "badgeId": 1 }, { unique: true });
 
 db.badges.createIndex({ "name": 1 }, { unique: true });
 
+db.dead_letters.createIndex({ "status": 1, "nextAttemptAt": 1 });
+
 db.weekly_digests.createIndex({ "employeeId": 1, "weekStart": 1, "weekEnd": 1 });
 
 print("✅ Collections and indexes created successfully!");